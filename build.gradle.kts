@@ -1,6 +1,7 @@
 plugins {
     java
     id("io.papermc.paperweight.userdev") version "2.0.0-beta.19"
+    id("me.champeau.jmh") version "0.7.2"
 }
 
 group = "com.overworldcraterewards"
@@ -25,6 +26,21 @@ dependencies {
     compileOnly("com.github.MilkBowl:VaultAPI:1.7.1")
     compileOnly("com.github.Gypopo:EconomyShopGUI-API:1.7.2")
     compileOnly("dev.rosewood:rosestacker:1.5.34")
+
+    testImplementation(platform("org.junit:junit-bom:5.11.4"))
+    testImplementation("org.junit.jupiter:junit-jupiter")
+    testRuntimeOnly("org.junit.platform:junit-platform-launcher")
+}
+
+// Benchmarks (src/jmh) run against the dev bundle's server classes, which main only compiles against
+configurations.named("jmhImplementation") {
+    extendsFrom(configurations.compileOnly.get())
+}
+
+jmh {
+    fork.set(1)
+    warmupIterations.set(3)
+    iterations.set(5)
 }
 
 tasks {
@@ -43,4 +59,8 @@ tasks {
     assemble {
         dependsOn(reobfJar)
     }
+
+    test {
+        useJUnitPlatform()
+    }
 }
@@ -0,0 +1,89 @@
+package com.overworldcraterewards.items;
+
+import com.overworldcraterewards.data.PDCKeys;
+import net.minecraft.SharedConstants;
+import net.minecraft.core.component.DataComponents;
+import net.minecraft.nbt.CompoundTag;
+import net.minecraft.server.Bootstrap;
+import net.minecraft.world.item.Items;
+import net.minecraft.world.item.component.CustomData;
+import org.bukkit.craftbukkit.inventory.CraftItemStack;
+import org.bukkit.craftbukkit.util.CraftMagicNumbers;
+import org.bukkit.inventory.ItemStack;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Custom item identification on the paths the listeners hit: a custom item
+ * seen before, custom items the cache has not seen, and a plain item.
+ *
+ * Stacks are built on the server's own item classes after bootstrapping its
+ * registries, so no running server is needed. Run with ./gradlew jmh.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ItemIdentifierBenchmark {
+
+    // Twice the cache size, so cycling through them never hits
+    private static final int UNCACHED_STACKS = 512;
+
+    private ItemStack custom;
+    private ItemStack[] uncached;
+    private ItemStack plain;
+    private int next = 0;
+
+    @Setup
+    public void setUp() {
+        SharedConstants.tryDetectVersion();
+        Bootstrap.bootStrap();
+
+        custom = customItem(CustomItemType.HARVEST_HOE, 0);
+        uncached = new ItemStack[UNCACHED_STACKS];
+        for (int i = 0; i < uncached.length; i++) {
+            uncached[i] = customItem(CustomItemType.HARVEST_HOE, i);
+        }
+        plain = CraftItemStack.asCraftMirror(new net.minecraft.world.item.ItemStack(Items.COBBLESTONE));
+    }
+
+    /**
+     * A stack as CustomItemManager creates it: the item type and one counter
+     * (which makes every stack's custom data component distinct).
+     */
+    private static ItemStack customItem(CustomItemType type, long counter) {
+        CompoundTag values = new CompoundTag();
+        values.putString(PDCKeys.ITEM_TYPE.asString(), type.getId());
+        values.putLong(PDCKeys.HARVEST_HOE_CROPS.asString(), counter);
+        CompoundTag root = new CompoundTag();
+        root.put("PublicBukkitValues", values);
+
+        net.minecraft.world.item.ItemStack stack = new net.minecraft.world.item.ItemStack(
+                CraftMagicNumbers.getItem(type.getMaterial()));
+        stack.set(DataComponents.CUSTOM_DATA, CustomData.of(root));
+        return CraftItemStack.asCraftMirror(stack);
+    }
+
+    @Benchmark
+    public CustomItemType cached() {
+        return ItemIdentifier.identify(custom);
+    }
+
+    @Benchmark
+    public CustomItemType uncached() {
+        ItemStack item = uncached[next];
+        next = (next + 1) % uncached.length;
+        return ItemIdentifier.identify(item);
+    }
+
+    @Benchmark
+    public CustomItemType plainItemRejected() {
+        return ItemIdentifier.identify(plain);
+    }
+}
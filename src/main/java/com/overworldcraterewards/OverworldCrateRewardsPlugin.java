@@ -17,6 +17,8 @@ import com.overworldcraterewards.features.vacuumhopper.VacuumHopperManager;
 import com.overworldcraterewards.hooks.EconomyShopGUIHook;
 import com.overworldcraterewards.hooks.RoseStackerHook;
 import com.overworldcraterewards.items.CustomItemManager;
+import com.overworldcraterewards.items.ItemSlotIndex;
+import com.overworldcraterewards.items.StatAccumulator;
 import org.bukkit.plugin.PluginManager;
 import org.bukkit.plugin.java.JavaPlugin;
 
@@ -31,6 +33,8 @@ public final class OverworldCrateRewardsPlugin extends JavaPlugin {
     private ConfigManager configManager;
     private EconomyManager economyManager;
     private CustomItemManager itemManager;
+    private ItemSlotIndex itemSlotIndex;
+    private StatAccumulator statAccumulator;
     private MinersFervorListener minersFervorListener;
     private FarmersHandListener farmersHandListener;
     private VacuumHopperManager vacuumHopperManager;
@@ -70,6 +74,14 @@ public final class OverworldCrateRewardsPlugin extends JavaPlugin {
 
     @Override
     public void onDisable() {
+        // Write pending item stats before anything else touches the items
+        if (statAccumulator != null) {
+            statAccumulator.flushAll();
+        }
+        // Pay out pending rewards and close the payout journal
+        if (economyManager != null) {
+            economyManager.shutdown();
+        }
         // Clean up Farmer's Hand Allays
         if (farmersHandListener != null) {
             farmersHandListener.removeAllAllays();
@@ -85,6 +97,17 @@ public final class OverworldCrateRewardsPlugin extends JavaPlugin {
     private void registerListeners() {
         PluginManager pm = getServer().getPluginManager();
 
+        // Pending economy deposits are paid out on quit
+        pm.registerEvents(economyManager, this);
+
+        // Custom item slots per player, used by every accessory lookup
+        itemSlotIndex = new ItemSlotIndex();
+        pm.registerEvents(itemSlotIndex, this);
+
+        // Item stats, written back in batches (features register their stat keys)
+        statAccumulator = new StatAccumulator(this);
+        pm.registerEvents(statAccumulator, this);
+
         // Create Farmer's Pouch listener first (needed by Harvest Hoe for integration)
         FarmersPouchListener pouchListener = new FarmersPouchListener(this);
 
@@ -124,6 +147,9 @@ public final class OverworldCrateRewardsPlugin extends JavaPlugin {
      */
     public void reload() {
         configManager.reload();
+        if (vacuumHopperManager != null) {
+            vacuumHopperManager.reload();
+        }
         getLogger().info("Configuration reloaded.");
     }
 
@@ -145,7 +171,19 @@ public final class OverworldCrateRewardsPlugin extends JavaPlugin {
         return itemManager;
     }
 
+    public ItemSlotIndex getItemSlotIndex() {
+        return itemSlotIndex;
+    }
+
+    public StatAccumulator getStatAccumulator() {
+        return statAccumulator;
+    }
+
     public MinersFervorListener getMinersFervorListener() {
         return minersFervorListener;
     }
+
+    public VacuumHopperManager getVacuumHopperManager() {
+        return vacuumHopperManager;
+    }
 }
@@ -1,12 +1,21 @@
 package com.overworldcraterewards.commands;
 
 import com.overworldcraterewards.OverworldCrateRewardsPlugin;
+import com.overworldcraterewards.economy.EconomyManager;
+import com.overworldcraterewards.features.vacuumhopper.HopperReconciler;
+import com.overworldcraterewards.features.vacuumhopper.HopperSnapshot;
+import com.overworldcraterewards.features.vacuumhopper.HopperThroughput;
+import com.overworldcraterewards.features.vacuumhopper.HopperTickStats;
+import com.overworldcraterewards.features.vacuumhopper.MaterialFilter;
+import com.overworldcraterewards.features.vacuumhopper.VacuumHopperManager;
 import com.overworldcraterewards.items.CustomItemManager;
 import com.overworldcraterewards.items.CustomItemType;
 import com.overworldcraterewards.util.MessageUtil;
 import net.kyori.adventure.text.Component;
 import net.kyori.adventure.text.format.NamedTextColor;
 import org.bukkit.Bukkit;
+import org.bukkit.Location;
+import org.bukkit.OfflinePlayer;
 import org.bukkit.command.Command;
 import org.bukkit.command.CommandExecutor;
 import org.bukkit.command.CommandSender;
@@ -23,6 +32,7 @@ import org.jetbrains.annotations.Nullable;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.UUID;
 import java.util.stream.Collectors;
 
 /**
@@ -30,6 +40,8 @@ import java.util.stream.Collectors;
  */
 public class OCRCommand implements CommandExecutor, TabCompleter {
 
+    private static final int HOPPER_LIST_PAGE_SIZE = 8;
+
     private final OverworldCrateRewardsPlugin plugin;
     private final CustomItemManager itemManager;
 
@@ -53,6 +65,7 @@ public class OCRCommand implements CommandExecutor, TabCompleter {
             case "give" -> handleGive(sender, args);
             case "reload" -> handleReload(sender);
             case "debug" -> handleDebug(sender, args);
+            case "hopper" -> handleHopper(sender, args);
             case "help" -> {
                 sendHelp(sender);
                 yield true;
@@ -162,6 +175,322 @@ public class OCRCommand implements CommandExecutor, TabCompleter {
         return true;
     }
 
+    private boolean handleHopper(CommandSender sender, String[] args) {
+        // Listing works from the console too
+        if (args.length >= 2 && args[1].equalsIgnoreCase("list")) {
+            return handleHopperList(sender, args);
+        }
+        if (args.length >= 2 && args[1].equalsIgnoreCase("top")) {
+            return handleHopperTop(sender, args);
+        }
+
+        if (!(sender instanceof Player player)) {
+            sender.sendMessage(Component.text("This command can only be used by players.", NamedTextColor.RED));
+            return true;
+        }
+
+        if (args.length < 2) {
+            sender.sendMessage(Component.text("Usage: /ocr hopper <action>", NamedTextColor.RED));
+            sender.sendMessage(Component.text("Actions: filter, route, list, top", NamedTextColor.GRAY));
+            return true;
+        }
+
+        String hopperAction = args[1].toLowerCase();
+
+        return switch (hopperAction) {
+            case "filter" -> handleHopperFilter(player, args);
+            case "route" -> handleHopperRoute(player, args);
+            default -> {
+                sender.sendMessage(Component.text("Unknown hopper action: " + hopperAction, NamedTextColor.RED));
+                sender.sendMessage(Component.text("Available: filter, route, list, top", NamedTextColor.GRAY));
+                yield true;
+            }
+        };
+    }
+
+    /**
+     * List a player's hoppers from the published snapshot, paged.
+     * /ocr hopper list [player] [page]
+     */
+    private boolean handleHopperList(CommandSender sender, String[] args) {
+        OfflinePlayer target;
+        int pageArg = 2;
+        if (args.length >= 3 && !args[2].matches("\\d+")) {
+            if (!sender.hasPermission("overworldcraterewards.hopper.list")) {
+                sender.sendMessage(Component.text("You don't have permission to list other players' hoppers.", NamedTextColor.RED));
+                return true;
+            }
+            // Cached lookup only, never a blocking profile request
+            target = Bukkit.getOfflinePlayerIfCached(args[2]);
+            if (target == null) {
+                sender.sendMessage(Component.text("Unknown player: " + args[2], NamedTextColor.RED));
+                return true;
+            }
+            pageArg = 3;
+        } else if (sender instanceof Player player) {
+            target = player;
+        } else {
+            sender.sendMessage(Component.text("Usage: /ocr hopper list <player> [page]", NamedTextColor.RED));
+            return true;
+        }
+
+        int page = 1;
+        if (args.length > pageArg) {
+            try {
+                page = Math.max(1, Integer.parseInt(args[pageArg]));
+            } catch (NumberFormatException e) {
+                sender.sendMessage(Component.text("Invalid page: " + args[pageArg], NamedTextColor.RED));
+                return true;
+            }
+        }
+
+        // Read from the published snapshot: a stable order across pages, without walking live hoppers
+        List<HopperSnapshot.HopperView> hoppers = plugin.getVacuumHopperManager().getSnapshot()
+                .getOwnedHoppers(target.getUniqueId());
+        String name = target.getName() != null ? target.getName() : target.getUniqueId().toString();
+        if (hoppers.isEmpty()) {
+            sender.sendMessage(Component.text(name + " has no Vacuum Void Hoppers.", NamedTextColor.YELLOW));
+            return true;
+        }
+
+        int pages = (hoppers.size() + HOPPER_LIST_PAGE_SIZE - 1) / HOPPER_LIST_PAGE_SIZE;
+        page = Math.min(page, pages);
+        sender.sendMessage(Component.text("=== Vacuum Hoppers of " + name + " (" + hoppers.size() + ") ===", NamedTextColor.GOLD)
+                .append(Component.text(" page " + page + "/" + pages, NamedTextColor.GRAY)));
+
+        int end = Math.min(hoppers.size(), page * HOPPER_LIST_PAGE_SIZE);
+        for (int i = (page - 1) * HOPPER_LIST_PAGE_SIZE; i < end; i++) {
+            HopperSnapshot.HopperView view = hoppers.get(i);
+            sender.sendMessage(Component.text(view.worldName() + " " + view.x() + ", " + view.y() + ", " + view.z(), NamedTextColor.YELLOW)
+                    .append(Component.text(" - " + MessageUtil.formatNumber(view.itemsCollected()) + " collected, "
+                            + MessageUtil.formatNumber(view.itemsVoided()) + " voided, "
+                            + view.linkCount() + " links", NamedTextColor.GRAY)));
+        }
+        return true;
+    }
+
+    /**
+     * Rank hoppers by items collected and voided over the last minutes.
+     * /ocr hopper top [minutes]
+     */
+    private boolean handleHopperTop(CommandSender sender, String[] args) {
+        if (!sender.hasPermission("overworldcraterewards.hopper.top")) {
+            sender.sendMessage(Component.text("You don't have permission to use this command.", NamedTextColor.RED));
+            return true;
+        }
+
+        int minutes = 5;
+        if (args.length >= 3) {
+            try {
+                minutes = Math.max(1, Math.min(HopperThroughput.MINUTES, Integer.parseInt(args[2])));
+            } catch (NumberFormatException e) {
+                sender.sendMessage(Component.text("Invalid number of minutes: " + args[2], NamedTextColor.RED));
+                return true;
+            }
+        }
+
+        List<VacuumHopperManager.HopperData> top = plugin.getVacuumHopperManager().getTopHoppers(minutes, 10);
+        if (top.isEmpty()) {
+            sender.sendMessage(Component.text("No hopper moved any items in the last " + minutes + " minutes.", NamedTextColor.YELLOW));
+            return true;
+        }
+
+        long now = Bukkit.getCurrentTick();
+        sender.sendMessage(Component.text("=== Busiest Vacuum Hoppers (last " + minutes + " min) ===", NamedTextColor.GOLD));
+        int rank = 1;
+        for (VacuumHopperManager.HopperData data : top) {
+            HopperThroughput throughput = data.getThroughput();
+            OfflinePlayer owner = data.getOwner() != null ? Bukkit.getOfflinePlayer(data.getOwner()) : null;
+            String ownerName = owner != null && owner.getName() != null ? owner.getName() : "unknown";
+
+            sender.sendMessage(Component.text(rank++ + ". ", NamedTextColor.GOLD)
+                    .append(Component.text(data.getWorldName() + " " + data.getX() + ", " + data.getY() + ", " + data.getZ(), NamedTextColor.YELLOW))
+                    .append(Component.text(" (" + ownerName + ")", NamedTextColor.GRAY))
+                    .append(Component.text(" " + MessageUtil.formatNumber(throughput.getCollected(now, minutes)) + " collected", NamedTextColor.GREEN))
+                    .append(Component.text(", " + MessageUtil.formatNumber(throughput.getVoided(now, minutes)) + " voided", NamedTextColor.RED))
+                    .append(Component.text(", " + MessageUtil.formatNumber(throughput.getFailed(now, minutes)) + " not delivered", NamedTextColor.GRAY)));
+        }
+        return true;
+    }
+
+    /**
+     * Add or remove an item tag (e.g. #logs) on the void filter of the hopper the player is looking at.
+     */
+    private boolean handleHopperFilter(Player player, String[] args) {
+        if (args.length < 4) {
+            player.sendMessage(Component.text("Usage: /ocr hopper filter <add|remove> <#tag>", NamedTextColor.RED));
+            return true;
+        }
+
+        org.bukkit.block.Block target = player.getTargetBlockExact(5);
+        VacuumHopperManager manager = plugin.getVacuumHopperManager();
+        VacuumHopperManager.HopperData data = target != null ? manager.getHopper(target.getLocation()) : null;
+        if (data == null) {
+            player.sendMessage(Component.text("You must be looking at a Vacuum Void Hopper!", NamedTextColor.RED));
+            return true;
+        }
+        if (!canEditHopper(player, data)) {
+            sendNotYourHopper(player);
+            return true;
+        }
+
+        String subAction = args[2].toLowerCase();
+        String tag = MaterialFilter.normalizeTag(args[3]);
+
+        if (subAction.equals("add")) {
+            if (MaterialFilter.resolveTag(tag) == null) {
+                player.sendMessage(Component.text("Unknown item tag: " + tag, NamedTextColor.RED));
+                return true;
+            }
+            if (!data.getVoidFilter().addTag(tag)) {
+                player.sendMessage(Component.text(tag + " is already in the void filter.", NamedTextColor.YELLOW));
+                return true;
+            }
+            manager.saveHopper(data);
+            player.sendMessage(Component.text()
+                    .append(MessageUtil.colorize(plugin.getConfigManager().getMessagePrefix()))
+                    .append(Component.text("Added ", NamedTextColor.GREEN))
+                    .append(Component.text(tag, NamedTextColor.WHITE))
+                    .append(Component.text(" to void filter", NamedTextColor.GREEN))
+                    .build());
+            return true;
+
+        } else if (subAction.equals("remove")) {
+            if (!data.getVoidFilter().removeTag(tag)) {
+                player.sendMessage(Component.text(tag + " is not in the void filter.", NamedTextColor.YELLOW));
+                return true;
+            }
+            manager.saveHopper(data);
+            player.sendMessage(Component.text()
+                    .append(MessageUtil.colorize(plugin.getConfigManager().getMessagePrefix()))
+                    .append(Component.text("Removed ", NamedTextColor.RED))
+                    .append(Component.text(tag, NamedTextColor.WHITE))
+                    .append(Component.text(" from void filter", NamedTextColor.RED))
+                    .build());
+            return true;
+        }
+
+        player.sendMessage(Component.text("Unknown filter action: " + subAction, NamedTextColor.RED));
+        player.sendMessage(Component.text("Available: add, remove", NamedTextColor.GRAY));
+        return true;
+    }
+
+    /**
+     * @return True if the player owns the hopper or may edit anyone's
+     */
+    private boolean canEditHopper(Player player, VacuumHopperManager.HopperData data) {
+        return player.getUniqueId().equals(data.getOwner())
+                || player.hasPermission("overworldcraterewards.hopper.admin");
+    }
+
+    private void sendNotYourHopper(Player player) {
+        player.sendMessage(MessageUtil.colorize(plugin.getConfigManager().getMessagePrefix()
+                + plugin.getConfigManager().getMessageNotYourHopper()));
+    }
+
+    /**
+     * Make the linked container the player is looking at a sorter destination:
+     * routed materials go there first, other materials skip it.
+     * Without a material argument the held item's material is used.
+     * Only the player's own hoppers' links are edited, unless they are an admin.
+     */
+    private boolean handleHopperRoute(Player player, String[] args) {
+        if (args.length < 3) {
+            player.sendMessage(Component.text("Usage: /ocr hopper route <add|remove|clear> [material|#tag]", NamedTextColor.RED));
+            return true;
+        }
+
+        org.bukkit.block.Block target = player.getTargetBlockExact(5);
+        if (target == null || !(target.getState(false) instanceof org.bukkit.block.Container)) {
+            player.sendMessage(Component.text("You must be looking at a linked container!", NamedTextColor.RED));
+            return true;
+        }
+
+        VacuumHopperManager manager = plugin.getVacuumHopperManager();
+        String subAction = args[2].toLowerCase();
+        UUID owner = player.hasPermission("overworldcraterewards.hopper.admin") ? null : player.getUniqueId();
+
+        if (subAction.equals("clear")) {
+            int hoppers = manager.editRoutes(target.getLocation(), owner, link -> {
+                if (!link.hasRoutes()) return false;
+                link.clearRoutes();
+                return true;
+            });
+            sendRouteResult(player, target.getLocation(), owner, hoppers, Component.text("Routes cleared, this container accepts everything", NamedTextColor.GREEN));
+            return true;
+        }
+
+        if (!subAction.equals("add") && !subAction.equals("remove")) {
+            player.sendMessage(Component.text("Unknown route action: " + subAction, NamedTextColor.RED));
+            player.sendMessage(Component.text("Available: add, remove, clear", NamedTextColor.GRAY));
+            return true;
+        }
+
+        // Entry: #tag, material name, or the held item
+        String entry;
+        if (args.length >= 4) {
+            entry = args[3];
+        } else {
+            org.bukkit.Material held = player.getInventory().getItemInMainHand().getType();
+            if (held == org.bukkit.Material.AIR) {
+                player.sendMessage(Component.text("Hold an item or name a material or #tag.", NamedTextColor.RED));
+                return true;
+            }
+            entry = held.name();
+        }
+
+        String display;
+        java.util.function.Predicate<com.overworldcraterewards.features.vacuumhopper.HopperLink> edit;
+        if (entry.startsWith(MaterialFilter.TAG_PREFIX)) {
+            String tag = MaterialFilter.normalizeTag(entry);
+            if (subAction.equals("add") && MaterialFilter.resolveTag(tag) == null) {
+                player.sendMessage(Component.text("Unknown item tag: " + tag, NamedTextColor.RED));
+                return true;
+            }
+            display = tag;
+            edit = subAction.equals("add")
+                    ? link -> link.getOrCreateRoutes().addTag(tag)
+                    : link -> link.hasRoutes() && link.getRoutes().removeTag(tag);
+        } else {
+            org.bukkit.Material material = org.bukkit.Material.matchMaterial(entry);
+            if (material == null || !material.isItem()) {
+                player.sendMessage(Component.text("Unknown item: " + entry, NamedTextColor.RED));
+                return true;
+            }
+            display = MessageUtil.formatMaterialName(material.name());
+            edit = subAction.equals("add")
+                    ? link -> link.getOrCreateRoutes().add(material)
+                    : link -> link.hasRoutes() && link.getRoutes().remove(material);
+        }
+
+        int hoppers = manager.editRoutes(target.getLocation(), owner, edit);
+        sendRouteResult(player, target.getLocation(), owner, hoppers, subAction.equals("add")
+                ? Component.text("Routed ", NamedTextColor.GREEN)
+                        .append(Component.text(display, NamedTextColor.WHITE))
+                        .append(Component.text(" to this container", NamedTextColor.GREEN))
+                : Component.text("Removed route for ", NamedTextColor.RED)
+                        .append(Component.text(display, NamedTextColor.WHITE)));
+        return true;
+    }
+
+    private void sendRouteResult(Player player, Location container, UUID owner, int hoppers, Component message) {
+        if (hoppers == 0) {
+            // Only other players' hoppers are linked here
+            VacuumHopperManager manager = plugin.getVacuumHopperManager();
+            if (owner != null && manager.isLinked(container, null) && !manager.isLinked(container, owner)) {
+                sendNotYourHopper(player);
+                return;
+            }
+            player.sendMessage(Component.text("Nothing changed. Is this container linked to a hopper?", NamedTextColor.YELLOW));
+            return;
+        }
+        player.sendMessage(Component.text()
+                .append(MessageUtil.colorize(plugin.getConfigManager().getMessagePrefix()))
+                .append(message)
+                .append(Component.text(" (" + hoppers + (hoppers == 1 ? " hopper)" : " hoppers)"), NamedTextColor.GRAY))
+                .build());
+    }
+
     private boolean handleDebug(CommandSender sender, String[] args) {
         // Permission check - requires OP or admin permission
         if (!sender.hasPermission("overworldcraterewards.debug")) {
@@ -176,10 +505,13 @@ public class OCRCommand implements CommandExecutor, TabCompleter {
 
         if (args.length < 2) {
             sender.sendMessage(Component.text("Usage: /ocr debug <action>", NamedTextColor.RED));
-            sender.sendMessage(Component.text("Actions: damage_hoe, pouch, siphon, fervor, hammer, charm, mark, melon, hand", NamedTextColor.GRAY));
+            sender.sendMessage(Component.text("Actions: damage_hoe, pouch, siphon, fervor, hammer, charm, mark, melon, hand, hopper, economy", NamedTextColor.GRAY));
             return true;
         }
 
+        // Write pending item stats so the debug actions see (and may replace) them
+        plugin.getStatAccumulator().flush(player);
+
         String debugAction = args[1].toLowerCase();
 
         return switch (debugAction) {
@@ -192,9 +524,13 @@ public class OCRCommand implements CommandExecutor, TabCompleter {
             case "mark" -> handleDebugMark(player, args);
             case "melon" -> handleDebugMelon(player, args);
             case "hand" -> handleDebugHand(player, args);
+            case "hopper" -> args.length >= 3 && args[2].equalsIgnoreCase("memory")
+                    ? handleDebugHopperMemory(player)
+                    : handleDebugHopper(player);
+            case "economy" -> handleDebugEconomy(player);
             default -> {
                 sender.sendMessage(Component.text("Unknown debug action: " + debugAction, NamedTextColor.RED));
-                sender.sendMessage(Component.text("Available: damage_hoe, pouch, siphon, fervor, hammer, charm, mark, melon, hand", NamedTextColor.GRAY));
+                sender.sendMessage(Component.text("Available: damage_hoe, pouch, siphon, fervor, hammer, charm, mark, melon, hand, hopper, economy", NamedTextColor.GRAY));
                 yield true;
             }
         };
@@ -875,12 +1211,112 @@ public class OCRCommand implements CommandExecutor, TabCompleter {
         return true;
     }
 
+    private boolean handleDebugHopper(Player player) {
+        VacuumHopperManager manager = plugin.getVacuumHopperManager();
+        HopperTickStats stats = manager.getTickStats();
+        long budget = plugin.getConfigManager().getVacuumHopperTickBudgetNanos();
+
+        player.sendMessage(Component.text("=== Vacuum Hopper Ticking ===", NamedTextColor.GOLD));
+        player.sendMessage(Component.text("Hoppers: ", NamedTextColor.GRAY)
+                .append(Component.text(manager.getActiveHopperCount() + " loaded", NamedTextColor.WHITE))
+                .append(Component.text(" / " + manager.getHopperCount() + " total", NamedTextColor.GRAY)));
+        player.sendMessage(Component.text("Budget: ", NamedTextColor.GRAY)
+                .append(Component.text(budget > 0 ? formatMicros(budget) : "unlimited", NamedTextColor.WHITE))
+                .append(Component.text(" per tick, full pass every "
+                        + plugin.getConfigManager().getVacuumHopperTickInterval() + " ticks", NamedTextColor.GRAY)));
+        player.sendMessage(Component.text("Last tick: ", NamedTextColor.GRAY)
+                .append(Component.text(stats.getLastProcessed() + " done", NamedTextColor.GREEN))
+                .append(Component.text(", ", NamedTextColor.GRAY))
+                .append(Component.text(stats.getLastDeferred() + " deferred", NamedTextColor.YELLOW))
+                .append(Component.text(" in " + formatMicros(stats.getLastNanos()), NamedTextColor.GRAY)));
+        player.sendMessage(Component.text("Last " + stats.getWindowSize() + " ticks: ", NamedTextColor.GRAY)
+                .append(Component.text(String.format("%.1f done/tick", stats.getAverageProcessed()), NamedTextColor.GREEN))
+                .append(Component.text(", ", NamedTextColor.GRAY))
+                .append(Component.text(String.format("%.1f deferred/tick", stats.getAverageDeferred()), NamedTextColor.YELLOW)));
+        player.sendMessage(Component.text("Time: ", NamedTextColor.GRAY)
+                .append(Component.text("avg " + formatMicros(stats.getAverageNanos())
+                        + ", peak " + formatMicros(stats.getPeakNanos()), NamedTextColor.WHITE))
+                .append(Component.text(", over budget " + stats.getOverBudgetTicks() + " ticks", NamedTextColor.GRAY)));
+
+        HopperReconciler reconciler = manager.getReconciler();
+        player.sendMessage(Component.text("Reconciliation: ", NamedTextColor.GRAY)
+                .append(Component.text(reconciler.getChecked() + " checked", NamedTextColor.WHITE))
+                .append(Component.text(", pruned " + reconciler.getPrunedHoppers() + " hoppers and "
+                        + reconciler.getPrunedLinks() + " links, quarantined " + reconciler.getQuarantined()
+                        + ", " + reconciler.getPending() + " queued", NamedTextColor.GRAY)));
+
+        HopperSnapshot snapshot = manager.getSnapshot();
+        player.sendMessage(Component.text("Snapshot: ", NamedTextColor.GRAY)
+                .append(Component.text("v" + snapshot.getVersion(), NamedTextColor.WHITE))
+                .append(Component.text(", " + snapshot.size() + " hoppers, " + snapshot.getOwners().size()
+                        + " owners, taken " + (Bukkit.getCurrentTick() - snapshot.getTick()) + " ticks ago",
+                        NamedTextColor.GRAY)));
+        return true;
+    }
+
+    private boolean handleDebugEconomy(Player player) {
+        EconomyManager economy = plugin.getEconomyManager();
+
+        player.sendMessage(Component.text("=== Economy Deposits ===", NamedTextColor.GOLD));
+        player.sendMessage(Component.text("Mode: ", NamedTextColor.GRAY)
+                .append(economy.isAsync()
+                        ? Component.text("async (" + economy.getQueuedPlayers() + " players queued)", NamedTextColor.GREEN)
+                        : Component.text("server thread", NamedTextColor.YELLOW)));
+        player.sendMessage(Component.text("Pending: ", NamedTextColor.GRAY)
+                .append(Component.text(String.format("%.2f for %d players",
+                        economy.getPendingTotal(), economy.getPendingPlayers()), NamedTextColor.WHITE)));
+        player.sendMessage(Component.text("Last flush: ", NamedTextColor.GRAY)
+                .append(Component.text(String.format("%.2f ms, %.2f to %d players",
+                        economy.getLastFlushNanos() / 1_000_000.0, economy.getLastFlushAmount(),
+                        economy.getLastFlushPlayers()), NamedTextColor.WHITE)));
+        player.sendMessage(Component.text("Slowest flush: ", NamedTextColor.GRAY)
+                .append(Component.text(String.format("%.2f ms", economy.getMaxFlushNanos() / 1_000_000.0),
+                        NamedTextColor.WHITE)));
+        return true;
+    }
+
+    private boolean handleDebugHopperMemory(Player player) {
+        long[] usage = plugin.getVacuumHopperManager().estimateHeapUsage();
+        long hoppers = usage[0];
+        long bytes = usage[2];
+
+        player.sendMessage(Component.text("=== Vacuum Hopper Memory (estimate) ===", NamedTextColor.GOLD));
+        player.sendMessage(Component.text("Hoppers: ", NamedTextColor.GRAY)
+                .append(Component.text(hoppers + " with " + usage[1] + " links", NamedTextColor.WHITE)));
+        player.sendMessage(Component.text("Retained: ", NamedTextColor.GRAY)
+                .append(Component.text(formatBytes(bytes), NamedTextColor.WHITE))
+                .append(Component.text(hoppers > 0 ? " (" + (bytes / hoppers) + " bytes per hopper)" : "", NamedTextColor.GRAY)));
+        if (hoppers > 0) {
+            player.sendMessage(Component.text("Per 10k hoppers: ", NamedTextColor.GRAY)
+                    .append(Component.text(formatBytes(bytes * 10_000 / hoppers), NamedTextColor.WHITE)));
+        }
+        return true;
+    }
+
+    private static String formatBytes(long bytes) {
+        if (bytes < 1024) return bytes + " B";
+        if (bytes < 1024 * 1024) return String.format("%.1f KiB", bytes / 1024.0);
+        return String.format("%.1f MiB", bytes / (1024.0 * 1024.0));
+    }
+
+    private static String formatMicros(long nanos) {
+        return String.format("%.1fµs", nanos / 1000.0);
+    }
+
     private void sendHelp(CommandSender sender) {
         sender.sendMessage(Component.text("=== OverworldCrateRewards Commands ===", NamedTextColor.GOLD));
         sender.sendMessage(Component.text("/ocr give <item> [player] [amount]", NamedTextColor.YELLOW)
                 .append(Component.text(" - Give a custom item", NamedTextColor.GRAY)));
         sender.sendMessage(Component.text("/ocr reload", NamedTextColor.YELLOW)
                 .append(Component.text(" - Reload configuration", NamedTextColor.GRAY)));
+        sender.sendMessage(Component.text("/ocr hopper filter <add|remove> <#tag>", NamedTextColor.YELLOW)
+                .append(Component.text(" - Void an item tag in the hopper you look at", NamedTextColor.GRAY)));
+        sender.sendMessage(Component.text("/ocr hopper route <add|remove|clear> [item|#tag]", NamedTextColor.YELLOW)
+                .append(Component.text(" - Sort items into the linked chest you look at", NamedTextColor.GRAY)));
+        sender.sendMessage(Component.text("/ocr hopper list [player] [page]", NamedTextColor.YELLOW)
+                .append(Component.text(" - List placed hoppers", NamedTextColor.GRAY)));
+        sender.sendMessage(Component.text("/ocr hopper top [minutes]", NamedTextColor.YELLOW)
+                .append(Component.text(" - Rank hoppers by recent throughput", NamedTextColor.GRAY)));
         sender.sendMessage(Component.text("/ocr help", NamedTextColor.YELLOW)
                 .append(Component.text(" - Show this help", NamedTextColor.GRAY)));
         sender.sendMessage(Component.text(""));
@@ -911,6 +1347,7 @@ public class OCRCommand implements CommandExecutor, TabCompleter {
             if (sender.hasPermission("overworldcraterewards.debug")) {
                 subCommands.add("debug");
             }
+            subCommands.add("hopper");
             subCommands.add("help");
 
             String partial = args[0].toLowerCase();
@@ -929,7 +1366,7 @@ public class OCRCommand implements CommandExecutor, TabCompleter {
         } else if (args.length == 2 && args[0].equalsIgnoreCase("debug")) {
             // Debug actions
             String partial = args[1].toLowerCase();
-            completions = List.of("damage_hoe", "pouch", "siphon", "fervor", "hammer", "charm", "mark", "melon", "hand").stream()
+            completions = List.of("damage_hoe", "pouch", "siphon", "fervor", "hammer", "charm", "mark", "melon", "hand", "hopper", "economy").stream()
                     .filter(s -> s.startsWith(partial))
                     .collect(Collectors.toList());
 
@@ -937,7 +1374,11 @@ public class OCRCommand implements CommandExecutor, TabCompleter {
             // Debug sub-actions
             String debugAction = args[1].toLowerCase();
             String partial = args[2].toLowerCase();
-            if (debugAction.equals("pouch") || debugAction.equals("siphon") || debugAction.equals("fervor")
+            if (debugAction.equals("hopper")) {
+                completions = List.of("memory").stream()
+                        .filter(s -> s.startsWith(partial))
+                        .collect(Collectors.toList());
+            } else if (debugAction.equals("pouch") || debugAction.equals("siphon") || debugAction.equals("fervor")
                     || debugAction.equals("hammer") || debugAction.equals("charm") || debugAction.equals("mark")) {
                 completions = List.of("set_near", "reset").stream()
                         .filter(s -> s.startsWith(partial))
@@ -952,6 +1393,56 @@ public class OCRCommand implements CommandExecutor, TabCompleter {
                         .collect(Collectors.toList());
             }
 
+        } else if (args.length == 2 && args[0].equalsIgnoreCase("hopper")) {
+            String partial = args[1].toLowerCase();
+            completions = List.of("filter", "route", "list", "top").stream()
+                    .filter(s -> s.startsWith(partial))
+                    .collect(Collectors.toList());
+
+        } else if (args.length == 3 && args[0].equalsIgnoreCase("hopper") && args[1].equalsIgnoreCase("filter")) {
+            String partial = args[2].toLowerCase();
+            completions = List.of("add", "remove").stream()
+                    .filter(s -> s.startsWith(partial))
+                    .collect(Collectors.toList());
+
+        } else if (args.length == 3 && args[0].equalsIgnoreCase("hopper") && args[1].equalsIgnoreCase("route")) {
+            String partial = args[2].toLowerCase();
+            completions = List.of("add", "remove", "clear").stream()
+                    .filter(s -> s.startsWith(partial))
+                    .collect(Collectors.toList());
+
+        } else if (args.length == 4 && args[0].equalsIgnoreCase("hopper") && args[1].equalsIgnoreCase("route")) {
+            // Item tags or material names
+            String partial = args[3].toLowerCase();
+            if (partial.startsWith(MaterialFilter.TAG_PREFIX)) {
+                completions = MaterialFilter.getAvailableTags().stream()
+                        .filter(s -> s.startsWith(partial))
+                        .collect(Collectors.toList());
+            } else {
+                completions = Arrays.stream(org.bukkit.Material.values())
+                        .filter(m -> m.isItem() && !m.isLegacy())
+                        .map(m -> m.name().toLowerCase())
+                        .filter(s -> s.startsWith(partial))
+                        .limit(50)
+                        .collect(Collectors.toList());
+            }
+
+        } else if (args.length == 4 && args[0].equalsIgnoreCase("hopper") && args[1].equalsIgnoreCase("filter")) {
+            // Item tags
+            String partial = args[3].toLowerCase();
+            completions = MaterialFilter.getAvailableTags().stream()
+                    .filter(s -> s.startsWith(partial) || s.substring(1).startsWith(partial))
+                    .collect(Collectors.toList());
+
+        } else if (args.length == 3 && args[0].equalsIgnoreCase("hopper") && args[1].equalsIgnoreCase("list")
+                && sender.hasPermission("overworldcraterewards.hopper.list")) {
+            // Player names
+            String partial = args[2].toLowerCase();
+            completions = Bukkit.getOnlinePlayers().stream()
+                    .map(Player::getName)
+                    .filter(s -> s.toLowerCase().startsWith(partial))
+                    .collect(Collectors.toList());
+
         } else if (args.length == 3 && args[0].equalsIgnoreCase("give")) {
             // Player names
             String partial = args[2].toLowerCase();
@@ -8,6 +8,7 @@ import org.bukkit.configuration.file.FileConfiguration;
 
 import java.util.Arrays;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -21,6 +22,18 @@ public class ConfigManager {
 
     // Cached values
     private String messagePrefix;
+    private String messageNotYourHopper;
+    private long statFlushInterval;
+    private long economyFlushInterval;
+    private long economySlowFlushWarningMs;
+    private int economyMaxAttempts;
+    private boolean economyJournalEnabled;
+    private long economyJournalSyncInterval;
+    private boolean economyAsyncEnabled;
+    private int economyAsyncMaxConcurrent;
+    private int economyAsyncFailureThreshold;
+    private long economyAsyncSyncDurationSeconds;
+    private long economyAsyncCallTimeoutMs;
 
     // Harvest Hoe
     private int harvestHoeRadius;
@@ -104,13 +117,27 @@ public class ConfigManager {
     private double farmersHandPullSpeedMax;
     private int farmersHandWheatSearchRadiusXZ;
     private int farmersHandWheatSearchRadiusY;
-    private int farmersHandLoreUpdateInterval;
 
     // Vacuum Void Hopper
     private int vacuumHopperRadius;
     private int vacuumHopperTransferRate;
     private int vacuumHopperMaxLinks;
     private int vacuumHopperTickInterval;
+    private int vacuumHopperRescanInterval;
+    private int vacuumHopperIdleMaxInterval;
+    private int vacuumHopperActivationRange;
+    private boolean vacuumHopperActivationTicking;
+    private long vacuumHopperTickBudgetNanos;
+    private String vacuumHopperStorage;
+    private int vacuumHopperSaveInterval;
+    private int vacuumHopperBackupGenerations;
+    private int vacuumHopperBufferCapacity;
+    private int vacuumHopperPlayerLimit;
+    private int vacuumHopperReconcilePerTick;
+    private long vacuumHopperGuiRefreshInterval;
+    private int vacuumHopperReconcileInterval;
+    private boolean vacuumHopperQuarantineMissingWorlds;
+    private Map<String, Integer> vacuumHopperPermissionLimits;
 
     public ConfigManager(OverworldCrateRewardsPlugin plugin) {
         this.plugin = plugin;
@@ -137,6 +164,18 @@ public class ConfigManager {
 
     private void loadGeneralSettings() {
         messagePrefix = config.getString("messages.prefix", "&8[&6OCR&8] &r");
+        messageNotYourHopper = config.getString("messages.not-your-hopper", "&cThat Vacuum Void Hopper belongs to someone else.");
+        statFlushInterval = Math.max(1, config.getLong("stats.flush-interval", 100));
+        economyFlushInterval = config.getLong("economy.flush-interval", 40);
+        economySlowFlushWarningMs = config.getLong("economy.slow-flush-warning-ms", 50);
+        economyMaxAttempts = config.getInt("economy.max-attempts", 5);
+        economyJournalEnabled = config.getBoolean("economy.journal.enabled", true);
+        economyJournalSyncInterval = config.getLong("economy.journal.sync-interval", 20);
+        economyAsyncEnabled = config.getBoolean("economy.async.enabled", false);
+        economyAsyncMaxConcurrent = config.getInt("economy.async.max-concurrent", 16);
+        economyAsyncFailureThreshold = config.getInt("economy.async.failure-threshold", 3);
+        economyAsyncSyncDurationSeconds = config.getLong("economy.async.sync-duration-seconds", 60);
+        economyAsyncCallTimeoutMs = config.getLong("economy.async.call-timeout-ms", 250);
     }
 
     private void loadHarvestHoeSettings() {
@@ -288,7 +327,6 @@ public class ConfigManager {
         farmersHandPullSpeedMax = config.getDouble("farmers-hand.pull-speed-max", 0.8);
         farmersHandWheatSearchRadiusXZ = config.getInt("farmers-hand.wheat-search-radius-xz", 2);
         farmersHandWheatSearchRadiusY = config.getInt("farmers-hand.wheat-search-radius-y", 1);
-        farmersHandLoreUpdateInterval = config.getInt("farmers-hand.lore-update-interval", 50);
     }
 
     private void loadVacuumHopperSettings() {
@@ -296,6 +334,28 @@ public class ConfigManager {
         vacuumHopperTransferRate = config.getInt("vacuum-void-hopper.transfer-rate", 64);
         vacuumHopperMaxLinks = config.getInt("vacuum-void-hopper.max-links", 8);
         vacuumHopperTickInterval = config.getInt("vacuum-void-hopper.tick-interval", 8);
+        vacuumHopperRescanInterval = config.getInt("vacuum-void-hopper.rescan-interval", 100);
+        vacuumHopperIdleMaxInterval = config.getInt("vacuum-void-hopper.idle-max-interval", 1600);
+        vacuumHopperActivationRange = Math.max(0, config.getInt("vacuum-void-hopper.activation-range", 3));
+        vacuumHopperActivationTicking = config.getBoolean("vacuum-void-hopper.activation-ticking", false);
+        vacuumHopperTickBudgetNanos = config.getLong("vacuum-void-hopper.tick-budget-nanos", 2_000_000L);
+        vacuumHopperStorage = config.getString("vacuum-void-hopper.storage", "yaml");
+        vacuumHopperSaveInterval = config.getInt("vacuum-void-hopper.save-interval", 300);
+        vacuumHopperBackupGenerations = config.getInt("vacuum-void-hopper.backup-generations", 3);
+        vacuumHopperBufferCapacity = config.getInt("vacuum-void-hopper.buffer-capacity", 1728);
+        vacuumHopperPlayerLimit = Math.max(0, config.getInt("vacuum-void-hopper.player-limit", 0));
+        vacuumHopperReconcilePerTick = Math.max(1, config.getInt("vacuum-void-hopper.reconcile-per-tick", 8));
+        vacuumHopperGuiRefreshInterval = Math.max(1, config.getLong("vacuum-void-hopper.gui-refresh-interval", 20));
+        vacuumHopperReconcileInterval = config.getInt("vacuum-void-hopper.reconcile-interval", 600);
+        vacuumHopperQuarantineMissingWorlds = config.getBoolean("vacuum-void-hopper.quarantine-missing-worlds", true);
+
+        vacuumHopperPermissionLimits = new LinkedHashMap<>();
+        ConfigurationSection limitsSection = config.getConfigurationSection("vacuum-void-hopper.limits");
+        if (limitsSection != null) {
+            for (String key : limitsSection.getKeys(false)) {
+                vacuumHopperPermissionLimits.put(key.toLowerCase(), limitsSection.getInt(key));
+            }
+        }
     }
 
     // Item display configuration
@@ -312,6 +372,54 @@ public class ConfigManager {
         return messagePrefix;
     }
 
+    public String getMessageNotYourHopper() {
+        return messageNotYourHopper;
+    }
+
+    public long getStatFlushInterval() {
+        return statFlushInterval;
+    }
+
+    public long getEconomyFlushInterval() {
+        return economyFlushInterval;
+    }
+
+    public long getEconomySlowFlushWarningMs() {
+        return economySlowFlushWarningMs;
+    }
+
+    public int getEconomyMaxAttempts() {
+        return economyMaxAttempts;
+    }
+
+    public boolean isEconomyJournalEnabled() {
+        return economyJournalEnabled;
+    }
+
+    public long getEconomyJournalSyncInterval() {
+        return economyJournalSyncInterval;
+    }
+
+    public boolean isEconomyAsyncEnabled() {
+        return economyAsyncEnabled;
+    }
+
+    public int getEconomyAsyncMaxConcurrent() {
+        return economyAsyncMaxConcurrent;
+    }
+
+    public int getEconomyAsyncFailureThreshold() {
+        return economyAsyncFailureThreshold;
+    }
+
+    public long getEconomyAsyncSyncDurationSeconds() {
+        return economyAsyncSyncDurationSeconds;
+    }
+
+    public long getEconomyAsyncCallTimeoutMs() {
+        return economyAsyncCallTimeoutMs;
+    }
+
     // === Harvest Hoe Getters ===
     public int getHarvestHoeRadius() {
         return harvestHoeRadius;
@@ -589,9 +697,6 @@ public class ConfigManager {
         return farmersHandWheatSearchRadiusY;
     }
 
-    public int getFarmersHandLoreUpdateInterval() {
-        return farmersHandLoreUpdateInterval;
-    }
 
     // === Vacuum Void Hopper Getters ===
     public int getVacuumHopperRadius() {
@@ -609,4 +714,64 @@ public class ConfigManager {
     public int getVacuumHopperTickInterval() {
         return vacuumHopperTickInterval;
     }
+
+    public int getVacuumHopperRescanInterval() {
+        return vacuumHopperRescanInterval;
+    }
+
+    public int getVacuumHopperIdleMaxInterval() {
+        return vacuumHopperIdleMaxInterval;
+    }
+
+    public int getVacuumHopperActivationRange() {
+        return vacuumHopperActivationRange;
+    }
+
+    public boolean isVacuumHopperActivationTicking() {
+        return vacuumHopperActivationTicking;
+    }
+
+    public long getVacuumHopperTickBudgetNanos() {
+        return vacuumHopperTickBudgetNanos;
+    }
+
+    public String getVacuumHopperStorage() {
+        return vacuumHopperStorage;
+    }
+
+    public int getVacuumHopperSaveInterval() {
+        return vacuumHopperSaveInterval;
+    }
+
+    public int getVacuumHopperBackupGenerations() {
+        return vacuumHopperBackupGenerations;
+    }
+
+    public int getVacuumHopperBufferCapacity() {
+        return vacuumHopperBufferCapacity;
+    }
+
+    public int getVacuumHopperPlayerLimit() {
+        return vacuumHopperPlayerLimit;
+    }
+
+    public Map<String, Integer> getVacuumHopperPermissionLimits() {
+        return vacuumHopperPermissionLimits;
+    }
+
+    public long getVacuumHopperGuiRefreshInterval() {
+        return vacuumHopperGuiRefreshInterval;
+    }
+
+    public int getVacuumHopperReconcilePerTick() {
+        return vacuumHopperReconcilePerTick;
+    }
+
+    public int getVacuumHopperReconcileInterval() {
+        return vacuumHopperReconcileInterval;
+    }
+
+    public boolean isVacuumHopperQuarantineMissingWorlds() {
+        return vacuumHopperQuarantineMissingWorlds;
+    }
 }
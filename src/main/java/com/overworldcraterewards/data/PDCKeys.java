@@ -1,6 +1,5 @@
 package com.overworldcraterewards.data;
 
-import com.overworldcraterewards.OverworldCrateRewardsPlugin;
 import org.bukkit.NamespacedKey;
 
 /**
@@ -8,10 +7,14 @@ import org.bukkit.NamespacedKey;
  */
 public final class PDCKeys {
 
+    // The plugin's namespace (its name in lower case), spelled out so the keys
+    // can be loaded without a plugin instance, e.g. by the benchmarks
+    private static final String NAMESPACE = "overworldcraterewards";
+
     private PDCKeys() {} // Utility class
 
     private static NamespacedKey key(String name) {
-        return new NamespacedKey(OverworldCrateRewardsPlugin.getInstance(), name);
+        return new NamespacedKey(NAMESPACE, name);
     }
 
     // Item type identification
@@ -73,4 +76,5 @@ public final class PDCKeys {
     public static final NamespacedKey VACUUM_HOPPER_FILTER = key("vacuum_hopper_filter");
     public static final NamespacedKey VACUUM_HOPPER_LINKS = key("vacuum_hopper_links");
     public static final NamespacedKey VACUUM_HOPPER_OWNER = key("vacuum_hopper_owner");
+    public static final NamespacedKey VACUUM_HOPPER_FILTER_TAG = key("vacuum_hopper_filter_tag");
 }
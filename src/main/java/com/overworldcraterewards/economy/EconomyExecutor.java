@@ -0,0 +1,249 @@
+package com.overworldcraterewards.economy;
+
+import java.util.Map;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+import java.util.logging.Logger;
+
+/**
+ * Runs economy calls off the server thread, for providers that are thread-safe.
+ *
+ * Calls run on virtual threads, at most max-concurrent at a time. Calls for
+ * the same player go through that player's serial queue, so they reach the
+ * provider in submission order. A circuit breaker trips after
+ * failure-threshold consecutive provider errors or failed results (such as
+ * refused deposits): for the next
+ * sync-duration, calls for players with nothing queued run directly on the
+ * calling thread, as without this executor. Callers that gave up waiting
+ * report it through {@link #recordTimeout}, which counts as a failure too.
+ */
+public class EconomyExecutor {
+
+    private final Logger logger;
+    private final ExecutorService executor = Executors.newThreadPerTaskExecutor(
+            Thread.ofVirtual().name("OCR-Economy-", 0).factory());
+    private final Semaphore permits;
+
+    private final Map<UUID, SerialQueue> queues = new ConcurrentHashMap<>();
+
+    // Circuit breaker
+    private final int failureThreshold;
+    private final long syncDurationMillis;
+    private final AtomicInteger consecutiveFailures = new AtomicInteger();
+    private volatile long syncUntil = 0;
+    private volatile boolean closed = false;
+
+    /**
+     * The result of a queued call. Cancelling it only succeeds while the call
+     * has not started, so a caller that gave up waiting knows whether the
+     * provider will still see it.
+     */
+    private static final class QueuedCall<T> extends CompletableFuture<T> {
+        private final AtomicBoolean claimed = new AtomicBoolean();
+
+        boolean start() {
+            return claimed.compareAndSet(false, true);
+        }
+
+        @Override
+        public boolean cancel(boolean mayInterruptIfRunning) {
+            return claimed.compareAndSet(false, true) && super.cancel(mayInterruptIfRunning);
+        }
+    }
+
+    /**
+     * Tasks of one player, run one at a time in order.
+     */
+    private final class SerialQueue {
+        final UUID player;
+        final Queue<Runnable> tasks = new ConcurrentLinkedQueue<>();
+        final AtomicBoolean running = new AtomicBoolean();
+        // The player left; drop the queue once it drains
+        volatile boolean forgotten = false;
+
+        SerialQueue(UUID player) {
+            this.player = player;
+        }
+
+        void schedule() {
+            if (!running.compareAndSet(false, true)) return;
+            try {
+                executor.execute(this::drain);
+            } catch (RejectedExecutionException e) {
+                drain(); // Shutting down; finish on this thread
+            }
+        }
+
+        void drain() {
+            Runnable task;
+            while ((task = tasks.poll()) != null) {
+                task.run();
+            }
+            running.set(false);
+            // A task may have been added after the last poll
+            if (!tasks.isEmpty()) {
+                schedule();
+            } else if (forgotten) {
+                // Adds happen under the same map lock, so an idle queue stays idle here
+                queues.computeIfPresent(player, (k, queue) -> queue == this && queue.isIdle() ? null : queue);
+            }
+        }
+
+        boolean isIdle() {
+            return !running.get() && tasks.isEmpty();
+        }
+    }
+
+    public EconomyExecutor(Logger logger, int maxConcurrent, int failureThreshold, long syncDurationMillis) {
+        this.logger = logger;
+        this.permits = new Semaphore(Math.max(1, maxConcurrent));
+        this.failureThreshold = Math.max(1, failureThreshold);
+        this.syncDurationMillis = syncDurationMillis;
+    }
+
+    /**
+     * @return True if calls are currently dispatched off-thread (breaker closed)
+     */
+    public boolean isAsync() {
+        return !closed && System.currentTimeMillis() >= syncUntil;
+    }
+
+    /**
+     * Run an economy call for a player, after the calls already submitted for them.
+     * @return The call's result; completes on an economy thread unless the call ran inline
+     */
+    public <T> CompletableFuture<T> submit(UUID player, Supplier<T> call) {
+        return submit(player, call, result -> false);
+    }
+
+    /**
+     * Run an economy call for a player, after the calls already submitted for them.
+     * @param failed Tells whether a result counts as a provider failure for the breaker
+     * @return The call's result; completes on an economy thread unless the call ran inline.
+     *         Cancelling it drops the call if it has not started yet.
+     */
+    public <T> CompletableFuture<T> submit(UUID player, Supplier<T> call, Predicate<? super T> failed) {
+        QueuedCall<T> result = new QueuedCall<>();
+        boolean[] inline = new boolean[1];
+        // Queued under the map lock, so a draining queue is not dropped in between
+        SerialQueue queue = queues.compute(player, (k, existing) -> {
+            SerialQueue q = existing != null ? existing : new SerialQueue(k);
+            q.forgotten = false;
+            // Synchronous fallback, unless that would overtake the player's queued calls
+            if (!isAsync() && q.isIdle()) {
+                inline[0] = true;
+            } else {
+                q.tasks.add(() -> run(call, failed, result));
+            }
+            return q;
+        });
+
+        if (inline[0]) {
+            try {
+                return CompletableFuture.completedFuture(call.get());
+            } catch (RuntimeException e) {
+                return CompletableFuture.failedFuture(e);
+            }
+        }
+        queue.schedule();
+        return result;
+    }
+
+    private <T> void run(Supplier<T> call, Predicate<? super T> failed, QueuedCall<T> result) {
+        try {
+            permits.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            result.completeExceptionally(e);
+            return;
+        }
+        if (!result.start()) {
+            // The caller gave up waiting before it started
+            permits.release();
+            return;
+        }
+        try {
+            T value = call.get();
+            if (failed.test(value)) {
+                recordFailure("refused: " + value);
+            } else {
+                consecutiveFailures.set(0);
+            }
+            result.complete(value);
+        } catch (RuntimeException e) {
+            recordFailure(e.toString());
+            result.completeExceptionally(e);
+        } finally {
+            permits.release();
+        }
+    }
+
+    /**
+     * Count a call the caller gave up waiting for as a provider failure.
+     */
+    public void recordTimeout(long waitedMillis) {
+        recordFailure("no result after " + waitedMillis + " ms");
+    }
+
+    private void recordFailure(String reason) {
+        if (consecutiveFailures.incrementAndGet() < failureThreshold) return;
+        consecutiveFailures.set(0);
+        syncUntil = System.currentTimeMillis() + syncDurationMillis;
+        logger.warning("Economy provider failed " + failureThreshold + " times in a row (" + reason
+                + "); running economy calls on the server thread for " + (syncDurationMillis / 1000) + "s.");
+    }
+
+    /**
+     * Forget a player's queue, now if nothing is pending on it, otherwise
+     * once it drains. A new call for the player keeps it.
+     */
+    public void forget(UUID player) {
+        queues.computeIfPresent(player, (k, queue) -> {
+            if (queue.isIdle()) return null;
+            queue.forgotten = true;
+            return queue;
+        });
+    }
+
+    /**
+     * @return Players with a queue, busy or not
+     */
+    int getTrackedPlayers() {
+        return queues.size();
+    }
+
+    public int getQueuedPlayers() {
+        int busy = 0;
+        for (SerialQueue queue : queues.values()) {
+            if (!queue.isIdle()) busy++;
+        }
+        return busy;
+    }
+
+    /**
+     * Stop dispatching and wait for the calls already submitted.
+     */
+    public void close() {
+        closed = true;
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(30, TimeUnit.SECONDS)) {
+                logger.warning("Timed out waiting for economy calls to finish.");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
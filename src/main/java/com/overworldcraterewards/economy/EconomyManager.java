@@ -1,20 +1,74 @@
 package com.overworldcraterewards.economy;
 
 import com.overworldcraterewards.OverworldCrateRewardsPlugin;
+import com.overworldcraterewards.config.ConfigManager;
 import net.milkbowl.vault.economy.Economy;
+import org.bukkit.OfflinePlayer;
 import org.bukkit.entity.Player;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.player.PlayerQuitEvent;
 import org.bukkit.plugin.RegisteredServiceProvider;
+import org.bukkit.scheduler.BukkitRunnable;
+
+import java.io.File;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
 
 /**
  * Manages integration with Vault economy.
+ *
+ * Rewards are paid through {@link #deposit}, which only adds to the
+ * player's pending balance; pending balances are paid out as one
+ * transaction per player every economy.flush-interval ticks, on quit and on
+ * shutdown. This keeps economy plugins with a database behind them out of
+ * the per-event path. {@link #depositNow}, {@link #withdraw} and
+ * {@link #getBalance} pay the player's pending balance first, so they
+ * see the full amount.
+ *
+ * With economy.journal enabled, every deposit is also written to a
+ * {@link PayoutJournal} and committed once Vault accepted it; deposits a
+ * crash kept from being paid are paid on the next start.
+ *
+ * With economy.async enabled (thread-safe providers only), deposits and
+ * withdrawals go through an {@link EconomyExecutor} instead of running on
+ * the server thread. Every call for a player, synchronous or not, goes
+ * through that player's queue, so it runs after their earlier payouts; the
+ * synchronous methods wait for it on the calling thread for at most
+ * economy.async.call-timeout-ms.
  */
-public class EconomyManager {
+public class EconomyManager implements Listener {
 
     private final OverworldCrateRewardsPlugin plugin;
     private Economy economy;
 
+    // Amounts deposited but not yet paid out
+    private final PendingPayouts pending;
+
+    // Crash-safe record of pending deposits, null if disabled
+    private PayoutJournal journal;
+
+    // Off-thread execution of economy calls, null if disabled
+    private EconomyExecutor executor;
+
+    // Last flush, for /ocr debug economy
+    private long lastFlushNanos = 0;
+    private int lastFlushPlayers = 0;
+    private double lastFlushAmount = 0;
+    private long maxFlushNanos = 0;
+
     public EconomyManager(OverworldCrateRewardsPlugin plugin) {
         this.plugin = plugin;
+        this.pending = new PendingPayouts(plugin.getConfigManager().getEconomyMaxAttempts());
     }
 
     /**
@@ -38,37 +92,156 @@ public class EconomyManager {
 
         economy = rsp.getProvider();
         plugin.getLogger().info("Hooked into economy: " + economy.getName());
+        ConfigManager config = plugin.getConfigManager();
+        if (config.isEconomyAsyncEnabled()) {
+            executor = new EconomyExecutor(plugin.getLogger(), config.getEconomyAsyncMaxConcurrent(),
+                    config.getEconomyAsyncFailureThreshold(), config.getEconomyAsyncSyncDurationSeconds() * 1000L);
+            plugin.getLogger().info("Economy calls run off the server thread.");
+        }
+        if (config.isEconomyJournalEnabled()) {
+            openJournal();
+        }
+        startFlushTask();
         return true;
     }
 
     /**
-     * Deposit money to a player's account.
+     * Open the payout journal and pay what the last run left uncommitted.
+     */
+    private void openJournal() {
+        journal = new PayoutJournal(plugin.getLogger(), new File(plugin.getDataFolder(), "payouts.journal"));
+        List<PayoutJournal.Payout> recovered = journal.recover();
+        if (recovered.isEmpty()) {
+            return;
+        }
+
+        double total = 0;
+        for (PayoutJournal.Payout payout : recovered) {
+            // Still open in the journal under their original seqs; not journaled again
+            pending.add(payout.player(), payout.amount(), payout.firstSeq(), payout.lastSeq());
+            total += payout.amount();
+        }
+        plugin.getLogger().warning(String.format("Paying %.2f in %d uncommitted payouts from the last run.",
+                total, recovered.size()));
+        flushAll();
+    }
+
+    private void startFlushTask() {
+        long syncInterval = plugin.getConfigManager().getEconomyJournalSyncInterval();
+        if (journal != null && syncInterval > 0) {
+            new BukkitRunnable() {
+                @Override
+                public void run() {
+                    journal.sync();
+                }
+            }.runTaskTimer(plugin, syncInterval, syncInterval);
+        }
+
+        long interval = plugin.getConfigManager().getEconomyFlushInterval();
+        if (interval <= 0) {
+            return; // Deposits are paid immediately
+        }
+        new BukkitRunnable() {
+            @Override
+            public void run() {
+                flushAll();
+            }
+        }.runTaskTimer(plugin, interval, interval);
+    }
+
+    /**
+     * Deposit money to a player's account. The payment is batched with the
+     * player's other deposits; use {@link #depositNow} if it must be visible
+     * right away.
      * @param player The player to pay
      * @param amount The amount to deposit
-     * @return true if successful
+     * @return true if the deposit was accepted
      */
     public boolean deposit(Player player, double amount) {
         if (economy == null) {
             return false;
         }
-        return economy.depositPlayer(player, amount).transactionSuccess();
+        if (plugin.getConfigManager().getEconomyFlushInterval() <= 0) {
+            if (executor == null) {
+                return depositNow(player, amount);
+            }
+            // Paid right away, but never waited for on the server thread
+            enqueue(player.getUniqueId(), amount);
+            flush(player);
+            return true;
+        }
+        enqueue(player.getUniqueId(), amount);
+        return true;
+    }
+
+    private void enqueue(UUID uuid, double amount) {
+        if (amount == 0) return;
+        long seq = journal != null ? journal.deposit(uuid, amount) : 0;
+        pending.add(uuid, amount, seq);
+    }
+
+    /**
+     * Deposit money to a player's account immediately, together with their
+     * pending deposits. In async mode, waits for the player's queued calls
+     * for at most economy.async.call-timeout-ms.
+     * @param player The player to pay
+     * @param amount The amount to deposit
+     * @return true if paid; otherwise the amount stays pending (or, after a
+     *         timeout, is committed once the provider accepts it)
+     */
+    public boolean depositNow(Player player, double amount) {
+        if (economy == null) {
+            return false;
+        }
+        // Journaled like any other deposit, then paid with the rest
+        enqueue(player.getUniqueId(), amount);
+        PendingPayouts.Batch batch = pending.take(player.getUniqueId());
+        if (batch == null) {
+            // An earlier batch is still in flight; this one is paid after it
+            return false;
+        }
+        CompletableFuture<Boolean> paid = callPay(player, batch);
+        // Settled however the call ends, including a cancelled one
+        CompletableFuture<Boolean> settled = paid.handle((success, error) -> settle(player, batch, success, error));
+        if (!awaitBounded(paid)) {
+            return false;
+        }
+        return settled.join();
     }
 
     /**
-     * Withdraw money from a player's account.
+     * Withdraw money from a player's account, after the payouts already
+     * queued for them. In async mode, waits for the player's queued calls
+     * for at most economy.async.call-timeout-ms.
      * @param player The player to charge
      * @param amount The amount to withdraw
-     * @return true if successful
+     * @return true if successful; false if it failed or timed out
      */
     public boolean withdraw(Player player, double amount) {
         if (economy == null) {
             return false;
         }
-        return economy.withdrawPlayer(player, amount).transactionSuccess();
+        flush(player);
+        UUID uuid = player.getUniqueId();
+        CompletableFuture<Boolean> withdrawn = call(uuid, () -> economy.withdrawPlayer(player, amount).transactionSuccess());
+        if (awaitBounded(withdrawn)) {
+            return unwrap(withdrawn);
+        }
+        if (!withdrawn.isCancelled()) {
+            // Already running: reported as failed, so give the money back if it goes through
+            withdrawn.thenAccept(success -> {
+                if (success) {
+                    plugin.getServer().getScheduler().runTask(plugin, () -> enqueue(uuid, amount));
+                }
+            });
+        }
+        return false;
     }
 
     /**
-     * Get a player's balance.
+     * Get a player's balance, after the payouts already queued for them. In
+     * async mode, waits for the player's queued calls for at most
+     * economy.async.call-timeout-ms, then asks the provider directly.
      * @param player The player
      * @return Their balance
      */
@@ -76,9 +249,257 @@ public class EconomyManager {
         if (economy == null) {
             return 0;
         }
+        flush(player);
+        CompletableFuture<Double> balance = call(player.getUniqueId(), () -> economy.getBalance(player));
+        if (awaitBounded(balance)) {
+            return unwrap(balance);
+        }
         return economy.getBalance(player);
     }
 
+    // === Execution ===
+
+    /**
+     * Run an economy call, off-thread in async mode.
+     */
+    private <T> CompletableFuture<T> call(UUID uuid, Supplier<T> call) {
+        return call(uuid, call, result -> false);
+    }
+
+    /**
+     * Run an economy call, off-thread in async mode.
+     * @param failed Tells whether a result counts as a provider failure
+     */
+    private <T> CompletableFuture<T> call(UUID uuid, Supplier<T> call, Predicate<? super T> failed) {
+        if (executor != null) {
+            return executor.submit(uuid, call, failed);
+        }
+        try {
+            return CompletableFuture.completedFuture(call.get());
+        } catch (RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    /**
+     * Wait for an economy call for at most economy.async.call-timeout-ms. On
+     * timeout the call is cancelled if it has not started yet, and counted
+     * towards the circuit breaker.
+     * @return False if it timed out; the future is then cancelled or still running
+     */
+    private boolean awaitBounded(CompletableFuture<?> future) {
+        if (future.isDone() || executor == null) {
+            return true;
+        }
+        long timeoutMs = plugin.getConfigManager().getEconomyAsyncCallTimeoutMs();
+        try {
+            future.get(timeoutMs, TimeUnit.MILLISECONDS);
+            return true;
+        } catch (TimeoutException e) {
+            future.cancel(false);
+            executor.recordTimeout(timeoutMs);
+            plugin.getLogger().warning("Economy provider did not answer within " + timeoutMs + " ms"
+                    + (future.isCancelled() ? "; call dropped" : "; call still running"));
+            // Completed between the timeout and the cancel attempt
+            return future.isDone() && !future.isCancelled();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        } catch (ExecutionException e) {
+            return true; // Completed exceptionally; unwrap rethrows
+        }
+    }
+
+    /**
+     * The result of a completed economy call, rethrowing what the provider threw.
+     */
+    private static <T> T unwrap(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    // === Pending deposits ===
+
+    /**
+     * Pay out one player's pending deposits (in async mode, without waiting).
+     */
+    public void flush(OfflinePlayer player) {
+        PendingPayouts.Batch batch = pending.take(player.getUniqueId());
+        if (batch != null) {
+            payPending(player, batch);
+        }
+    }
+
+    /**
+     * Pay out every pending deposit, one transaction per player. In async
+     * mode the recorded latency only covers handing them to the executor.
+     */
+    public void flushAll() {
+        if (economy == null || pending.isEmpty()) {
+            return;
+        }
+
+        long start = System.nanoTime();
+        int players = 0;
+        double total = 0;
+        // Snapshot: failed payments are put back while iterating
+        for (UUID uuid : pending.players()) {
+            PendingPayouts.Batch batch = pending.take(uuid);
+            if (batch == null) continue;
+            payPending(plugin.getServer().getOfflinePlayer(uuid), batch);
+            players++;
+            total += batch.amount();
+        }
+        long elapsed = System.nanoTime() - start;
+
+        lastFlushNanos = elapsed;
+        lastFlushPlayers = players;
+        lastFlushAmount = total;
+        maxFlushNanos = Math.max(maxFlushNanos, elapsed);
+
+        long warnMs = plugin.getConfigManager().getEconomySlowFlushWarningMs();
+        if (warnMs > 0 && elapsed >= warnMs * 1_000_000L) {
+            plugin.getLogger().warning(String.format("Economy flush took %.1f ms for %d players",
+                    elapsed / 1_000_000.0, players));
+        }
+    }
+
+    /**
+     * Pay a taken pending balance and commit it, or put it back if Vault refused.
+     * @return True once paid; in async mode it completes on an economy thread
+     */
+    private CompletableFuture<Boolean> payPending(OfflinePlayer player, PendingPayouts.Batch batch) {
+        return callPay(player, batch).handle((success, error) -> settle(player, batch, success, error));
+    }
+
+    private CompletableFuture<Boolean> callPay(OfflinePlayer player, PendingPayouts.Batch batch) {
+        // A refused deposit counts towards the circuit breaker like an exception
+        return call(batch.player(), () -> pay(player, batch.amount()), success -> !success);
+    }
+
+    private boolean settle(OfflinePlayer player, PendingPayouts.Batch batch, Boolean success, Throwable error) {
+        if (error != null && !(error instanceof CancellationException)) {
+            plugin.getLogger().warning("Failed to deposit " + batch.amount() + " to " + player.getName() + ": " + error);
+        }
+        return settle(player, batch, error == null && success);
+    }
+
+    /**
+     * Commit a paid batch, or put it back to be retried.
+     * @return Whether it was paid
+     */
+    private boolean settle(OfflinePlayer player, PendingPayouts.Batch batch, boolean success) {
+        if (success) {
+            if (journal != null && batch.lastSeq() > 0) {
+                journal.commit(batch.player(), batch.firstSeq(), batch.lastSeq());
+            }
+            pending.paid(batch);
+            return true;
+        }
+
+        // Still owed (and still uncommitted in the journal); retried on the next flush.
+        // May run on an economy thread: the merge is atomic.
+        if (!pending.putBack(batch)) {
+            deadLetter(player, batch);
+        }
+        return false;
+    }
+
+    private void deadLetter(OfflinePlayer player, PendingPayouts.Batch batch) {
+        int attempts = batch.attempts() + 1;
+        plugin.getLogger().severe(String.format("Giving up on paying %.2f to %s after %d attempts%s",
+                batch.amount(), player.getName() != null ? player.getName() : player.getUniqueId(), attempts,
+                journal != null ? "; recorded in payouts.journal.dead" : ""));
+        if (journal != null && batch.lastSeq() > 0) {
+            journal.deadLetter(batch.player(), batch.firstSeq(), batch.lastSeq(), batch.amount(), attempts);
+        }
+    }
+
+    /**
+     * Pay out everything and close the journal, on shutdown.
+     */
+    public void shutdown() {
+        flushAll();
+        if (executor != null) {
+            // Payouts still running when this gives up stay uncommitted and are replayed
+            executor.close();
+            // Batches that were in flight during the first pass, or failed while
+            // draining, are back in pending now; calls run inline from here on
+            flushAll();
+        }
+        if (!pending.isEmpty()) {
+            plugin.getLogger().severe(String.format("%.2f in pending payouts to %d players could not be paid on shutdown%s",
+                    pending.total(), pending.size(),
+                    journal != null ? "; they are paid on the next start" : " and are lost"));
+        }
+        if (journal != null) {
+            journal.close();
+        }
+    }
+
+    private boolean pay(OfflinePlayer player, double amount) {
+        boolean success = economy.depositPlayer(player, amount).transactionSuccess();
+        if (!success) {
+            plugin.getLogger().warning("Failed to deposit " + amount + " to " + player.getName());
+        }
+        return success;
+    }
+
+    /**
+     * @return The total of all pending deposits
+     */
+    public double getPendingTotal() {
+        return pending.total();
+    }
+
+    public int getPendingPlayers() {
+        return pending.size();
+    }
+
+    /**
+     * @return True if economy calls currently run off the server thread
+     */
+    public boolean isAsync() {
+        return executor != null && executor.isAsync();
+    }
+
+    /**
+     * @return Players with economy calls queued or running off-thread
+     */
+    public int getQueuedPlayers() {
+        return executor != null ? executor.getQueuedPlayers() : 0;
+    }
+
+    public long getLastFlushNanos() {
+        return lastFlushNanos;
+    }
+
+    public int getLastFlushPlayers() {
+        return lastFlushPlayers;
+    }
+
+    public double getLastFlushAmount() {
+        return lastFlushAmount;
+    }
+
+    public long getMaxFlushNanos() {
+        return maxFlushNanos;
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onQuit(PlayerQuitEvent event) {
+        flush(event.getPlayer());
+        if (executor != null) {
+            executor.forget(event.getPlayer().getUniqueId());
+        }
+    }
+
     /**
      * Check if economy is available.
      * @return true if economy is set up
@@ -0,0 +1,372 @@
+package com.overworldcraterewards.economy;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+
+/**
+ * Append-only journal of pending economy payouts (payouts.journal).
+ *
+ * Every deposit is appended as "D|seq|uuid|amount" before it is paid; after
+ * a successful Vault transaction "C|uuid|first|last" marks that player's
+ * deposits with first <= seq <= last as paid. A commit covers exactly the
+ * batch that was paid: another batch of the same player may be in flight
+ * or have failed, and must stay open. Deposits without a commit are what a
+ * crash lost, and are read back by {@link #recover()} on the next start.
+ * Deposits the provider kept refusing are closed with "X|uuid|first|last"
+ * instead, and recorded for an admin in payouts.journal.dead. Appends run on a
+ * background thread in submission order and reach the disk on every
+ * {@link #sync()}.
+ *
+ * On recovery, and whenever the file has grown past a few thousand lines,
+ * the journal is compacted to the deposits still owed, keeping their seqs:
+ * the compacted copy is written and forced to disk before it replaces the
+ * old file, so a crash before they are paid loses nothing.
+ */
+public class PayoutJournal {
+
+    private static final String DEPOSIT = "D";
+    private static final String COMMIT = "C";
+    private static final String DEAD_LETTER = "X";
+    private static final String SEPARATOR = "|";
+
+    // Compact once this many lines are in the file, and at least twice as
+    // many as there are open deposits
+    private static final int MAX_JOURNAL_RECORDS = 5000;
+
+    private final Logger logger;
+    private final File journalFile;
+    private final File deadLetterFile;
+
+    private final ExecutorService ioExecutor = Executors.newSingleThreadExecutor(r -> {
+        Thread thread = new Thread(r, "OCR-PayoutJournal");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    // Only touched on the I/O thread
+    private FileOutputStream journalStream;
+    private BufferedWriter journalWriter;
+    private int journalRecords = 0;
+    // Player -> (seq -> amount) of their deposits not yet committed
+    private final Map<UUID, NavigableMap<Long, Double>> uncommitted = new LinkedHashMap<>();
+    private int uncommittedCount = 0;
+
+    // Next deposit sequence number; main thread only
+    private long nextSeq = 1;
+
+    /**
+     * A player's uncommitted deposits found on startup. They stay open in the
+     * journal under their original seqs; commit firstSeq..lastSeq once paid.
+     */
+    public record Payout(UUID player, double amount, long firstSeq, long lastSeq) {}
+
+    public PayoutJournal(Logger logger, File journalFile) {
+        this.logger = logger;
+        this.journalFile = journalFile;
+        this.deadLetterFile = new File(journalFile.getParentFile(), journalFile.getName() + ".dead");
+    }
+
+    /**
+     * Read the deposits a previous run did not commit and compact the journal
+     * to them. Runs on the calling thread, before any deposit is journaled.
+     * @return The uncommitted amount per player
+     */
+    public List<Payout> recover() {
+        // Player -> (seq -> amount) of uncommitted deposits
+        Map<UUID, NavigableMap<Long, Double>> open = new LinkedHashMap<>();
+        int lines = 0;
+        int skipped = 0;
+
+        if (journalFile.exists()) {
+            try (BufferedReader reader = Files.newBufferedReader(journalFile.toPath(), StandardCharsets.UTF_8)) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    lines++;
+                    if (!applyLine(open, line)) {
+                        skipped++;
+                    }
+                }
+            } catch (IOException e) {
+                logger.severe("Failed to read payout journal, keeping it for inspection: " + e.getMessage());
+                return List.of();
+            }
+        }
+        if (skipped > 0) {
+            logger.warning("Skipped " + skipped + " malformed payout journal lines.");
+        }
+
+        List<Payout> payouts = new ArrayList<>();
+        Map<UUID, NavigableMap<Long, Double>> owed = new LinkedHashMap<>();
+        for (Map.Entry<UUID, NavigableMap<Long, Double>> entry : open.entrySet()) {
+            NavigableMap<Long, Double> deposits = entry.getValue();
+            double amount = 0;
+            for (double value : deposits.values()) {
+                amount += value;
+            }
+            if (amount == 0) continue;
+
+            payouts.add(new Payout(entry.getKey(), amount, deposits.firstKey(), deposits.lastKey()));
+            owed.put(entry.getKey(), deposits);
+        }
+
+        // If compacting fails the old file is still valid, and is appended to instead
+        List<String> carried = depositLines(owed);
+        int records = compact(carried) ? carried.size() : lines;
+        ioExecutor.execute(() -> {
+            uncommitted.putAll(owed);
+            uncommittedCount = carried.size();
+            reopen();
+            journalRecords = records;
+        });
+        return payouts;
+    }
+
+    /**
+     * The D records of the given deposits, in seq order per player.
+     */
+    private static List<String> depositLines(Map<UUID, NavigableMap<Long, Double>> deposits) {
+        List<String> lines = new ArrayList<>();
+        for (Map.Entry<UUID, NavigableMap<Long, Double>> entry : deposits.entrySet()) {
+            for (Map.Entry<Long, Double> deposit : entry.getValue().entrySet()) {
+                lines.add(DEPOSIT + SEPARATOR + deposit.getKey() + SEPARATOR + entry.getKey()
+                        + SEPARATOR + deposit.getValue());
+            }
+        }
+        return lines;
+    }
+
+    /**
+     * Replace the journal with the given lines: they are written to a temp
+     * file and forced to disk before it is renamed over the journal.
+     * @return False if the old journal was left in place
+     */
+    private boolean compact(List<String> lines) {
+        File tempFile = new File(journalFile.getParentFile(), journalFile.getName() + ".tmp");
+        try {
+            journalFile.getParentFile().mkdirs();
+            try (FileOutputStream out = new FileOutputStream(tempFile)) {
+                BufferedWriter writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+                for (String line : lines) {
+                    writer.write(line);
+                    writer.newLine();
+                }
+                writer.flush();
+                out.getChannel().force(true);
+            }
+            Files.move(tempFile.toPath(), journalFile.toPath(),
+                    StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            syncDirectory();
+            return true;
+        } catch (IOException e) {
+            logger.severe("Failed to compact payout journal, appending to the old one: " + e.getMessage());
+            tempFile.delete();
+            return false;
+        }
+    }
+
+    /**
+     * Make the rename of the compacted journal durable. Not supported on
+     * every platform (e.g. Windows), where it is skipped.
+     */
+    private void syncDirectory() {
+        try (FileChannel dir = FileChannel.open(journalFile.getParentFile().toPath(), StandardOpenOption.READ)) {
+            dir.force(true);
+        } catch (IOException | UnsupportedOperationException ignored) {
+            // Best effort
+        }
+    }
+
+    /**
+     * Apply one journal line. Malformed lines (e.g. a torn final write) are skipped.
+     */
+    private boolean applyLine(Map<UUID, NavigableMap<Long, Double>> open, String line) {
+        String[] parts = line.split("\\|", -1);
+        try {
+            if (parts[0].equals(DEPOSIT) && parts.length == 4) {
+                long seq = Long.parseLong(parts[1]);
+                open.computeIfAbsent(UUID.fromString(parts[2]), k -> new TreeMap<>())
+                        .put(seq, Double.parseDouble(parts[3]));
+                nextSeq = Math.max(nextSeq, seq + 1);
+                return true;
+            }
+            // Dead-lettered deposits are not owed on restart either
+            if ((parts[0].equals(COMMIT) || parts[0].equals(DEAD_LETTER)) && parts.length == 4) {
+                NavigableMap<Long, Double> deposits = open.get(UUID.fromString(parts[1]));
+                if (deposits != null) {
+                    deposits.subMap(Long.parseLong(parts[2]), true, Long.parseLong(parts[3]), true).clear();
+                }
+                return true;
+            }
+        } catch (IllegalArgumentException ignored) {
+            // NumberFormatException and malformed UUIDs
+        }
+        return false;
+    }
+
+    // === Journal ===
+
+    /**
+     * Journal a deposit that is about to be queued.
+     * @return Its sequence number, to commit it with
+     */
+    public long deposit(UUID player, double amount) {
+        long seq = nextSeq++;
+        String line = DEPOSIT + SEPARATOR + seq + SEPARATOR + player + SEPARATOR + amount;
+        ioExecutor.execute(() -> {
+            uncommitted.computeIfAbsent(player, k -> new TreeMap<>()).put(seq, amount);
+            uncommittedCount++;
+            append(line);
+        });
+        return seq;
+    }
+
+    /**
+     * Mark the player's deposits with firstSeq <= seq <= lastSeq as paid.
+     */
+    public void commit(UUID player, long firstSeq, long lastSeq) {
+        close(COMMIT, player, firstSeq, lastSeq);
+    }
+
+    /**
+     * Give up on the player's deposits with firstSeq <= seq <= lastSeq: they
+     * are not paid on restart, and are recorded in the dead letter file.
+     */
+    public void deadLetter(UUID player, long firstSeq, long lastSeq, double amount, int attempts) {
+        String record = System.currentTimeMillis() + SEPARATOR + player + SEPARATOR + amount
+                + SEPARATOR + attempts + SEPARATOR + firstSeq + SEPARATOR + lastSeq;
+        ioExecutor.execute(() -> {
+            try (BufferedWriter writer = new BufferedWriter(new OutputStreamWriter(
+                    new FileOutputStream(deadLetterFile, true), StandardCharsets.UTF_8))) {
+                writer.write(record);
+                writer.newLine();
+            } catch (IOException e) {
+                logger.severe("Failed to record dead-lettered payout " + record + ": " + e.getMessage());
+            }
+        });
+        close(DEAD_LETTER, player, firstSeq, lastSeq);
+    }
+
+    private void close(String type, UUID player, long firstSeq, long lastSeq) {
+        String line = type + SEPARATOR + player + SEPARATOR + firstSeq + SEPARATOR + lastSeq;
+        ioExecutor.execute(() -> {
+            NavigableMap<Long, Double> deposits = uncommitted.get(player);
+            if (deposits != null) {
+                NavigableMap<Long, Double> closed = deposits.subMap(firstSeq, true, lastSeq, true);
+                uncommittedCount -= closed.size();
+                closed.clear();
+                if (deposits.isEmpty()) {
+                    uncommitted.remove(player);
+                }
+            }
+            append(line);
+        });
+    }
+
+    /**
+     * Force everything appended so far to disk.
+     */
+    public void sync() {
+        ioExecutor.execute(this::force);
+    }
+
+    public void close() {
+        sync();
+        ioExecutor.shutdown();
+        try {
+            if (!ioExecutor.awaitTermination(30, TimeUnit.SECONDS)) {
+                logger.warning("Timed out waiting for the payout journal to be written.");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        try {
+            if (journalWriter != null) {
+                journalWriter.close();
+            }
+        } catch (IOException e) {
+            logger.warning("Failed to close payout journal: " + e.getMessage());
+        }
+    }
+
+    private void append(String line) {
+        try {
+            if (journalWriter == null) {
+                reopen();
+            }
+            journalWriter.write(line);
+            journalWriter.newLine();
+        } catch (IOException e) {
+            logger.warning("Failed to append payout journal: " + e.getMessage());
+        }
+
+        if (++journalRecords >= MAX_JOURNAL_RECORDS && journalRecords >= 2 * uncommittedCount) {
+            compactOpen();
+        }
+    }
+
+    /**
+     * Rewrite the journal to the deposits still owed. Runs on the I/O thread,
+     * so nothing is appended while the file is replaced.
+     */
+    private void compactOpen() {
+        force();
+        try {
+            if (journalWriter != null) {
+                journalWriter.close();
+            }
+        } catch (IOException e) {
+            logger.warning("Failed to close payout journal: " + e.getMessage());
+        }
+        journalWriter = null;
+
+        List<String> lines = depositLines(uncommitted);
+        boolean compacted = compact(lines);
+        reopen();
+        // After a failed compaction, wait for another full batch of lines before retrying
+        journalRecords = compacted ? lines.size() : 0;
+    }
+
+    private void force() {
+        if (journalWriter == null) return;
+        try {
+            journalWriter.flush();
+            journalStream.getChannel().force(false);
+        } catch (IOException e) {
+            logger.warning("Failed to sync payout journal: " + e.getMessage());
+        }
+    }
+
+    private void reopen() {
+        try {
+            if (journalWriter != null) {
+                journalWriter.close();
+            }
+            journalFile.getParentFile().mkdirs();
+            journalStream = new FileOutputStream(journalFile, true);
+            journalWriter = new BufferedWriter(new OutputStreamWriter(journalStream, StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            journalWriter = null;
+            logger.warning("Failed to open payout journal: " + e.getMessage());
+        }
+    }
+}
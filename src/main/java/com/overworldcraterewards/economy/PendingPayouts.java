@@ -0,0 +1,135 @@
+package com.overworldcraterewards.economy;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Deposits waiting to be paid out, per player.
+ *
+ * Deposits are added on the server thread, but failed payouts may be put
+ * back from an economy thread, so every operation holds the lock.
+ *
+ * A player has at most one batch in flight: their deposits are not taken
+ * again until that batch is settled. So when a batch is taken, every
+ * unpaid deposit of the player in its seq range is part of it, and a
+ * journal commit of that range covers exactly what was paid.
+ *
+ * A batch that keeps failing is given up on after maxAttempts payouts, so a
+ * provider that refuses a deposit is not asked again on every flush.
+ */
+final class PendingPayouts {
+
+    /**
+     * A player's pending deposits, taken out to be paid in one transaction.
+     * @param firstSeq Journal seq of the first deposit included, 0 without a journal
+     * @param lastSeq Journal seq of the last deposit included, 0 without a journal
+     * @param attempts Failed payouts of (part of) this batch so far
+     */
+    record Batch(UUID player, double amount, long firstSeq, long lastSeq, int attempts) {}
+
+    private static final class Entry {
+        double amount;
+        long firstSeq = Long.MAX_VALUE;
+        long lastSeq = 0;
+        int attempts = 0;
+    }
+
+    private final int maxAttempts;
+    private final Map<UUID, Entry> pending = new HashMap<>();
+
+    // Players with a batch taken and not yet settled
+    private final Set<UUID> inFlight = new HashSet<>();
+
+    PendingPayouts(int maxAttempts) {
+        this.maxAttempts = Math.max(1, maxAttempts);
+    }
+
+    synchronized void add(UUID player, double amount, long seq) {
+        merge(player, amount, seq, seq, 0);
+    }
+
+    /**
+     * Add deposits recovered from the journal, still open under firstSeq..lastSeq.
+     */
+    synchronized void add(UUID player, double amount, long firstSeq, long lastSeq) {
+        merge(player, amount, firstSeq, lastSeq, 0);
+    }
+
+    private void merge(UUID player, double amount, long firstSeq, long lastSeq, int attempts) {
+        Entry entry = pending.computeIfAbsent(player, k -> new Entry());
+        entry.amount += amount;
+        entry.firstSeq = Math.min(entry.firstSeq, firstSeq);
+        entry.lastSeq = Math.max(entry.lastSeq, lastSeq);
+        entry.attempts = Math.max(entry.attempts, attempts);
+    }
+
+    /**
+     * Take the player's pending deposits to pay them. Must be followed by
+     * {@link #paid} or {@link #putBack} once the payment is settled.
+     * @return The batch, or null if nothing is pending or a batch is already in flight
+     */
+    synchronized Batch take(UUID player) {
+        if (inFlight.contains(player)) return null;
+        Entry entry = pending.get(player);
+        if (entry == null || entry.amount == 0) return null;
+
+        pending.remove(player);
+        inFlight.add(player);
+        return new Batch(player, entry.amount, entry.firstSeq, entry.lastSeq, entry.attempts);
+    }
+
+    /**
+     * Settle a batch that was paid.
+     */
+    synchronized void paid(Batch batch) {
+        inFlight.remove(batch.player());
+    }
+
+    /**
+     * Settle a batch that could not be paid: it is merged back with anything
+     * added since and taken again with the next batch, unless this was its
+     * last attempt.
+     * @return False if the batch was given up on (the caller dead-letters it)
+     */
+    synchronized boolean putBack(Batch batch) {
+        inFlight.remove(batch.player());
+        int attempts = batch.attempts() + 1;
+        if (attempts >= maxAttempts) {
+            return false;
+        }
+        merge(batch.player(), batch.amount(), batch.firstSeq(), batch.lastSeq(), attempts);
+        return true;
+    }
+
+    /**
+     * @return True if the player has deposits that are not paid yet (pending or in flight)
+     */
+    synchronized boolean isOwed(UUID player) {
+        return pending.containsKey(player) || inFlight.contains(player);
+    }
+
+    synchronized List<UUID> players() {
+        return new ArrayList<>(pending.keySet());
+    }
+
+    synchronized double total() {
+        double total = 0;
+        for (Entry entry : pending.values()) {
+            total += entry.amount;
+        }
+        return total;
+    }
+
+    synchronized boolean isEmpty() {
+        return pending.isEmpty();
+    }
+
+    synchronized int size() {
+        return pending.size();
+    }
+}
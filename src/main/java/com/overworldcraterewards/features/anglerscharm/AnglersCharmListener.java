@@ -5,6 +5,8 @@ import com.overworldcraterewards.config.ConfigManager;
 import com.overworldcraterewards.data.PDCKeys;
 import com.overworldcraterewards.economy.EconomyManager;
 import com.overworldcraterewards.items.CustomItemType;
+import com.overworldcraterewards.items.ItemData;
+import com.overworldcraterewards.items.StatAccumulator;
 import com.overworldcraterewards.util.InventoryUtil;
 import com.overworldcraterewards.util.MessageUtil;
 import net.kyori.adventure.text.Component;
@@ -12,6 +14,7 @@ import net.kyori.adventure.text.format.NamedTextColor;
 import net.kyori.adventure.text.format.TextColor;
 import net.kyori.adventure.text.format.TextDecoration;
 import org.bukkit.Material;
+import org.bukkit.NamespacedKey;
 import org.bukkit.Particle;
 import org.bukkit.Sound;
 import org.bukkit.entity.Item;
@@ -46,6 +49,7 @@ public class AnglersCharmListener implements Listener {
 
     private final OverworldCrateRewardsPlugin plugin;
     private final ConfigManager config;
+    private final StatAccumulator statAccumulator;
     private final EconomyManager economy;
 
     // Fish materials that trigger auto-sell
@@ -60,6 +64,11 @@ public class AnglersCharmListener implements Listener {
         this.plugin = plugin;
         this.config = plugin.getConfigManager();
         this.economy = plugin.getEconomyManager();
+        this.statAccumulator = plugin.getStatAccumulator();
+        statAccumulator.register(CustomItemType.ANGLERS_CHARM,
+                new NamespacedKey[]{PDCKeys.ANGLERS_CHARM_FISH_CAUGHT},
+                new NamespacedKey[]{PDCKeys.ANGLERS_CHARM_EARNED},
+                (player, charm) -> updateCharmLore(charm));
     }
 
     /**
@@ -92,6 +101,9 @@ public class AnglersCharmListener implements Listener {
             return;
         }
 
+        // Pending stats first, so the refreshed lore shows them
+        statAccumulator.flush(player, CustomItemType.ANGLERS_CHARM);
+
         boolean isNowDisabled = toggleDisabled(item);
         updateCharmLore(item);
         player.getInventory().setItemInMainHand(item);
@@ -259,66 +271,47 @@ public class AnglersCharmListener implements Listener {
         if (charm == null || !charm.hasItemMeta()) {
             return false;
         }
-        return charm.getItemMeta().getPersistentDataContainer()
-                .getOrDefault(PDCKeys.ANGLERS_CHARM_DISABLED, PersistentDataType.BOOLEAN, false);
+        return ItemData.getBoolean(charm, PDCKeys.ANGLERS_CHARM_DISABLED, false);
     }
 
     private boolean isUpgradedCharm(ItemStack charm) {
         if (charm == null || !charm.hasItemMeta()) {
             return false;
         }
-        return charm.getItemMeta().getPersistentDataContainer()
-                .has(PDCKeys.ANGLERS_CHARM_UPGRADED, PersistentDataType.BOOLEAN);
+        return ItemData.has(charm, PDCKeys.ANGLERS_CHARM_UPGRADED);
     }
 
     /**
-     * Update charm stats in PDC and check for upgrade threshold.
+     * Add to the charm's stats and check for upgrade threshold.
+     * Stats are written to the item by the accumulator.
      */
     private void updateCharmStats(Player player, ItemStack charm, int fishCaught, double earned) {
         if (charm == null || !charm.hasItemMeta()) {
             return;
         }
 
-        ItemMeta meta = charm.getItemMeta();
-        PersistentDataContainer pdc = meta.getPersistentDataContainer();
-
-        long currentFish = pdc.getOrDefault(PDCKeys.ANGLERS_CHARM_FISH_CAUGHT, PersistentDataType.LONG, 0L);
-        double currentEarned = pdc.getOrDefault(PDCKeys.ANGLERS_CHARM_EARNED, PersistentDataType.DOUBLE, 0.0);
-
-        long newFish = currentFish + fishCaught;
-        double newEarned = currentEarned + earned;
-
-        pdc.set(PDCKeys.ANGLERS_CHARM_FISH_CAUGHT, PersistentDataType.LONG, newFish);
-        pdc.set(PDCKeys.ANGLERS_CHARM_EARNED, PersistentDataType.DOUBLE, newEarned);
-        charm.setItemMeta(meta);
+        int slot = InventoryUtil.findItemSlot(player, CustomItemType.ANGLERS_CHARM);
+        if (slot < 0) {
+            return;
+        }
+        StatAccumulator.Stats stats = statAccumulator.get(player, CustomItemType.ANGLERS_CHARM, slot, charm);
+        long newFish = stats.addLong(0, fishCaught);
+        stats.addDouble(0, earned);
 
         // Check for upgrade
         if (!isUpgradedCharm(charm) && newFish >= config.getAnglersCharmUpgradeThreshold()) {
+            statAccumulator.flush(player, CustomItemType.ANGLERS_CHARM);
             upgradeCharm(charm, player);
+            updateCharmLore(charm);
+            updateCharmInInventory(player, charm);
         }
-
-        // Update lore
-        updateCharmLore(charm);
-
-        // Update item in inventory
-        updateCharmInInventory(player, charm);
     }
 
     /**
      * Find and update the charm in the player's inventory.
      */
     private void updateCharmInInventory(Player player, ItemStack updatedCharm) {
-        for (int i = 0; i < player.getInventory().getSize(); i++) {
-            ItemStack item = player.getInventory().getItem(i);
-            if (InventoryUtil.isCustomItem(item, CustomItemType.ANGLERS_CHARM)) {
-                player.getInventory().setItem(i, updatedCharm);
-                return;
-            }
-        }
-
-        if (InventoryUtil.isCustomItem(player.getInventory().getItemInOffHand(), CustomItemType.ANGLERS_CHARM)) {
-            player.getInventory().setItemInOffHand(updatedCharm);
-        }
+        InventoryUtil.replaceItemInInventory(player, CustomItemType.ANGLERS_CHARM, updatedCharm);
     }
 
     /**
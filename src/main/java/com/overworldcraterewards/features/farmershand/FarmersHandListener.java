@@ -4,6 +4,8 @@ import com.overworldcraterewards.OverworldCrateRewardsPlugin;
 import com.overworldcraterewards.config.ConfigManager;
 import com.overworldcraterewards.data.PDCKeys;
 import com.overworldcraterewards.items.CustomItemType;
+import com.overworldcraterewards.items.ItemData;
+import com.overworldcraterewards.items.StatAccumulator;
 import com.overworldcraterewards.util.InventoryUtil;
 import com.overworldcraterewards.util.MessageUtil;
 import net.kyori.adventure.text.Component;
@@ -13,6 +15,7 @@ import net.kyori.adventure.text.format.TextDecoration;
 import org.bukkit.Bukkit;
 import org.bukkit.Location;
 import org.bukkit.Material;
+import org.bukkit.NamespacedKey;
 import org.bukkit.Particle;
 import org.bukkit.Sound;
 import org.bukkit.block.Block;
@@ -63,6 +66,10 @@ public class FarmersHandListener implements Listener {
 
     private final OverworldCrateRewardsPlugin plugin;
     private final ConfigManager config;
+    private final StatAccumulator statAccumulator;
+
+    // PlayerInventory index of the helmet slot
+    private static final int HELMET_SLOT = 39;
 
     // Track active Allays per player UUID
     private final Map<UUID, UUID> playerAllays = new HashMap<>();
@@ -79,6 +86,11 @@ public class FarmersHandListener implements Listener {
     public FarmersHandListener(OverworldCrateRewardsPlugin plugin) {
         this.plugin = plugin;
         this.config = plugin.getConfigManager();
+        this.statAccumulator = plugin.getStatAccumulator();
+        statAccumulator.register(CustomItemType.FARMERS_HAND,
+                new NamespacedKey[]{PDCKeys.FARMERS_HAND_ITEMS_COLLECTED},
+                new NamespacedKey[0],
+                (player, helmet) -> updateLore(helmet));
         startTasks();
     }
 
@@ -289,6 +301,9 @@ public class FarmersHandListener implements Listener {
             return;
         }
 
+        // Pending stats first, so the refreshed lore shows them
+        statAccumulator.flush(player, CustomItemType.FARMERS_HAND);
+
         boolean isNowDisabled = toggleDisabled(item);
         updateLore(item);
         player.getInventory().setItemInMainHand(item);
@@ -440,17 +455,8 @@ public class FarmersHandListener implements Listener {
             return;
         }
 
-        ItemMeta meta = helmet.getItemMeta();
-        PersistentDataContainer pdc = meta.getPersistentDataContainer();
-
-        long current = pdc.getOrDefault(PDCKeys.FARMERS_HAND_ITEMS_COLLECTED, PersistentDataType.LONG, 0L);
-        pdc.set(PDCKeys.FARMERS_HAND_ITEMS_COLLECTED, PersistentDataType.LONG, current + count);
-        helmet.setItemMeta(meta);
-
-        // Update lore periodically (every 10th collection tick to reduce lore spam)
-        if ((current + count) % config.getFarmersHandLoreUpdateInterval() == 0) {
-            updateLore(helmet);
-        }
+        // Written to the helmet (and its lore) by the accumulator
+        statAccumulator.get(player, CustomItemType.FARMERS_HAND, HELMET_SLOT, helmet).addLong(0, count);
     }
 
     // === PDC Helpers ===
@@ -459,16 +465,14 @@ public class FarmersHandListener implements Listener {
         if (item == null || !item.hasItemMeta()) {
             return false;
         }
-        return item.getItemMeta().getPersistentDataContainer()
-                .getOrDefault(PDCKeys.FARMERS_HAND_DISABLED, PersistentDataType.BOOLEAN, false);
+        return ItemData.getBoolean(item, PDCKeys.FARMERS_HAND_DISABLED, false);
     }
 
     private boolean isUpgraded(ItemStack item) {
         if (item == null || !item.hasItemMeta()) {
             return false;
         }
-        return item.getItemMeta().getPersistentDataContainer()
-                .has(PDCKeys.FARMERS_HAND_UPGRADED, PersistentDataType.BOOLEAN);
+        return ItemData.has(item, PDCKeys.FARMERS_HAND_UPGRADED);
     }
 
     private boolean toggleDisabled(ItemStack item) {
@@ -7,6 +7,8 @@ import com.overworldcraterewards.economy.EconomyManager;
 import com.overworldcraterewards.hooks.EconomyShopGUIHook;
 import com.overworldcraterewards.hooks.RoseStackerHook;
 import com.overworldcraterewards.items.CustomItemType;
+import com.overworldcraterewards.items.ItemData;
+import com.overworldcraterewards.items.StatAccumulator;
 import com.overworldcraterewards.util.InventoryUtil;
 import com.overworldcraterewards.util.MessageUtil;
 import net.kyori.adventure.text.Component;
@@ -14,6 +16,7 @@ import net.kyori.adventure.text.format.NamedTextColor;
 import net.kyori.adventure.text.format.TextColor;
 import net.kyori.adventure.text.format.TextDecoration;
 import org.bukkit.Material;
+import org.bukkit.NamespacedKey;
 import org.bukkit.Particle;
 import org.bukkit.Sound;
 import org.bukkit.entity.Item;
@@ -47,6 +50,7 @@ public class FarmersPouchListener implements Listener {
 
     private final OverworldCrateRewardsPlugin plugin;
     private final ConfigManager config;
+    private final StatAccumulator statAccumulator;
     private final EconomyManager economy;
 
     /**
@@ -58,6 +62,11 @@ public class FarmersPouchListener implements Listener {
         this.plugin = plugin;
         this.config = plugin.getConfigManager();
         this.economy = plugin.getEconomyManager();
+        this.statAccumulator = plugin.getStatAccumulator();
+        statAccumulator.register(CustomItemType.FARMERS_POUCH,
+                new NamespacedKey[0],
+                new NamespacedKey[]{PDCKeys.FARMERS_POUCH_EARNED},
+                (player, pouch) -> updatePouchLore(pouch));
     }
 
     /**
@@ -93,6 +102,9 @@ public class FarmersPouchListener implements Listener {
             return;
         }
 
+        // Pending stats first, so the refreshed lore shows them
+        statAccumulator.flush(player, CustomItemType.FARMERS_POUCH);
+
         // Toggle the disabled state
         boolean isNowDisabled = toggleDisabled(item);
 
@@ -150,8 +162,7 @@ public class FarmersPouchListener implements Listener {
         if (pouch == null || !pouch.hasItemMeta()) {
             return false;
         }
-        return pouch.getItemMeta().getPersistentDataContainer()
-                .getOrDefault(PDCKeys.FARMERS_POUCH_DISABLED, PersistentDataType.BOOLEAN, false);
+        return ItemData.getBoolean(pouch, PDCKeys.FARMERS_POUCH_DISABLED, false);
     }
 
     /**
@@ -161,8 +172,7 @@ public class FarmersPouchListener implements Listener {
         if (pouch == null || !pouch.hasItemMeta()) {
             return false;
         }
-        return pouch.getItemMeta().getPersistentDataContainer()
-                .has(PDCKeys.FARMERS_POUCH_UPGRADED, PersistentDataType.BOOLEAN);
+        return ItemData.has(pouch, PDCKeys.FARMERS_POUCH_UPGRADED);
     }
 
     /**
@@ -318,53 +328,35 @@ public class FarmersPouchListener implements Listener {
     }
 
     /**
-     * Update pouch stats and check for upgrade.
+     * Add to the pouch's earnings and check for upgrade.
+     * Stats are written to the item by the accumulator.
      */
     private void updatePouchStats(Player player, ItemStack pouch, double earned) {
         if (pouch == null || !pouch.hasItemMeta()) {
             return;
         }
 
-        ItemMeta meta = pouch.getItemMeta();
-        PersistentDataContainer pdc = meta.getPersistentDataContainer();
-
-        // Get current value
-        double currentEarned = pdc.getOrDefault(PDCKeys.FARMERS_POUCH_EARNED, PersistentDataType.DOUBLE, 0.0);
-        double newEarned = currentEarned + earned;
-
-        // Update value
-        pdc.set(PDCKeys.FARMERS_POUCH_EARNED, PersistentDataType.DOUBLE, newEarned);
-        pouch.setItemMeta(meta);
+        int slot = InventoryUtil.findItemSlot(player, CustomItemType.FARMERS_POUCH);
+        if (slot < 0) {
+            return;
+        }
+        StatAccumulator.Stats stats = statAccumulator.get(player, CustomItemType.FARMERS_POUCH, slot, pouch);
+        double newEarned = stats.addDouble(0, earned);
 
         // Check for upgrade
         if (!isUpgradedPouch(pouch) && newEarned >= config.getFarmersPouchUpgradeThreshold()) {
+            statAccumulator.flush(player, CustomItemType.FARMERS_POUCH);
             upgradePouch(pouch, player);
+            updatePouchLore(pouch);
+            updatePouchInInventory(player, pouch);
         }
-
-        // Update lore
-        updatePouchLore(pouch);
-
-        // Update item in inventory
-        updatePouchInInventory(player, pouch);
     }
 
     /**
      * Find and update the pouch in the player's inventory.
      */
     private void updatePouchInInventory(Player player, ItemStack updatedPouch) {
-        // Check main inventory
-        for (int i = 0; i < player.getInventory().getSize(); i++) {
-            ItemStack item = player.getInventory().getItem(i);
-            if (InventoryUtil.isCustomItem(item, CustomItemType.FARMERS_POUCH)) {
-                player.getInventory().setItem(i, updatedPouch);
-                return;
-            }
-        }
-
-        // Check off-hand
-        if (InventoryUtil.isCustomItem(player.getInventory().getItemInOffHand(), CustomItemType.FARMERS_POUCH)) {
-            player.getInventory().setItemInOffHand(updatedPouch);
-        }
+        InventoryUtil.replaceItemInInventory(player, CustomItemType.FARMERS_POUCH, updatedPouch);
     }
 
     /**
@@ -6,6 +6,8 @@ import com.overworldcraterewards.data.PDCKeys;
 import com.overworldcraterewards.economy.EconomyManager;
 import com.overworldcraterewards.features.farmerspouch.FarmersPouchListener;
 import com.overworldcraterewards.items.CustomItemType;
+import com.overworldcraterewards.items.ItemData;
+import com.overworldcraterewards.items.StatAccumulator;
 import com.overworldcraterewards.util.InventoryUtil;
 import com.overworldcraterewards.util.MessageUtil;
 import net.kyori.adventure.text.Component;
@@ -15,6 +17,7 @@ import net.kyori.adventure.text.format.TextDecoration;
 import org.bukkit.Bukkit;
 import org.bukkit.Location;
 import org.bukkit.Material;
+import org.bukkit.NamespacedKey;
 import org.bukkit.Particle;
 import org.bukkit.Sound;
 import org.bukkit.Statistic;
@@ -61,6 +64,7 @@ public class HarvestHoeListener implements Listener {
 
     private final OverworldCrateRewardsPlugin plugin;
     private final ConfigManager config;
+    private final StatAccumulator statAccumulator;
     private final EconomyManager economy;
     private final FarmersPouchListener pouchListener;
 
@@ -72,6 +76,11 @@ public class HarvestHoeListener implements Listener {
         this.config = plugin.getConfigManager();
         this.economy = plugin.getEconomyManager();
         this.pouchListener = pouchListener;
+        this.statAccumulator = plugin.getStatAccumulator();
+        statAccumulator.register(CustomItemType.HARVEST_HOE,
+                new NamespacedKey[]{PDCKeys.HARVEST_HOE_CROPS},
+                new NamespacedKey[0],
+                (player, hoe) -> updateHoeLore(hoe));
     }
 
     @EventHandler(priority = EventPriority.HIGH, ignoreCancelled = true)
@@ -123,7 +132,9 @@ public class HarvestHoeListener implements Listener {
         boolean isUpgraded = isUpgradedHoe(heldItem);
 
         // Calculate efficiency bonus for 5x5 radius chance (or 7x7 if upgraded)
-        double efficiency = calculateEfficiencyBonus(heldItem);
+        long crops = statAccumulator.get(player, CustomItemType.HARVEST_HOE,
+                player.getInventory().getHeldItemSlot(), heldItem).getLong(0);
+        double efficiency = calculateEfficiencyBonus(crops);
         boolean expanded = efficiency > 0 && Math.random() * 100 < efficiency;
 
         // Upgraded hoe: base upgraded radius, expanded +1. Normal: base config radius, expanded +1
@@ -347,29 +358,20 @@ public class HarvestHoeListener implements Listener {
     // ==================== INNATE STAT TRACKER ====================
 
     /**
-     * Update crop stats on the Harvest Hoe and check for milestones.
+     * Add to the Harvest Hoe's crop count and check for milestones.
+     * Stats are written to the item by the accumulator.
      */
     private void updateCropStats(ItemStack hoe, int cropsHarvested, Player player) {
         if (hoe == null || !hoe.hasItemMeta()) {
             return;
         }
 
-        ItemMeta meta = hoe.getItemMeta();
-        PersistentDataContainer pdc = meta.getPersistentDataContainer();
-
-        // Get current value
-        long currentValue = pdc.getOrDefault(PDCKeys.HARVEST_HOE_CROPS, PersistentDataType.LONG, 0L);
-        long newValue = currentValue + cropsHarvested;
-
-        // Update value
-        pdc.set(PDCKeys.HARVEST_HOE_CROPS, PersistentDataType.LONG, newValue);
-        hoe.setItemMeta(meta);
+        int slot = player.getInventory().getHeldItemSlot();
+        StatAccumulator.Stats stats = statAccumulator.get(player, CustomItemType.HARVEST_HOE, slot, hoe);
+        long newValue = stats.addLong(0, cropsHarvested);
 
         // Check for milestone
-        checkMilestone(player, currentValue, newValue);
-
-        // Update lore
-        updateHoeLore(hoe);
+        checkMilestone(player, newValue - cropsHarvested, newValue);
     }
 
     /**
@@ -400,15 +402,7 @@ public class HarvestHoeListener implements Listener {
     /**
      * Calculate total efficiency bonus from milestones reached.
      */
-    private double calculateEfficiencyBonus(ItemStack hoe) {
-        if (hoe == null || !hoe.hasItemMeta()) {
-            return 0.0;
-        }
-
-        ItemMeta meta = hoe.getItemMeta();
-        PersistentDataContainer pdc = meta.getPersistentDataContainer();
-        long crops = pdc.getOrDefault(PDCKeys.HARVEST_HOE_CROPS, PersistentDataType.LONG, 0L);
-
+    private double calculateEfficiencyBonus(long crops) {
         List<Long> thresholds = config.getHarvestHoeMilestoneThresholds();
         List<Double> bonuses = config.getHarvestHoeMilestoneBonuses();
         double totalBonus = 0.0;
@@ -432,7 +426,7 @@ public class HarvestHoeListener implements Listener {
         ItemMeta meta = hoe.getItemMeta();
         PersistentDataContainer pdc = meta.getPersistentDataContainer();
         long crops = pdc.getOrDefault(PDCKeys.HARVEST_HOE_CROPS, PersistentDataType.LONG, 0L);
-        double efficiency = calculateEfficiencyBonus(hoe);
+        double efficiency = calculateEfficiencyBonus(crops);
         boolean upgraded = pdc.has(PDCKeys.HARVEST_HOE_UPGRADED, PersistentDataType.BOOLEAN);
 
         // Build fresh lore
@@ -551,6 +545,7 @@ public class HarvestHoeListener implements Listener {
             if (newDamage >= maxDurability - 1) {
                 // Upgrade the hoe!
                 Bukkit.getScheduler().runTask(plugin, () -> {
+                    statAccumulator.flush(event.getPlayer(), CustomItemType.HARVEST_HOE);
                     upgradeHoe(item, event.getPlayer());
                     event.getPlayer().getInventory().setItemInMainHand(item);
                 });
@@ -623,8 +618,7 @@ public class HarvestHoeListener implements Listener {
         if (hoe == null || !hoe.hasItemMeta()) {
             return false;
         }
-        return hoe.getItemMeta().getPersistentDataContainer()
-                .has(PDCKeys.HARVEST_HOE_UPGRADED, PersistentDataType.BOOLEAN);
+        return ItemData.has(hoe, PDCKeys.HARVEST_HOE_UPGRADED);
     }
 
     /**
@@ -4,6 +4,8 @@ import com.overworldcraterewards.OverworldCrateRewardsPlugin;
 import com.overworldcraterewards.config.ConfigManager;
 import com.overworldcraterewards.data.PDCKeys;
 import com.overworldcraterewards.items.CustomItemType;
+import com.overworldcraterewards.items.ItemData;
+import com.overworldcraterewards.items.StatAccumulator;
 import com.overworldcraterewards.util.InventoryUtil;
 import com.overworldcraterewards.util.MessageUtil;
 import net.kyori.adventure.text.Component;
@@ -11,6 +13,7 @@ import net.kyori.adventure.text.format.NamedTextColor;
 import net.kyori.adventure.text.format.TextColor;
 import net.kyori.adventure.text.format.TextDecoration;
 import org.bukkit.Material;
+import org.bukkit.NamespacedKey;
 import org.bukkit.Particle;
 import org.bukkit.Sound;
 import org.bukkit.entity.Player;
@@ -44,10 +47,16 @@ public class JackoHammerListener implements Listener {
 
     private final OverworldCrateRewardsPlugin plugin;
     private final ConfigManager config;
+    private final StatAccumulator statAccumulator;
 
     public JackoHammerListener(OverworldCrateRewardsPlugin plugin) {
         this.plugin = plugin;
         this.config = plugin.getConfigManager();
+        this.statAccumulator = plugin.getStatAccumulator();
+        statAccumulator.register(CustomItemType.JACKO_HAMMER,
+                new NamespacedKey[]{PDCKeys.JACKO_HAMMER_PUMPKINS},
+                new NamespacedKey[0],
+                (player, hammer) -> updateHammerLore(hammer));
     }
 
     /**
@@ -135,32 +144,25 @@ public class JackoHammerListener implements Listener {
     }
 
     /**
-     * Update hammer stats in PDC and check for upgrade threshold.
+     * Add to the hammer's stats and check for upgrade threshold.
+     * Stats are written to the item by the accumulator.
      */
     private void updateHammerStats(Player player, ItemStack hammer) {
         if (hammer == null || !hammer.hasItemMeta()) {
             return;
         }
 
-        ItemMeta meta = hammer.getItemMeta();
-        PersistentDataContainer pdc = meta.getPersistentDataContainer();
-
-        long currentPumpkins = pdc.getOrDefault(PDCKeys.JACKO_HAMMER_PUMPKINS, PersistentDataType.LONG, 0L);
-        long newPumpkins = currentPumpkins + 1;
-
-        pdc.set(PDCKeys.JACKO_HAMMER_PUMPKINS, PersistentDataType.LONG, newPumpkins);
-        hammer.setItemMeta(meta);
+        int slot = player.getInventory().getHeldItemSlot();
+        StatAccumulator.Stats stats = statAccumulator.get(player, CustomItemType.JACKO_HAMMER, slot, hammer);
+        long newPumpkins = stats.addLong(0, 1);
 
         // Check for upgrade
         if (!isUpgradedHammer(hammer) && newPumpkins >= config.getJackoHammerUpgradeThreshold()) {
+            statAccumulator.flush(player, CustomItemType.JACKO_HAMMER);
             upgradeHammer(hammer, player);
+            updateHammerLore(hammer);
+            player.getInventory().setItemInMainHand(hammer);
         }
-
-        // Update lore
-        updateHammerLore(hammer);
-
-        // Update item in hand
-        player.getInventory().setItemInMainHand(hammer);
     }
 
     /**
@@ -170,8 +172,7 @@ public class JackoHammerListener implements Listener {
         if (hammer == null || !hammer.hasItemMeta()) {
             return false;
         }
-        return hammer.getItemMeta().getPersistentDataContainer()
-                .has(PDCKeys.JACKO_HAMMER_UPGRADED, PersistentDataType.BOOLEAN);
+        return ItemData.has(hammer, PDCKeys.JACKO_HAMMER_UPGRADED);
     }
 
     /**
@@ -5,6 +5,8 @@ import com.overworldcraterewards.config.ConfigManager;
 import com.overworldcraterewards.data.PDCKeys;
 import com.overworldcraterewards.economy.EconomyManager;
 import com.overworldcraterewards.items.CustomItemType;
+import com.overworldcraterewards.items.ItemData;
+import com.overworldcraterewards.items.StatAccumulator;
 import com.overworldcraterewards.util.InventoryUtil;
 import com.overworldcraterewards.util.MessageUtil;
 import net.kyori.adventure.text.Component;
@@ -12,6 +14,7 @@ import net.kyori.adventure.text.format.NamedTextColor;
 import net.kyori.adventure.text.format.TextColor;
 import net.kyori.adventure.text.format.TextDecoration;
 import org.bukkit.Material;
+import org.bukkit.NamespacedKey;
 import org.bukkit.Particle;
 import org.bukkit.Sound;
 import org.bukkit.entity.Player;
@@ -45,6 +48,7 @@ public class LumberjacksMarkListener implements Listener {
 
     private final OverworldCrateRewardsPlugin plugin;
     private final ConfigManager config;
+    private final StatAccumulator statAccumulator;
     private final EconomyManager economy;
 
     // Log → Stripped Log mapping (built safely to handle missing materials on older versions)
@@ -92,6 +96,11 @@ public class LumberjacksMarkListener implements Listener {
         this.plugin = plugin;
         this.config = plugin.getConfigManager();
         this.economy = plugin.getEconomyManager();
+        this.statAccumulator = plugin.getStatAccumulator();
+        statAccumulator.register(CustomItemType.LUMBERJACKS_MARK,
+                new NamespacedKey[]{PDCKeys.LUMBERJACKS_MARK_BONUS_LOGS},
+                new NamespacedKey[]{PDCKeys.LUMBERJACKS_MARK_EARNED},
+                (player, mark) -> updateMarkLore(mark));
         plugin.getLogger().info("Lumberjack's Mark listener loaded with " + LOG_TO_STRIPPED.size() + " log types.");
     }
 
@@ -179,58 +188,40 @@ public class LumberjacksMarkListener implements Listener {
         if (mark == null || !mark.hasItemMeta()) {
             return false;
         }
-        return mark.getItemMeta().getPersistentDataContainer()
-                .has(PDCKeys.LUMBERJACKS_MARK_UPGRADED, PersistentDataType.BOOLEAN);
+        return ItemData.has(mark, PDCKeys.LUMBERJACKS_MARK_UPGRADED);
     }
 
     /**
-     * Update mark stats in PDC and check for upgrade threshold.
+     * Add to the mark's stats and check for upgrade threshold.
+     * Stats are written to the item by the accumulator.
      */
     private void updateMarkStats(Player player, ItemStack mark, double earned) {
         if (mark == null || !mark.hasItemMeta()) {
             return;
         }
 
-        ItemMeta meta = mark.getItemMeta();
-        PersistentDataContainer pdc = meta.getPersistentDataContainer();
-
-        long currentLogs = pdc.getOrDefault(PDCKeys.LUMBERJACKS_MARK_BONUS_LOGS, PersistentDataType.LONG, 0L);
-        double currentEarned = pdc.getOrDefault(PDCKeys.LUMBERJACKS_MARK_EARNED, PersistentDataType.DOUBLE, 0.0);
-
-        long newLogs = currentLogs + 1;
-        double newEarned = currentEarned + earned;
-
-        pdc.set(PDCKeys.LUMBERJACKS_MARK_BONUS_LOGS, PersistentDataType.LONG, newLogs);
-        pdc.set(PDCKeys.LUMBERJACKS_MARK_EARNED, PersistentDataType.DOUBLE, newEarned);
-        mark.setItemMeta(meta);
+        int slot = InventoryUtil.findItemSlot(player, CustomItemType.LUMBERJACKS_MARK);
+        if (slot < 0) {
+            return;
+        }
+        StatAccumulator.Stats stats = statAccumulator.get(player, CustomItemType.LUMBERJACKS_MARK, slot, mark);
+        long newLogs = stats.addLong(0, 1);
+        stats.addDouble(0, earned);
 
         // Check for upgrade
         if (!isUpgradedMark(mark) && newLogs >= config.getLumberjacksMarkUpgradeThreshold()) {
+            statAccumulator.flush(player, CustomItemType.LUMBERJACKS_MARK);
             upgradeMark(mark, player);
+            updateMarkLore(mark);
+            updateMarkInInventory(player, mark);
         }
-
-        // Update lore
-        updateMarkLore(mark);
-
-        // Update item in inventory
-        updateMarkInInventory(player, mark);
     }
 
     /**
      * Find and update the mark in the player's inventory.
      */
     private void updateMarkInInventory(Player player, ItemStack updatedMark) {
-        for (int i = 0; i < player.getInventory().getSize(); i++) {
-            ItemStack item = player.getInventory().getItem(i);
-            if (InventoryUtil.isCustomItem(item, CustomItemType.LUMBERJACKS_MARK)) {
-                player.getInventory().setItem(i, updatedMark);
-                return;
-            }
-        }
-
-        if (InventoryUtil.isCustomItem(player.getInventory().getItemInOffHand(), CustomItemType.LUMBERJACKS_MARK)) {
-            player.getInventory().setItemInOffHand(updatedMark);
-        }
+        InventoryUtil.replaceItemInInventory(player, CustomItemType.LUMBERJACKS_MARK, updatedMark);
     }
 
     /**
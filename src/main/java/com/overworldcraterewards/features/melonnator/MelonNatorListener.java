@@ -4,6 +4,8 @@ import com.overworldcraterewards.OverworldCrateRewardsPlugin;
 import com.overworldcraterewards.config.ConfigManager;
 import com.overworldcraterewards.data.PDCKeys;
 import com.overworldcraterewards.items.CustomItemType;
+import com.overworldcraterewards.items.ItemData;
+import com.overworldcraterewards.items.StatAccumulator;
 import com.overworldcraterewards.util.InventoryUtil;
 import com.overworldcraterewards.util.MessageUtil;
 import net.kyori.adventure.text.Component;
@@ -11,6 +13,7 @@ import net.kyori.adventure.text.format.NamedTextColor;
 import net.kyori.adventure.text.format.TextColor;
 import net.kyori.adventure.text.format.TextDecoration;
 import org.bukkit.Material;
+import org.bukkit.NamespacedKey;
 import org.bukkit.Particle;
 import org.bukkit.Sound;
 import org.bukkit.entity.Player;
@@ -32,6 +35,7 @@ import org.bukkit.util.Vector;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.DoubleSupplier;
 
 /**
  * Handles the Melon-nator tool that instantly breaks melons
@@ -50,10 +54,23 @@ public class MelonNatorListener implements Listener {
 
     private final OverworldCrateRewardsPlugin plugin;
     private final ConfigManager config;
+    private final StatAccumulator statAccumulator;
+
+    // Stat indexes in the accumulator
+    private static final int MELONS = 0;
+    private static final int GROWTH_LEVEL = 1;
+    private static final int GROWTH_CHANCE = 0;
+    private static final int GLISTERING_CHANCE = 1;
 
     public MelonNatorListener(OverworldCrateRewardsPlugin plugin) {
         this.plugin = plugin;
         this.config = plugin.getConfigManager();
+        this.statAccumulator = plugin.getStatAccumulator();
+        statAccumulator.register(CustomItemType.MELON_NATOR,
+                new NamespacedKey[]{PDCKeys.MELON_NATOR_MELONS, PDCKeys.MELON_NATOR_GROWTH_LEVEL},
+                new NamespacedKey[]{PDCKeys.MELON_NATOR_GROWTH_CHANCE, PDCKeys.MELON_NATOR_GLISTERING_CHANCE},
+                new DoubleSupplier[]{null, config::getMelonNatorBaseGlisteringChance},
+                (player, item) -> updateLore(item));
     }
 
     /**
@@ -89,19 +106,16 @@ public class MelonNatorListener implements Listener {
             return;
         }
 
-        ItemMeta meta = melonNator.getItemMeta();
-        PersistentDataContainer pdc = meta.getPersistentDataContainer();
-
         boolean upgraded = isUpgraded(melonNator);
 
-        // Read current values
-        long melonsMined = pdc.getOrDefault(PDCKeys.MELON_NATOR_MELONS, PersistentDataType.LONG, 0L);
-        double growthChance = pdc.getOrDefault(PDCKeys.MELON_NATOR_GROWTH_CHANCE, PersistentDataType.DOUBLE, 0.0);
-        double glisteringChance = pdc.getOrDefault(PDCKeys.MELON_NATOR_GLISTERING_CHANCE, PersistentDataType.DOUBLE,
-                config.getMelonNatorBaseGlisteringChance());
-        long growthLevel = pdc.getOrDefault(PDCKeys.MELON_NATOR_GROWTH_LEVEL, PersistentDataType.LONG, 0L);
+        // Current values, written back to the item by the accumulator
+        int slot = player.getInventory().getHeldItemSlot();
+        StatAccumulator.Stats stats = statAccumulator.get(player, CustomItemType.MELON_NATOR, slot, melonNator);
+        double growthChance = stats.getDouble(GROWTH_CHANCE);
+        double glisteringChance = stats.getDouble(GLISTERING_CHANCE);
+        long growthLevel = stats.getLong(GROWTH_LEVEL);
 
-        melonsMined++;
+        stats.addLong(MELONS, 1);
 
         // Increment growth chance
         double increment = config.getMelonNatorGrowthIncrement();
@@ -137,11 +151,8 @@ public class MelonNatorListener implements Listener {
             // Check for first growth trigger = upgrade
             if (!upgraded && growthLevel == 1) {
                 // Save current state first
-                pdc.set(PDCKeys.MELON_NATOR_MELONS, PersistentDataType.LONG, melonsMined);
-                pdc.set(PDCKeys.MELON_NATOR_GROWTH_CHANCE, PersistentDataType.DOUBLE, growthChance);
-                pdc.set(PDCKeys.MELON_NATOR_GLISTERING_CHANCE, PersistentDataType.DOUBLE, glisteringChance);
-                pdc.set(PDCKeys.MELON_NATOR_GROWTH_LEVEL, PersistentDataType.LONG, growthLevel);
-                melonNator.setItemMeta(meta);
+                saveStats(stats, growthChance, glisteringChance, growthLevel);
+                statAccumulator.flush(player, CustomItemType.MELON_NATOR);
 
                 upgradeMelonNator(melonNator, player);
                 updateLore(melonNator);
@@ -201,16 +212,15 @@ public class MelonNatorListener implements Listener {
             player.playSound(event.getBlock().getLocation(), Sound.ENTITY_SLIME_SQUISH, 0.6f, 1.2f);
         }
 
-        // Save all stats
-        pdc.set(PDCKeys.MELON_NATOR_MELONS, PersistentDataType.LONG, melonsMined);
-        pdc.set(PDCKeys.MELON_NATOR_GROWTH_CHANCE, PersistentDataType.DOUBLE, growthChance);
-        pdc.set(PDCKeys.MELON_NATOR_GLISTERING_CHANCE, PersistentDataType.DOUBLE, glisteringChance);
-        pdc.set(PDCKeys.MELON_NATOR_GROWTH_LEVEL, PersistentDataType.LONG, growthLevel);
-        melonNator.setItemMeta(meta);
+        // Save all stats (lore is refreshed when they are flushed)
+        saveStats(stats, growthChance, glisteringChance, growthLevel);
+    }
 
-        // Update lore and hand
-        updateLore(melonNator);
-        player.getInventory().setItemInMainHand(melonNator);
+    private static void saveStats(StatAccumulator.Stats stats, double growthChance, double glisteringChance,
+                                  long growthLevel) {
+        stats.setDouble(GROWTH_CHANCE, growthChance);
+        stats.setDouble(GLISTERING_CHANCE, glisteringChance);
+        stats.setLong(GROWTH_LEVEL, growthLevel);
     }
 
     /**
@@ -220,8 +230,7 @@ public class MelonNatorListener implements Listener {
         if (item == null || !item.hasItemMeta()) {
             return false;
         }
-        return item.getItemMeta().getPersistentDataContainer()
-                .has(PDCKeys.MELON_NATOR_UPGRADED, PersistentDataType.BOOLEAN);
+        return ItemData.has(item, PDCKeys.MELON_NATOR_UPGRADED);
     }
 
     /**
@@ -6,6 +6,8 @@ import com.overworldcraterewards.data.PDCKeys;
 import com.overworldcraterewards.economy.EconomyManager;
 import com.overworldcraterewards.hooks.EconomyShopGUIHook;
 import com.overworldcraterewards.items.CustomItemType;
+import com.overworldcraterewards.items.ItemData;
+import com.overworldcraterewards.items.StatAccumulator;
 import com.overworldcraterewards.util.InventoryUtil;
 import com.overworldcraterewards.util.MessageUtil;
 import net.kyori.adventure.text.Component;
@@ -59,6 +61,7 @@ public class MinersFervorListener implements Listener {
 
     private final OverworldCrateRewardsPlugin plugin;
     private final ConfigManager config;
+    private final StatAccumulator statAccumulator;
     private final EconomyManager economy;
 
     // Session-based streak tracking (per player UUID)
@@ -75,6 +78,14 @@ public class MinersFervorListener implements Listener {
         this.config = plugin.getConfigManager();
         this.economy = plugin.getEconomyManager();
         this.miningSpeedKey = new NamespacedKey(plugin, "miners_fervor_speed");
+        this.statAccumulator = plugin.getStatAccumulator();
+        statAccumulator.register(CustomItemType.MINERS_FERVOR,
+                new NamespacedKey[]{PDCKeys.MINERS_FERVOR_BLOCKS, PDCKeys.MINERS_FERVOR_PEAK_STREAK},
+                new NamespacedKey[]{PDCKeys.MINERS_FERVOR_EARNED},
+                (player, fervor) -> {
+                    StreakData streak = playerStreaks.get(player.getUniqueId());
+                    updateFervorLore(fervor, streak != null ? streak.currentStreak : 0);
+                });
     }
 
     // ==================== BLOCK BREAK HANDLING ====================
@@ -368,43 +379,31 @@ public class MinersFervorListener implements Listener {
     // ==================== STAT TRACKING ====================
 
     /**
-     * Update Miner's Fervor stats in PDC and check for upgrade threshold.
+     * Add to Miner's Fervor stats and check for upgrade threshold.
+     * Stats are written to the item by the accumulator.
      */
     private void updateFervorStats(Player player, ItemStack fervor, double earned, long currentStreak) {
         if (fervor == null || !fervor.hasItemMeta()) {
             return;
         }
 
-        ItemMeta meta = fervor.getItemMeta();
-        PersistentDataContainer pdc = meta.getPersistentDataContainer();
-
-        // Update blocks mined
-        long blocks = pdc.getOrDefault(PDCKeys.MINERS_FERVOR_BLOCKS, PersistentDataType.LONG, 0L);
-        pdc.set(PDCKeys.MINERS_FERVOR_BLOCKS, PersistentDataType.LONG, blocks + 1);
-
-        // Update earned
-        double totalEarned = pdc.getOrDefault(PDCKeys.MINERS_FERVOR_EARNED, PersistentDataType.DOUBLE, 0.0);
-        pdc.set(PDCKeys.MINERS_FERVOR_EARNED, PersistentDataType.DOUBLE, totalEarned + earned);
+        int slot = player.getInventory().getHeldItemSlot();
+        StatAccumulator.Stats stats = statAccumulator.get(player, CustomItemType.MINERS_FERVOR, slot, fervor);
 
-        // Update peak streak if necessary
-        long peakStreak = pdc.getOrDefault(PDCKeys.MINERS_FERVOR_PEAK_STREAK, PersistentDataType.LONG, 0L);
-        if (currentStreak > peakStreak) {
-            pdc.set(PDCKeys.MINERS_FERVOR_PEAK_STREAK, PersistentDataType.LONG, currentStreak);
-            peakStreak = currentStreak;
+        // Blocks mined, earned, and peak streak if exceeded
+        stats.addLong(0, 1);
+        stats.addDouble(0, earned);
+        if (currentStreak > stats.getLong(1)) {
+            stats.setLong(1, currentStreak);
         }
 
-        fervor.setItemMeta(meta);
-
         // Check for upgrade
-        if (!isUpgradedFervor(fervor) && peakStreak >= config.getMinersFervorUpgradeThreshold()) {
+        if (!isUpgradedFervor(fervor) && stats.getLong(1) >= config.getMinersFervorUpgradeThreshold()) {
+            statAccumulator.flush(player, CustomItemType.MINERS_FERVOR);
             upgradeFervor(fervor, player);
+            updateFervorLore(fervor, currentStreak);
+            player.getInventory().setItemInMainHand(fervor);
         }
-
-        // Update lore
-        updateFervorLore(fervor, currentStreak);
-
-        // Update in inventory
-        player.getInventory().setItemInMainHand(fervor);
     }
 
     /**
@@ -414,8 +413,7 @@ public class MinersFervorListener implements Listener {
         if (fervor == null || !fervor.hasItemMeta()) {
             return false;
         }
-        return fervor.getItemMeta().getPersistentDataContainer()
-                .has(PDCKeys.MINERS_FERVOR_UPGRADED, PersistentDataType.BOOLEAN);
+        return ItemData.has(fervor, PDCKeys.MINERS_FERVOR_UPGRADED);
     }
 
     // ==================== UPGRADE (EASTER EGG) ====================
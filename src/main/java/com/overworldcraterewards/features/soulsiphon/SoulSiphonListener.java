@@ -6,6 +6,8 @@ import com.overworldcraterewards.data.PDCKeys;
 import com.overworldcraterewards.economy.EconomyManager;
 import com.overworldcraterewards.hooks.RoseStackerHook;
 import com.overworldcraterewards.items.CustomItemType;
+import com.overworldcraterewards.items.ItemData;
+import com.overworldcraterewards.items.StatAccumulator;
 import com.overworldcraterewards.util.InventoryUtil;
 import com.overworldcraterewards.util.MessageUtil;
 import net.kyori.adventure.text.Component;
@@ -13,6 +15,7 @@ import net.kyori.adventure.text.format.NamedTextColor;
 import net.kyori.adventure.text.format.TextColor;
 import net.kyori.adventure.text.format.TextDecoration;
 import org.bukkit.Bukkit;
+import org.bukkit.NamespacedKey;
 import org.bukkit.Particle;
 import org.bukkit.Sound;
 import org.bukkit.entity.Entity;
@@ -50,6 +53,7 @@ public class SoulSiphonListener implements Listener {
 
     private final OverworldCrateRewardsPlugin plugin;
     private final ConfigManager config;
+    private final StatAccumulator statAccumulator;
     private final EconomyManager economy;
 
     // Multi-kill aggregation: tracks pending kills per player
@@ -59,6 +63,11 @@ public class SoulSiphonListener implements Listener {
         this.plugin = plugin;
         this.config = plugin.getConfigManager();
         this.economy = plugin.getEconomyManager();
+        this.statAccumulator = plugin.getStatAccumulator();
+        statAccumulator.register(CustomItemType.SOUL_SIPHON,
+                new NamespacedKey[]{PDCKeys.SOUL_SIPHON_KILLS},
+                new NamespacedKey[]{PDCKeys.SOUL_SIPHON_EARNED},
+                (player, siphon) -> updateSiphonLore(siphon));
     }
 
     @EventHandler(priority = EventPriority.NORMAL, ignoreCancelled = true)
@@ -187,57 +196,36 @@ public class SoulSiphonListener implements Listener {
     }
 
     /**
-     * Update siphon stats in PDC and check for upgrade threshold.
+     * Add to the siphon's stats and check for upgrade threshold.
+     * Stats are written to the item by the accumulator.
      */
     private void updateSiphonStats(Player player, ItemStack siphon, int kills, double earned) {
         if (siphon == null || !siphon.hasItemMeta()) {
             return;
         }
 
-        ItemMeta meta = siphon.getItemMeta();
-        PersistentDataContainer pdc = meta.getPersistentDataContainer();
-
-        // Get current values
-        long currentKills = pdc.getOrDefault(PDCKeys.SOUL_SIPHON_KILLS, PersistentDataType.LONG, 0L);
-        double currentEarned = pdc.getOrDefault(PDCKeys.SOUL_SIPHON_EARNED, PersistentDataType.DOUBLE, 0.0);
-
-        // Update values
-        long newKills = currentKills + kills;
-        double newEarned = currentEarned + earned;
-
-        pdc.set(PDCKeys.SOUL_SIPHON_KILLS, PersistentDataType.LONG, newKills);
-        pdc.set(PDCKeys.SOUL_SIPHON_EARNED, PersistentDataType.DOUBLE, newEarned);
-        siphon.setItemMeta(meta);
+        int slot = InventoryUtil.findItemSlot(player, CustomItemType.SOUL_SIPHON);
+        if (slot < 0) {
+            return;
+        }
+        StatAccumulator.Stats stats = statAccumulator.get(player, CustomItemType.SOUL_SIPHON, slot, siphon);
+        long newKills = stats.addLong(0, kills);
+        stats.addDouble(0, earned);
 
         // Check for upgrade
         if (!isUpgradedSiphon(siphon) && newKills >= config.getSoulSiphonUpgradeThreshold()) {
+            statAccumulator.flush(player, CustomItemType.SOUL_SIPHON);
             upgradeSiphon(siphon, player);
+            updateSiphonLore(siphon);
+            updateSiphonInInventory(player, siphon);
         }
-
-        // Update lore
-        updateSiphonLore(siphon);
-
-        // Update item in inventory
-        updateSiphonInInventory(player, siphon);
     }
 
     /**
      * Find and update the siphon in the player's inventory.
      */
     private void updateSiphonInInventory(Player player, ItemStack updatedSiphon) {
-        // Check main inventory
-        for (int i = 0; i < player.getInventory().getSize(); i++) {
-            ItemStack item = player.getInventory().getItem(i);
-            if (InventoryUtil.isCustomItem(item, CustomItemType.SOUL_SIPHON)) {
-                player.getInventory().setItem(i, updatedSiphon);
-                return;
-            }
-        }
-
-        // Check off-hand
-        if (InventoryUtil.isCustomItem(player.getInventory().getItemInOffHand(), CustomItemType.SOUL_SIPHON)) {
-            player.getInventory().setItemInOffHand(updatedSiphon);
-        }
+        InventoryUtil.replaceItemInInventory(player, CustomItemType.SOUL_SIPHON, updatedSiphon);
     }
 
     /**
@@ -349,8 +337,7 @@ public class SoulSiphonListener implements Listener {
         if (siphon == null || !siphon.hasItemMeta()) {
             return false;
         }
-        return siphon.getItemMeta().getPersistentDataContainer()
-                .has(PDCKeys.SOUL_SIPHON_UPGRADED, PersistentDataType.BOOLEAN);
+        return ItemData.has(siphon, PDCKeys.SOUL_SIPHON_UPGRADED);
     }
 
     /**
@@ -0,0 +1,143 @@
+package com.overworldcraterewards.features.vacuumhopper;
+
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import org.bukkit.Chunk;
+import org.bukkit.World;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Spatial index of hopper catchment areas.
+ *
+ * Every hopper is listed under each chunk its vacuum box overlaps, so an item
+ * spawn only has to look at the hoppers registered for the item's chunk to
+ * find the hopper that owns it.
+ */
+public class CatchmentIndex {
+
+    // World name -> (chunk key -> hoppers whose catchment overlaps the chunk)
+    private final Map<String, Long2ObjectMap<List<VacuumHopperManager.HopperData>>> worlds = new HashMap<>();
+
+    private int radius;
+
+    public CatchmentIndex(int radius) {
+        this.radius = radius;
+    }
+
+    public void add(VacuumHopperManager.HopperData data) {
+        Long2ObjectMap<List<VacuumHopperManager.HopperData>> chunks =
+                worlds.computeIfAbsent(data.getWorldName(), k -> new Long2ObjectOpenHashMap<>());
+
+        for (int cx = minChunkX(data); cx <= maxChunkX(data); cx++) {
+            for (int cz = minChunkZ(data); cz <= maxChunkZ(data); cz++) {
+                long chunkKey = Chunk.getChunkKey(cx, cz);
+                List<VacuumHopperManager.HopperData> list = chunks.get(chunkKey);
+                if (list == null) {
+                    list = new ArrayList<>(2);
+                    chunks.put(chunkKey, list);
+                }
+                list.add(data);
+            }
+        }
+    }
+
+    public void remove(VacuumHopperManager.HopperData data) {
+        Long2ObjectMap<List<VacuumHopperManager.HopperData>> chunks = worlds.get(data.getWorldName());
+        if (chunks == null) return;
+
+        for (int cx = minChunkX(data); cx <= maxChunkX(data); cx++) {
+            for (int cz = minChunkZ(data); cz <= maxChunkZ(data); cz++) {
+                long chunkKey = Chunk.getChunkKey(cx, cz);
+                List<VacuumHopperManager.HopperData> list = chunks.get(chunkKey);
+                if (list == null) continue;
+                list.remove(data);
+                if (list.isEmpty()) {
+                    chunks.remove(chunkKey);
+                }
+            }
+        }
+    }
+
+    /**
+     * Re-index every hopper, e.g. after the vacuum radius changed on reload.
+     */
+    public void rebuild(HopperRegistry registry, int radius) {
+        this.radius = radius;
+        worlds.clear();
+        registry.forEach(this::add);
+    }
+
+    /**
+     * Hoppers whose catchment overlaps a chunk, loaded or not.
+     * @return The hoppers, or null if none
+     */
+    public List<VacuumHopperManager.HopperData> getHoppersInChunk(String worldName, long chunkKey) {
+        Long2ObjectMap<List<VacuumHopperManager.HopperData>> chunks = worlds.get(worldName);
+        return chunks != null ? chunks.get(chunkKey) : null;
+    }
+
+    /**
+     * Find the hopper that should catch something at the given position:
+     * the nearest loaded hopper whose vacuum box contains it.
+     * @return The owning hopper, or null if no catchment covers the position
+     */
+    public VacuumHopperManager.HopperData findOwner(World world, double x, double y, double z) {
+        Long2ObjectMap<List<VacuumHopperManager.HopperData>> chunks = worlds.get(world.getName());
+        if (chunks == null) return null;
+
+        List<VacuumHopperManager.HopperData> candidates =
+                chunks.get(Chunk.getChunkKey((int) Math.floor(x) >> 4, (int) Math.floor(z) >> 4));
+        if (candidates == null) return null;
+
+        VacuumHopperManager.HopperData owner = null;
+        double bestDistSq = Double.MAX_VALUE;
+        for (VacuumHopperManager.HopperData data : candidates) {
+            if (!contains(data, x, y, z)) continue;
+            if (!world.isChunkLoaded(data.getX() >> 4, data.getZ() >> 4)) continue;
+
+            double dx = data.getX() + 0.5 - x;
+            double dy = data.getY() + 0.5 - y;
+            double dz = data.getZ() + 0.5 - z;
+            double distSq = dx * dx + dy * dy + dz * dz;
+            if (distSq < bestDistSq) {
+                bestDistSq = distSq;
+                owner = data;
+            }
+        }
+        return owner;
+    }
+
+    /**
+     * Check whether a position lies inside a hopper's vacuum box
+     * (same box the original getNearbyEntities scan used).
+     */
+    public boolean contains(VacuumHopperManager.HopperData data, double x, double y, double z) {
+        return Math.abs(data.getX() + 0.5 - x) <= radius
+                && Math.abs(data.getY() + 0.5 - y) <= radius
+                && Math.abs(data.getZ() + 0.5 - z) <= radius;
+    }
+
+    public int getRadius() {
+        return radius;
+    }
+
+    private int minChunkX(VacuumHopperManager.HopperData data) {
+        return (int) Math.floor(data.getX() + 0.5 - radius) >> 4;
+    }
+
+    private int maxChunkX(VacuumHopperManager.HopperData data) {
+        return (int) Math.floor(data.getX() + 0.5 + radius) >> 4;
+    }
+
+    private int minChunkZ(VacuumHopperManager.HopperData data) {
+        return (int) Math.floor(data.getZ() + 0.5 - radius) >> 4;
+    }
+
+    private int maxChunkZ(VacuumHopperManager.HopperData data) {
+        return (int) Math.floor(data.getZ() + 0.5 + radius) >> 4;
+    }
+}
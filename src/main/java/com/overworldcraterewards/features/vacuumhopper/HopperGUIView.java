@@ -0,0 +1,93 @@
+package com.overworldcraterewards.features.vacuumhopper;
+
+import org.bukkit.entity.HumanEntity;
+import org.bukkit.inventory.Inventory;
+import org.bukkit.inventory.InventoryHolder;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+
+/**
+ * The GUI inventory of one hopper, shared by every player viewing it.
+ *
+ * Built once and kept by the manager; the filter area is only rebuilt when
+ * the hopper's filter or links change outside the GUI. The link item is
+ * take-only and put back every time the GUI is opened.
+ * Filter edits made in the GUI are applied to the hopper right away but
+ * persisted once, when the last viewer closes it.
+ */
+public class HopperGUIView implements InventoryHolder {
+
+    private final VacuumHopperManager.HopperData data;
+    private final Inventory inventory;
+
+    // Filter or links changed outside this GUI since it was built
+    private boolean stale = false;
+    // Filter edited in this GUI and not yet saved
+    private boolean unsaved = false;
+
+    HopperGUIView(VacuumHopperManager.HopperData data) {
+        this.data = data;
+        this.inventory = VacuumHopperGUI.createGUI(this, data);
+    }
+
+    @Override
+    public @NotNull Inventory getInventory() {
+        return inventory;
+    }
+
+    public VacuumHopperManager.HopperData getData() {
+        return data;
+    }
+
+    void markStale() {
+        stale = true;
+    }
+
+    public void markUnsaved() {
+        unsaved = true;
+    }
+
+    /**
+     * @return True if there were unsaved GUI edits; clears the flag
+     */
+    public boolean consumeUnsaved() {
+        boolean was = unsaved;
+        unsaved = false;
+        return was;
+    }
+
+    public boolean hasViewers() {
+        return !inventory.getViewers().isEmpty();
+    }
+
+    /**
+     * Bring the inventory up to date: a full rebuild if the hopper changed
+     * outside the GUI, otherwise only the info items.
+     */
+    public void refresh() {
+        if (stale) {
+            VacuumHopperGUI.populate(inventory, data);
+            stale = false;
+        } else {
+            VacuumHopperGUI.updateInfo(inventory, data);
+        }
+    }
+
+    /**
+     * Put the link item back in its slot, when the GUI is opened.
+     */
+    void restoreLinkItem() {
+        VacuumHopperGUI.restoreLinkItem(inventory, data);
+    }
+
+    /**
+     * Close the view for everyone, dropping unsaved edits (the hopper is gone).
+     */
+    void discard() {
+        unsaved = false;
+        for (HumanEntity viewer : new ArrayList<>(inventory.getViewers())) {
+            viewer.closeInventory();
+        }
+    }
+}
@@ -0,0 +1,419 @@
+package com.overworldcraterewards.features.vacuumhopper;
+
+import org.bukkit.configuration.ConfigurationSection;
+import org.bukkit.configuration.file.YamlConfiguration;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import java.util.logging.Logger;
+
+/**
+ * Journaled YAML storage for vacuum-hoppers.yml.
+ *
+ * Every change is appended to a small journal as one compact line instead of
+ * rewriting the whole file. The journal is periodically compacted into the
+ * YAML snapshot (written to a temp file and atomically renamed over the old
+ * one, keeping a few backup generations). All file I/O runs on a single
+ * background thread, fed with immutable records built on the main thread,
+ * so journal appends and compactions are applied in submission order.
+ *
+ * The I/O thread keeps no copy of the hoppers. A checkpoint writes the
+ * snapshot from the records the main thread hands over, plus the stored
+ * hoppers of worlds it has not loaded; those, world loads and a journal
+ * that outgrows its limit between checkpoints are read from disk when
+ * needed and dropped again.
+ */
+public class HopperJournal implements HopperStorage {
+
+    private static final String PUT = "P";
+    private static final String REMOVE = "R";
+    private static final String SEPARATOR = "|";
+    private static final String NO_OWNER = "-";
+
+    // Compact early once this many journal records have piled up
+    private static final int MAX_JOURNAL_RECORDS = 1000;
+
+    private final Logger logger;
+    private final File snapshotFile;
+    private final File journalFile;
+    private final int backupGenerations;
+
+    private final ExecutorService ioExecutor = Executors.newSingleThreadExecutor(r -> {
+        Thread thread = new Thread(r, "OCR-HopperIO");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    // Only touched on the I/O thread
+    private BufferedWriter journalWriter;
+    private int journalRecords = 0;
+    // Worlds with stored hoppers, or null until the files have been read
+    private Set<String> storedWorlds;
+
+    // Journal records not yet folded into the snapshot by a checkpoint; main thread only
+    private int unfolded;
+
+    public HopperJournal(Logger logger, File snapshotFile, int backupGenerations) {
+        this.logger = logger;
+        this.snapshotFile = snapshotFile;
+        this.journalFile = new File(snapshotFile.getParentFile(), snapshotFile.getName() + ".journal");
+        this.backupGenerations = backupGenerations;
+        // Left over from a crash: the next checkpoint folds it in even if nothing changes
+        this.unfolded = journalFile.length() > 0 ? 1 : 0;
+    }
+
+    // === Loading ===
+
+    @Override
+    public CompletableFuture<List<HopperRecord>> loadWorld(String worldName) {
+        return CompletableFuture.supplyAsync(() -> {
+            List<HopperRecord> result = new ArrayList<>();
+            for (HopperRecord record : loadStored().values()) {
+                if (record.worldName().equals(worldName)) {
+                    result.add(record);
+                }
+            }
+            return result;
+        }, ioExecutor);
+    }
+
+    @Override
+    public CompletableFuture<Set<String>> listWorlds() {
+        return CompletableFuture.supplyAsync(() -> {
+            return new LinkedHashSet<>(worldsOf(loadStored().values()));
+        }, ioExecutor);
+    }
+
+    /**
+     * Read the stored hoppers on the I/O thread, noting their worlds.
+     */
+    private Map<String, HopperRecord> loadStored() {
+        Map<String, HopperRecord> records = loadAll();
+        storedWorlds = worldsOf(records.values());
+        return records;
+    }
+
+    /**
+     * Read the snapshot and replay the journal on top of it. Every appended
+     * record is flushed, so this is the current state of the files.
+     * @return All hoppers keyed by "world:x:y:z", in file order
+     */
+    Map<String, HopperRecord> loadAll() {
+        Map<String, HopperRecord> records = readSnapshot(snapshotFile, logger);
+        if (!journalFile.exists()) return records;
+
+        int replayed = 0;
+        try (BufferedReader reader = Files.newBufferedReader(journalFile.toPath(), StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (applyLine(records, line)) {
+                    replayed++;
+                }
+            }
+        } catch (IOException e) {
+            logger.warning("Failed to read vacuum hopper journal: " + e.getMessage());
+        }
+        if (replayed > 0 && journalWriter == null) {
+            logger.info("Replayed " + replayed + " vacuum hopper journal records.");
+        }
+        journalRecords = replayed;
+        return records;
+    }
+
+    private static Set<String> worldsOf(Collection<HopperRecord> records) {
+        Set<String> worldNames = new LinkedHashSet<>();
+        for (HopperRecord record : records) {
+            worldNames.add(record.worldName());
+        }
+        return worldNames;
+    }
+
+    /**
+     * Read a vacuum-hoppers.yml snapshot without its journal.
+     */
+    static Map<String, HopperRecord> readSnapshot(File file, Logger logger) {
+        Map<String, HopperRecord> result = new LinkedHashMap<>();
+        if (!file.exists()) return result;
+
+        YamlConfiguration yaml = YamlConfiguration.loadConfiguration(file);
+        ConfigurationSection section = yaml.getConfigurationSection("hoppers");
+        if (section == null) return result;
+
+        for (String sectionKey : section.getKeys(false)) {
+            ConfigurationSection hopperSection = section.getConfigurationSection(sectionKey);
+            if (hopperSection == null) continue;
+
+            // Section keys are sanitized ("world_x_y_z"), the real key is stored alongside
+            HopperRecord record = readSection(hopperSection.getString("location", sectionKey), hopperSection);
+            if (record == null) {
+                logger.warning("Skipping vacuum hopper with invalid location: " + sectionKey);
+                continue;
+            }
+            result.put(record.key(), record);
+        }
+        return result;
+    }
+
+    private static HopperRecord readSection(String key, ConfigurationSection section) {
+        String[] parts = key.split(":");
+        if (parts.length != 4) return null;
+
+        try {
+            return new HopperRecord(parts[0],
+                    Integer.parseInt(parts[1]), Integer.parseInt(parts[2]), Integer.parseInt(parts[3]),
+                    section.getString("owner"),
+                    List.copyOf(section.getStringList("filter")),
+                    List.copyOf(section.getStringList("links")),
+                    section.getLong("items-collected", 0),
+                    section.getLong("items-voided", 0),
+                    List.copyOf(section.getStringList("buffer")));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Apply one journal line. Malformed lines (e.g. a torn final write) are skipped.
+     */
+    private static boolean applyLine(Map<String, HopperRecord> records, String line) {
+        String[] parts = line.split("\\|", -1);
+        try {
+            // Records written before the transfer buffer existed have 10 fields
+            if (parts[0].equals(PUT) && (parts.length == 10 || parts.length == 11)) {
+                HopperRecord record = new HopperRecord(parts[1],
+                        Integer.parseInt(parts[2]), Integer.parseInt(parts[3]), Integer.parseInt(parts[4]),
+                        parts[5].equals(NO_OWNER) ? null : parts[5],
+                        splitList(parts[6], ","),
+                        splitList(parts[7], ";"),
+                        Long.parseLong(parts[8]),
+                        Long.parseLong(parts[9]),
+                        parts.length == 11 ? splitList(parts[10], ",") : Collections.emptyList());
+                records.put(record.key(), record);
+                return true;
+            }
+            if (parts[0].equals(REMOVE) && parts.length == 2) {
+                records.remove(parts[1]);
+                return true;
+            }
+        } catch (NumberFormatException ignored) {}
+        return false;
+    }
+
+    static List<String> splitList(String joined, String separator) {
+        if (joined.isEmpty()) return Collections.emptyList();
+        return List.copyOf(Arrays.asList(joined.split(separator)));
+    }
+
+    // === Journal ===
+
+    @Override
+    public void save(HopperRecord record) {
+        String line = PUT + SEPARATOR + record.worldName()
+                + SEPARATOR + record.x() + SEPARATOR + record.y() + SEPARATOR + record.z()
+                + SEPARATOR + (record.owner() != null ? record.owner() : NO_OWNER)
+                + SEPARATOR + String.join(",", record.filter())
+                + SEPARATOR + String.join(";", record.links())
+                + SEPARATOR + record.itemsCollected()
+                + SEPARATOR + record.itemsVoided()
+                + SEPARATOR + String.join(",", record.buffer());
+        unfolded++;
+        ioExecutor.execute(() -> {
+            if (storedWorlds != null) {
+                storedWorlds.add(record.worldName());
+            }
+            append(line);
+        });
+    }
+
+    @Override
+    public void delete(String worldName, int x, int y, int z) {
+        String key = worldName + ":" + x + ":" + y + ":" + z;
+        unfolded++;
+        ioExecutor.execute(() -> append(REMOVE + SEPARATOR + key));
+    }
+
+    private void append(String line) {
+        try {
+            if (journalWriter == null) {
+                journalWriter = openJournal(true);
+            }
+            journalWriter.write(line);
+            journalWriter.newLine();
+            journalWriter.flush();
+        } catch (IOException e) {
+            logger.warning("Failed to append vacuum hopper journal: " + e.getMessage());
+        }
+
+        if (++journalRecords >= MAX_JOURNAL_RECORDS) {
+            // Too long to wait for the next checkpoint: fold the files as they are
+            writeSnapshot(loadStored().values());
+        }
+    }
+
+    // === Compaction ===
+
+    @Override
+    public void checkpoint(List<HopperRecord> changed, Supplier<Registered> registered) {
+        if (changed.isEmpty() && unfolded == 0) return;
+
+        // The main thread's hoppers include every change submitted so far
+        Registered current = registered.get();
+        unfolded = 0;
+        ioExecutor.execute(() -> {
+            Map<String, HopperRecord> all = new LinkedHashMap<>();
+            if (storedWorlds == null || !current.worlds().containsAll(storedWorlds)) {
+                // Hoppers of worlds the main thread has not loaded are only in the files
+                for (HopperRecord record : loadStored().values()) {
+                    if (!current.worlds().contains(record.worldName())) {
+                        all.put(record.key(), record);
+                    }
+                }
+            }
+            for (HopperRecord record : current.hoppers()) {
+                all.put(record.key(), record);
+            }
+            storedWorlds = worldsOf(all.values());
+            writeSnapshot(all.values());
+        });
+    }
+
+    @Override
+    public void close(List<HopperRecord> changed, Supplier<Registered> registered) {
+        checkpoint(changed, registered);
+        ioExecutor.shutdown();
+        try {
+            if (!ioExecutor.awaitTermination(30, TimeUnit.SECONDS)) {
+                logger.warning("Timed out waiting for vacuum hopper data to be written.");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void writeSnapshot(Collection<HopperRecord> records) {
+        YamlConfiguration yaml = toYaml(records);
+
+        File tempFile = new File(snapshotFile.getParentFile(), snapshotFile.getName() + ".tmp");
+        try {
+            // The data must be on disk before the rename is, or a power loss
+            // can leave an empty snapshot behind a truncated journal
+            try (FileOutputStream out = new FileOutputStream(tempFile)) {
+                out.write(yaml.saveToString().getBytes(StandardCharsets.UTF_8));
+                out.getChannel().force(true);
+            }
+            rotateBackups();
+            Files.move(tempFile.toPath(), snapshotFile.toPath(),
+                    StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            syncDirectory();
+
+            // Everything in the journal is now part of the snapshot
+            if (journalWriter != null) {
+                journalWriter.close();
+            }
+            journalWriter = openJournal(false);
+            journalRecords = 0;
+        } catch (IOException e) {
+            logger.warning("Failed to save vacuum hopper data: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Make the rename of the snapshot durable. Not supported on every
+     * platform (e.g. Windows), where it is skipped.
+     */
+    private void syncDirectory() {
+        try (FileChannel dir = FileChannel.open(snapshotFile.getParentFile().toPath(), StandardOpenOption.READ)) {
+            dir.force(true);
+        } catch (IOException | UnsupportedOperationException ignored) {
+            // Best effort
+        }
+    }
+
+    /**
+     * Add records to a snapshot-format file (e.g. the quarantine file),
+     * keeping the hoppers already in it.
+     * @return False if the file could not be written
+     */
+    static boolean appendRecords(File file, Collection<HopperRecord> added, Logger logger) {
+        Map<String, HopperRecord> all = readSnapshot(file, logger);
+        for (HopperRecord record : added) {
+            all.put(record.key(), record);
+        }
+        try {
+            toYaml(all.values()).save(file);
+            return true;
+        } catch (IOException e) {
+            logger.warning("Failed to write " + file.getName() + ": " + e.getMessage());
+            return false;
+        }
+    }
+
+    private static YamlConfiguration toYaml(Collection<HopperRecord> records) {
+        YamlConfiguration yaml = new YamlConfiguration();
+        for (HopperRecord record : records) {
+            String key = record.key();
+            String path = "hoppers." + key.replace(":", "_");
+
+            yaml.set(path + ".location", key);
+            if (record.owner() != null) {
+                yaml.set(path + ".owner", record.owner());
+            }
+            yaml.set(path + ".filter", new ArrayList<>(record.filter()));
+            yaml.set(path + ".links", new ArrayList<>(record.links()));
+            yaml.set(path + ".items-collected", record.itemsCollected());
+            yaml.set(path + ".items-voided", record.itemsVoided());
+            if (!record.buffer().isEmpty()) {
+                yaml.set(path + ".buffer", new ArrayList<>(record.buffer()));
+            }
+        }
+        return yaml;
+    }
+
+    /**
+     * Shift vacuum-hoppers.yml.1 .. .N up by one and copy the current snapshot to .1.
+     */
+    private void rotateBackups() throws IOException {
+        if (backupGenerations <= 0 || !snapshotFile.exists()) return;
+
+        for (int generation = backupGenerations - 1; generation >= 1; generation--) {
+            File from = backupFile(generation);
+            if (from.exists()) {
+                Files.move(from.toPath(), backupFile(generation + 1).toPath(), StandardCopyOption.REPLACE_EXISTING);
+            }
+        }
+        Files.copy(snapshotFile.toPath(), backupFile(1).toPath(), StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    private File backupFile(int generation) {
+        return new File(snapshotFile.getParentFile(), snapshotFile.getName() + "." + generation);
+    }
+
+    private BufferedWriter openJournal(boolean append) throws IOException {
+        journalFile.getParentFile().mkdirs();
+        return new BufferedWriter(new OutputStreamWriter(
+                new FileOutputStream(journalFile, append), StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,197 @@
+package com.overworldcraterewards.features.vacuumhopper;
+
+import org.bukkit.Location;
+import org.bukkit.Material;
+import org.bukkit.World;
+import org.bukkit.block.Block;
+import org.bukkit.block.BlockState;
+import org.bukkit.block.Container;
+import org.bukkit.inventory.Inventory;
+
+/**
+ * A container linked to a Vacuum Void Hopper.
+ *
+ * Keeps the resolved live inventory of the container so the transfer loop
+ * does not build a block state snapshot per item. The handle is dropped by
+ * {@link #invalidate()} when the block changes (break, explosion, piston,
+ * chunk unload) and resolved again on next use.
+ *
+ * A link can carry sorter routes (materials or tags it is meant for) and
+ * remembers when its container was found full, so the transfer loop skips
+ * it without an addItem attempt until the container changes.
+ */
+public class HopperLink {
+
+    private final int worldId;
+    private final long blockKey;
+
+    // Cached live inventory and the block type it was resolved from
+    private Inventory inventory;
+    private Material resolvedType;
+    private long validatedTick = -1;
+
+    // Hopper this link belongs to
+    private VacuumHopperManager.HopperData hopper;
+
+    // Sorter entries; null means the link accepts any material
+    private MaterialFilter routes;
+
+    // Tick until which the container is assumed full (re-checked afterwards
+    // in case it changed without an event we listen to)
+    private long fullUntilTick = 0;
+
+    public HopperLink(String worldName, int x, int y, int z) {
+        this.worldId = WorldIds.id(worldName);
+        this.blockKey = Block.getBlockKey(x, y, z);
+    }
+
+    public String getWorldName() { return WorldIds.name(worldId); }
+    public long getBlockKey() { return blockKey; }
+    public int getX() { return Block.getBlockKeyX(blockKey); }
+    public int getY() { return Block.getBlockKeyY(blockKey); }
+    public int getZ() { return Block.getBlockKeyZ(blockKey); }
+
+    public VacuumHopperManager.HopperData getHopper() { return hopper; }
+    public void setHopper(VacuumHopperManager.HopperData hopper) { this.hopper = hopper; }
+
+    /**
+     * Approximate heap size in bytes (64-bit JVM, compressed oops).
+     */
+    public long estimateHeapBytes() {
+        long bytes = 56;
+        if (routes != null) bytes += 24 + routes.estimateHeapBytes();
+        return bytes;
+    }
+
+    public boolean isAt(String worldName, int x, int y, int z) {
+        return blockKey == Block.getBlockKey(x, y, z) && getWorldName().equals(worldName);
+    }
+
+    /**
+     * Get the live inventory of the linked container.
+     * The cached handle is re-checked against the block type once per tick,
+     * which also catches changes made without an event (e.g. /setblock).
+     * @param world The loaded world of this link
+     * @param tick The current server tick
+     * @return The inventory, or null if the block is no longer a container
+     */
+    public Inventory getInventory(World world, long tick) {
+        if (inventory != null) {
+            if (validatedTick == tick) return inventory;
+            if (world.getType(getX(), getY(), getZ()) == resolvedType) {
+                validatedTick = tick;
+                return inventory;
+            }
+            invalidate();
+        }
+
+        // No snapshot needed: a live state hands out the live inventory
+        Block block = world.getBlockAt(getX(), getY(), getZ());
+        BlockState state = block.getState(false);
+        if (!(state instanceof Container container)) {
+            return null;
+        }
+
+        inventory = container.getInventory();
+        resolvedType = block.getType();
+        validatedTick = tick;
+        return inventory;
+    }
+
+    /**
+     * Drop the cached inventory handle.
+     */
+    public void invalidate() {
+        inventory = null;
+        resolvedType = null;
+        validatedTick = -1;
+        fullUntilTick = 0;
+    }
+
+    // === Full-Chest Memory ===
+
+    public boolean isKnownFull(long tick) {
+        return tick < fullUntilTick;
+    }
+
+    public void markFull(long untilTick) {
+        this.fullUntilTick = untilTick;
+    }
+
+    public void clearFull() {
+        this.fullUntilTick = 0;
+    }
+
+    // === Sorter Routes ===
+
+    public boolean hasRoutes() {
+        return routes != null && !routes.isEmpty();
+    }
+
+    /**
+     * @return The sorter entries, or null if the link accepts any material
+     */
+    public MaterialFilter getRoutes() {
+        return hasRoutes() ? routes : null;
+    }
+
+    public MaterialFilter getOrCreateRoutes() {
+        if (routes == null) {
+            routes = new MaterialFilter();
+        }
+        return routes;
+    }
+
+    public void clearRoutes() {
+        routes = null;
+    }
+
+    public Location toLocation(World world) {
+        return new Location(world, getX(), getY(), getZ());
+    }
+
+    public String toKey() {
+        return getWorldName() + ":" + getX() + ":" + getY() + ":" + getZ();
+    }
+
+    /**
+     * Storage form: "world:x:y:z", followed by "=ENTRY,ENTRY" if the link has sorter routes.
+     */
+    public String serialize() {
+        if (!hasRoutes()) return toKey();
+        return toKey() + "=" + String.join(",", routes.toEntries());
+    }
+
+    /**
+     * Parse a link from its storage form without requiring the world to be loaded.
+     * @return The link, or null if the string is malformed
+     */
+    public static HopperLink parse(String value) {
+        String key = value;
+        String routeEntries = null;
+        int split = value.indexOf('=');
+        if (split >= 0) {
+            key = value.substring(0, split);
+            routeEntries = value.substring(split + 1);
+        }
+
+        String[] parts = key.split(":");
+        if (parts.length != 4) return null;
+
+        HopperLink link;
+        try {
+            link = new HopperLink(parts[0],
+                    Integer.parseInt(parts[1]), Integer.parseInt(parts[2]), Integer.parseInt(parts[3]));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+
+        if (routeEntries != null && !routeEntries.isEmpty()) {
+            MaterialFilter linkRoutes = link.getOrCreateRoutes();
+            for (String entry : routeEntries.split(",")) {
+                linkRoutes.addEntry(entry);
+            }
+        }
+        return link;
+    }
+}
@@ -0,0 +1,180 @@
+package com.overworldcraterewards.features.vacuumhopper;
+
+import com.overworldcraterewards.OverworldCrateRewardsPlugin;
+import com.overworldcraterewards.config.ConfigManager;
+import org.bukkit.Bukkit;
+import org.bukkit.Material;
+import org.bukkit.World;
+
+import java.io.File;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Incremental clean-up of dead hopper data.
+ *
+ * Hoppers and links in a chunk are queued for validation when the chunk
+ * loads, and a periodic sweep queues every hopper in a loaded chunk. The queue is
+ * worked off a few checks per tick, so a large population never causes a
+ * lag spike. Hoppers whose block is no longer a lodestone and links whose
+ * container is gone are pruned.
+ *
+ * Stored hoppers of worlds that no longer exist (not loaded and no world
+ * folder) are never loaded, so they are moved out of the main storage into
+ * vacuum-hoppers-quarantine.yml once, where they can be restored by hand.
+ */
+public class HopperReconciler {
+
+    private final OverworldCrateRewardsPlugin plugin;
+    private final VacuumHopperManager manager;
+    private final ConfigManager config;
+
+    // Hoppers waiting to be checked, in queue order; links are checked with their hopper
+    private final Deque<VacuumHopperManager.HopperData> pending = new ArrayDeque<>();
+    private final Set<VacuumHopperManager.HopperData> queued = new HashSet<>();
+
+    private long nextSweepTick = 0;
+
+    // Totals since startup, for reports
+    private long checked = 0;
+    private long prunedHoppers = 0;
+    private long prunedLinks = 0;
+    private long quarantined = 0;
+
+    // Pruned since the last log line
+    private int unreportedHoppers = 0;
+    private int unreportedLinks = 0;
+
+    public HopperReconciler(OverworldCrateRewardsPlugin plugin, VacuumHopperManager manager) {
+        this.plugin = plugin;
+        this.manager = manager;
+        this.config = plugin.getConfigManager();
+    }
+
+    // === Queueing ===
+
+    public void queue(VacuumHopperManager.HopperData data) {
+        if (queued.add(data)) {
+            pending.add(data);
+        }
+    }
+
+    /**
+     * Run one slice: start a sweep over loaded hoppers if it is due, then
+     * check up to reconcile-per-tick hoppers.
+     */
+    public void tick() {
+        long now = Bukkit.getCurrentTick();
+        int interval = config.getVacuumHopperReconcileInterval();
+        if (interval > 0 && now >= nextSweepTick && pending.isEmpty()) {
+            nextSweepTick = now + interval * 20L;
+            // Hoppers in unloaded chunks are queued when their chunk loads
+            manager.forEachActiveHopper(this::queue);
+        }
+
+        int budget = config.getVacuumHopperReconcilePerTick();
+        // Entries whose chunk unloaded again are cheap to skip, but still bounded
+        int visits = budget * 16;
+        while (budget > 0 && visits-- > 0 && !pending.isEmpty()) {
+            VacuumHopperManager.HopperData data = pending.poll();
+            queued.remove(data);
+            if (check(data, now)) {
+                budget--;
+            }
+        }
+
+        if (pending.isEmpty() && (unreportedHoppers > 0 || unreportedLinks > 0)) {
+            plugin.getLogger().info("Vacuum hopper reconciliation pruned " + unreportedHoppers
+                    + " hoppers without a lodestone and " + unreportedLinks + " links without a container.");
+            unreportedHoppers = 0;
+            unreportedLinks = 0;
+        }
+    }
+
+    /**
+     * Validate one hopper and its links against the loaded world.
+     * @return True if anything was checked (the hopper's chunk was loaded)
+     */
+    private boolean check(VacuumHopperManager.HopperData data, long now) {
+        if (!manager.isRegistered(data)) return false;
+
+        World world = Bukkit.getWorld(data.getWorldName());
+        if (world == null || !world.isChunkLoaded(data.getX() >> 4, data.getZ() >> 4)) {
+            // Checked again when the chunk loads
+            return false;
+        }
+        checked++;
+
+        if (world.getType(data.getX(), data.getY(), data.getZ()) != Material.LODESTONE) {
+            manager.pruneHopper(world, data);
+            prunedHoppers++;
+            unreportedHoppers++;
+            return true;
+        }
+
+        List<HopperLink> dead = new ArrayList<>();
+        for (HopperLink link : data.getLinks()) {
+            World linkWorld = Bukkit.getWorld(link.getWorldName());
+            if (linkWorld == null || !linkWorld.isChunkLoaded(link.getX() >> 4, link.getZ() >> 4)) continue;
+            if (link.getInventory(linkWorld, now) == null) {
+                dead.add(link);
+            }
+        }
+        if (!dead.isEmpty()) {
+            manager.pruneLinks(data, dead);
+            prunedLinks += dead.size();
+            unreportedLinks += dead.size();
+        }
+        return true;
+    }
+
+    // === Quarantine ===
+
+    /**
+     * Move stored hoppers of worlds that no longer exist into the quarantine file.
+     */
+    public void quarantineMissingWorlds(HopperStorage storage) {
+        storage.listWorlds().thenAccept(worldNames -> Bukkit.getScheduler().runTask(plugin, () -> {
+            for (String worldName : worldNames) {
+                if (Bukkit.getWorld(worldName) != null) continue;
+                if (new File(Bukkit.getWorldContainer(), worldName).isDirectory()) continue;
+
+                storage.loadWorld(worldName).thenAccept(records -> quarantine(storage, worldName, records));
+            }
+        }));
+    }
+
+    /**
+     * Runs on the storage I/O thread: write the records to the quarantine
+     * file first, then remove them from the main storage.
+     */
+    private void quarantine(HopperStorage storage, String worldName, List<HopperRecord> records) {
+        if (records.isEmpty()) return;
+
+        File file = new File(plugin.getDataFolder(), "vacuum-hoppers-quarantine.yml");
+        synchronized (this) {
+            if (!HopperJournal.appendRecords(file, records, plugin.getLogger())) return;
+        }
+
+        Bukkit.getScheduler().runTask(plugin, () -> {
+            for (HopperRecord record : records) {
+                storage.delete(record.worldName(), record.x(), record.y(), record.z());
+            }
+            quarantined += records.size();
+            plugin.getLogger().warning("Quarantined " + records.size() + " vacuum hoppers of missing world "
+                    + worldName + " to " + file.getName() + ".");
+        });
+    }
+
+    // === Report ===
+
+    public long getChecked() { return checked; }
+    public long getPrunedHoppers() { return prunedHoppers; }
+    public long getPrunedLinks() { return prunedLinks; }
+    public long getQuarantined() { return quarantined; }
+    public int getPending() { return pending.size(); }
+}
@@ -0,0 +1,15 @@
+package com.overworldcraterewards.features.vacuumhopper;
+
+import java.util.List;
+
+/**
+ * Immutable copy of one hopper's durable state, handed to the storage I/O thread.
+ */
+public record HopperRecord(String worldName, int x, int y, int z, String owner,
+                           List<String> filter, List<String> links,
+                           long itemsCollected, long itemsVoided, List<String> buffer) {
+
+    public String key() {
+        return worldName + ":" + x + ":" + y + ":" + z;
+    }
+}
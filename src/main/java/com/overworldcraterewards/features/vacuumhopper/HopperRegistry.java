@@ -0,0 +1,218 @@
+package com.overworldcraterewards.features.vacuumhopper;
+
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import org.bukkit.Bukkit;
+import org.bukkit.Chunk;
+import org.bukkit.World;
+import org.bukkit.block.Block;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Spatial registry of placed Vacuum Void Hoppers.
+ *
+ * Hoppers are bucketed by world name and packed chunk key, and each bucket
+ * holds the hoppers of one chunk with packed block positions. Buckets are
+ * activated and deactivated as their chunks load and unload, so the tick
+ * loop only ever walks hoppers that can actually do work.
+ */
+public class HopperRegistry {
+
+    // World name -> (chunk key -> bucket). Keyed by name so hoppers in
+    // worlds that are not loaded yet are kept without holding a World reference.
+    private final Map<String, Long2ObjectMap<ChunkBucket>> worlds = new HashMap<>();
+
+    // Buckets whose chunk is currently loaded
+    private final List<ChunkBucket> activeBuckets = new ArrayList<>();
+
+    private int size = 0;
+    private int activeSize = 0;
+
+    /**
+     * All hoppers in one chunk.
+     */
+    public static final class ChunkBucket {
+        private final String worldName;
+        private final long chunkKey;
+        private final List<VacuumHopperManager.HopperData> hoppers = new ArrayList<>(2);
+
+        // Only set while the chunk is loaded, so unloaded worlds are never pinned
+        private World world;
+        private int activeIndex = -1;
+
+        private ChunkBucket(String worldName, long chunkKey) {
+            this.worldName = worldName;
+            this.chunkKey = chunkKey;
+        }
+
+        public String getWorldName() { return worldName; }
+        public long getChunkKey() { return chunkKey; }
+        public List<VacuumHopperManager.HopperData> getHoppers() { return hoppers; }
+        public World getWorld() { return world; }
+        public boolean isActive() { return activeIndex >= 0; }
+    }
+
+    // === Lookup ===
+
+    public VacuumHopperManager.HopperData get(String worldName, int x, int y, int z) {
+        ChunkBucket bucket = getBucket(worldName, Chunk.getChunkKey(x >> 4, z >> 4));
+        if (bucket == null) return null;
+
+        long blockKey = Block.getBlockKey(x, y, z);
+        for (VacuumHopperManager.HopperData data : bucket.hoppers) {
+            if (data.getBlockKey() == blockKey) {
+                return data;
+            }
+        }
+        return null;
+    }
+
+    public ChunkBucket getBucket(String worldName, long chunkKey) {
+        Long2ObjectMap<ChunkBucket> chunks = worlds.get(worldName);
+        return chunks != null ? chunks.get(chunkKey) : null;
+    }
+
+    // === Mutation ===
+
+    /**
+     * Register a hopper, replacing any hopper already at the same block.
+     * The new bucket is activated immediately if its chunk is loaded.
+     */
+    public void put(VacuumHopperManager.HopperData data) {
+        remove(data.getWorldName(), data.getX(), data.getY(), data.getZ());
+
+        long chunkKey = Chunk.getChunkKey(data.getX() >> 4, data.getZ() >> 4);
+        Long2ObjectMap<ChunkBucket> chunks = worlds.computeIfAbsent(data.getWorldName(), k -> new Long2ObjectOpenHashMap<>());
+        ChunkBucket bucket = chunks.get(chunkKey);
+        if (bucket == null) {
+            bucket = new ChunkBucket(data.getWorldName(), chunkKey);
+            chunks.put(chunkKey, bucket);
+
+            World world = Bukkit.getWorld(data.getWorldName());
+            if (world != null && world.isChunkLoaded(data.getX() >> 4, data.getZ() >> 4)) {
+                activate(bucket, world);
+            }
+        }
+
+        bucket.hoppers.add(data);
+        size++;
+        if (bucket.isActive()) activeSize++;
+    }
+
+    public VacuumHopperManager.HopperData remove(String worldName, int x, int y, int z) {
+        long chunkKey = Chunk.getChunkKey(x >> 4, z >> 4);
+        ChunkBucket bucket = getBucket(worldName, chunkKey);
+        if (bucket == null) return null;
+
+        long blockKey = Block.getBlockKey(x, y, z);
+        List<VacuumHopperManager.HopperData> hoppers = bucket.hoppers;
+        for (int i = 0; i < hoppers.size(); i++) {
+            VacuumHopperManager.HopperData data = hoppers.get(i);
+            if (data.getBlockKey() != blockKey) continue;
+
+            // Swap-remove: order inside a bucket carries no meaning
+            int last = hoppers.size() - 1;
+            hoppers.set(i, hoppers.get(last));
+            hoppers.remove(last);
+            size--;
+            if (bucket.isActive()) activeSize--;
+
+            if (hoppers.isEmpty()) {
+                deactivate(bucket);
+                worlds.get(worldName).remove(chunkKey);
+            }
+            return data;
+        }
+        return null;
+    }
+
+    // === Chunk Lifecycle ===
+
+    public void onChunkLoad(World world, int chunkX, int chunkZ) {
+        ChunkBucket bucket = getBucket(world.getName(), Chunk.getChunkKey(chunkX, chunkZ));
+        if (bucket != null) {
+            activate(bucket, world);
+        }
+    }
+
+    public void onChunkUnload(World world, int chunkX, int chunkZ) {
+        ChunkBucket bucket = getBucket(world.getName(), Chunk.getChunkKey(chunkX, chunkZ));
+        if (bucket != null) {
+            deactivate(bucket);
+        }
+    }
+
+    /**
+     * Deactivate every bucket of a world (world unload does not fire
+     * chunk unload events for every chunk).
+     */
+    public void onWorldUnload(World world) {
+        Long2ObjectMap<ChunkBucket> chunks = worlds.get(world.getName());
+        if (chunks == null) return;
+        for (ChunkBucket bucket : chunks.values()) {
+            deactivate(bucket);
+        }
+    }
+
+    private void activate(ChunkBucket bucket, World world) {
+        bucket.world = world;
+        if (bucket.activeIndex >= 0) return;
+        bucket.activeIndex = activeBuckets.size();
+        activeBuckets.add(bucket);
+        activeSize += bucket.hoppers.size();
+    }
+
+    private void deactivate(ChunkBucket bucket) {
+        bucket.world = null;
+        int index = bucket.activeIndex;
+        if (index < 0) return;
+
+        int last = activeBuckets.size() - 1;
+        ChunkBucket moved = activeBuckets.get(last);
+        activeBuckets.set(index, moved);
+        moved.activeIndex = index;
+        activeBuckets.remove(last);
+        bucket.activeIndex = -1;
+        activeSize -= bucket.hoppers.size();
+    }
+
+    // === Iteration ===
+
+    /**
+     * Buckets whose chunk is loaded. Removing the last hopper of a bucket
+     * swaps the last active bucket into its slot, which callers walking
+     * this list must account for.
+     */
+    public List<ChunkBucket> getActiveBuckets() {
+        return activeBuckets;
+    }
+
+    /**
+     * Visit every registered hopper, loaded or not.
+     */
+    public void forEach(Consumer<VacuumHopperManager.HopperData> action) {
+        for (Long2ObjectMap<ChunkBucket> chunks : worlds.values()) {
+            for (ChunkBucket bucket : chunks.values()) {
+                for (VacuumHopperManager.HopperData data : bucket.hoppers) {
+                    action.accept(data);
+                }
+            }
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Number of hoppers in loaded chunks.
+     */
+    public int activeSize() {
+        return activeSize;
+    }
+}
@@ -0,0 +1,210 @@
+package com.overworldcraterewards.features.vacuumhopper;
+
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectMaps;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import org.bukkit.Chunk;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Immutable, versioned view of all placed Vacuum Void Hoppers.
+ *
+ * Published by the main thread through an atomic reference, so any thread
+ * (storage, metrics, commands) can read counts, owners and stats without
+ * locks. Readers holding a snapshot keep seeing the same consistent state;
+ * a newer one has a higher version.
+ *
+ * The views are kept per chunk, like the registry's buckets. A new snapshot
+ * rebuilds only the chunks that changed and shares every other chunk with
+ * the previous one, so publishing costs in proportion to what changed.
+ */
+public final class HopperSnapshot {
+
+    public static final HopperSnapshot EMPTY = new HopperSnapshot(0, 0, Map.of(), Map.of(), 0, 0, 0);
+
+    private static final Comparator<HopperView> POSITION_ORDER = Comparator.comparing(HopperView::worldName)
+            .thenComparingInt(HopperView::x).thenComparingInt(HopperView::z).thenComparingInt(HopperView::y);
+
+    /**
+     * Read-only state of one hopper at the time of the snapshot.
+     */
+    public record HopperView(String worldName, int x, int y, int z, UUID owner,
+                             long itemsCollected, long itemsVoided, int linkCount, int bufferedItems) {
+
+        /**
+         * @return "world:x:y:z"
+         */
+        public String key() {
+            return worldName + ":" + x + ":" + y + ":" + z;
+        }
+    }
+
+    /**
+     * The hoppers of one chunk with their totals, shared between snapshots
+     * until the chunk changes.
+     */
+    private record ChunkViews(List<HopperView> hoppers, long collected, long voided) {
+
+        private static ChunkViews of(List<HopperView> hoppers) {
+            long collected = 0;
+            long voided = 0;
+            for (HopperView view : hoppers) {
+                collected += view.itemsCollected();
+                voided += view.itemsVoided();
+            }
+            return new ChunkViews(List.copyOf(hoppers), collected, voided);
+        }
+    }
+
+    private final long version;
+    private final long tick;
+    private final Map<String, Long2ObjectMap<ChunkViews>> worlds;
+    private final Map<UUID, Integer> ownerCounts;
+    private final int size;
+    private final long totalCollected;
+    private final long totalVoided;
+
+    private HopperSnapshot(long version, long tick, Map<String, Long2ObjectMap<ChunkViews>> worlds,
+                           Map<UUID, Integer> ownerCounts, int size, long totalCollected, long totalVoided) {
+        this.version = version;
+        this.tick = tick;
+        this.worlds = worlds;
+        this.ownerCounts = ownerCounts;
+        this.size = size;
+        this.totalCollected = totalCollected;
+        this.totalVoided = totalVoided;
+    }
+
+    /**
+     * Build the next snapshot, replacing the views of the chunks that changed.
+     * Worlds without changes keep their chunk maps; an empty list removes a chunk.
+     * @param changed World name -> (chunk key -> current hoppers of that chunk)
+     */
+    HopperSnapshot next(long tick, Map<String, Long2ObjectMap<List<HopperView>>> changed) {
+        Map<String, Long2ObjectMap<ChunkViews>> nextWorlds = new HashMap<>(worlds);
+        Map<UUID, Integer> owners = new HashMap<>(ownerCounts);
+        int nextSize = size;
+        long collected = totalCollected;
+        long voided = totalVoided;
+
+        for (Map.Entry<String, Long2ObjectMap<List<HopperView>>> world : changed.entrySet()) {
+            Long2ObjectMap<ChunkViews> previous = worlds.get(world.getKey());
+            Long2ObjectMap<ChunkViews> chunks = previous != null
+                    ? new Long2ObjectOpenHashMap<>(previous) : new Long2ObjectOpenHashMap<>();
+
+            for (Long2ObjectMap.Entry<List<HopperView>> entry : world.getValue().long2ObjectEntrySet()) {
+                ChunkViews old = chunks.remove(entry.getLongKey());
+                if (old != null) {
+                    nextSize -= old.hoppers().size();
+                    collected -= old.collected();
+                    voided -= old.voided();
+                    countOwners(owners, old.hoppers(), -1);
+                }
+                if (entry.getValue().isEmpty()) continue;
+
+                ChunkViews views = ChunkViews.of(entry.getValue());
+                chunks.put(entry.getLongKey(), views);
+                nextSize += views.hoppers().size();
+                collected += views.collected();
+                voided += views.voided();
+                countOwners(owners, views.hoppers(), 1);
+            }
+
+            if (chunks.isEmpty()) {
+                nextWorlds.remove(world.getKey());
+            } else {
+                nextWorlds.put(world.getKey(), Long2ObjectMaps.unmodifiable(chunks));
+            }
+        }
+
+        return new HopperSnapshot(version + 1, tick, Collections.unmodifiableMap(nextWorlds),
+                Collections.unmodifiableMap(owners), nextSize, collected, voided);
+    }
+
+    private static void countOwners(Map<UUID, Integer> owners, List<HopperView> hoppers, int delta) {
+        for (HopperView view : hoppers) {
+            if (view.owner() != null) {
+                owners.merge(view.owner(), delta, (a, b) -> a + b == 0 ? null : a + b);
+            }
+        }
+    }
+
+    /**
+     * Publication counter, incremented for every new snapshot.
+     */
+    public long getVersion() { return version; }
+
+    /**
+     * Server tick the snapshot was taken on.
+     */
+    public long getTick() { return tick; }
+
+    public int size() { return size; }
+
+    /**
+     * @return The hopper, or null if none was placed there
+     */
+    public HopperView getHopper(String worldName, int x, int y, int z) {
+        Long2ObjectMap<ChunkViews> chunks = worlds.get(worldName);
+        ChunkViews views = chunks != null ? chunks.get(Chunk.getChunkKey(x >> 4, z >> 4)) : null;
+        if (views == null) return null;
+        for (HopperView view : views.hoppers()) {
+            if (view.x() == x && view.y() == y && view.z() == z) {
+                return view;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Every hopper, ordered by world and position.
+     */
+    public List<HopperView> getHoppers() {
+        List<HopperView> hoppers = new ArrayList<>(size);
+        for (Long2ObjectMap<ChunkViews> chunks : worlds.values()) {
+            for (ChunkViews views : chunks.values()) {
+                hoppers.addAll(views.hoppers());
+            }
+        }
+        hoppers.sort(POSITION_ORDER);
+        return hoppers;
+    }
+
+    /**
+     * A player's hoppers, ordered by world and position.
+     */
+    public List<HopperView> getOwnedHoppers(UUID owner) {
+        Integer count = ownerCounts.get(owner);
+        if (count == null) return new ArrayList<>();
+        List<HopperView> hoppers = new ArrayList<>(count);
+        for (Long2ObjectMap<ChunkViews> chunks : worlds.values()) {
+            for (ChunkViews views : chunks.values()) {
+                for (HopperView view : views.hoppers()) {
+                    if (owner.equals(view.owner())) {
+                        hoppers.add(view);
+                    }
+                }
+            }
+        }
+        hoppers.sort(POSITION_ORDER);
+        return hoppers;
+    }
+
+    public int getOwnerCount(UUID owner) { return ownerCounts.getOrDefault(owner, 0); }
+
+    /**
+     * Hopper count per owner.
+     */
+    public Map<UUID, Integer> getOwners() { return ownerCounts; }
+
+    public long getTotalCollected() { return totalCollected; }
+
+    public long getTotalVoided() { return totalVoided; }
+}
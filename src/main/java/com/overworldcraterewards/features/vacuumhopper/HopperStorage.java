@@ -0,0 +1,57 @@
+package com.overworldcraterewards.features.vacuumhopper;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+
+/**
+ * Durable storage for Vacuum Void Hoppers.
+ *
+ * Implementations do their file or database work on their own I/O thread;
+ * every method here is called from the main thread and returns immediately.
+ */
+public interface HopperStorage {
+
+    /**
+     * Every hopper the main thread holds, and the worlds whose stored hoppers
+     * it has registered (hoppers of other worlds exist only in storage).
+     */
+    record Registered(Set<String> worlds, List<HopperRecord> hoppers) {}
+
+    /**
+     * Load the stored hoppers of one world.
+     * @return Future completed on the I/O thread with the world's hoppers
+     */
+    CompletableFuture<List<HopperRecord>> loadWorld(String worldName);
+
+    /**
+     * Names of all worlds that have stored hoppers, loaded or not.
+     * @return Future completed on the I/O thread
+     */
+    CompletableFuture<Set<String>> listWorlds();
+
+    /**
+     * Store the full state of a hopper (placed, relinked, filter changed).
+     */
+    void save(HopperRecord record);
+
+    /**
+     * Forget a hopper.
+     */
+    void delete(String worldName, int x, int y, int z);
+
+    /**
+     * Persist item counters and transfer buffers of hoppers that changed since the last checkpoint
+     * and fold any pending changes into long-term storage.
+     * @param changed Hoppers whose counters or buffer changed
+     * @param registered Every registered hopper, for storage rewritten from them;
+     *                   only called on the main thread, before this method returns
+     */
+    void checkpoint(List<HopperRecord> changed, Supplier<Registered> registered);
+
+    /**
+     * Write a final checkpoint and wait for all pending writes.
+     */
+    void close(List<HopperRecord> changed, Supplier<Registered> registered);
+}
@@ -0,0 +1,98 @@
+package com.overworldcraterewards.features.vacuumhopper;
+
+/**
+ * Per-minute item counts of one hopper over the last {@link #MINUTES} minutes.
+ *
+ * Counts are kept in primitive ring buffers indexed by server minute
+ * (current tick / 1200), so recording is an array increment and minutes
+ * without activity cost nothing until the ring wraps.
+ */
+public class HopperThroughput {
+
+    public static final int MINUTES = 15;
+    private static final int TICKS_PER_MINUTE = 1200;
+
+    private final int[] collected = new int[MINUTES];
+    private final int[] voided = new int[MINUTES];
+    private final int[] failed = new int[MINUTES];
+
+    // Minute the newest slot belongs to
+    private long currentMinute = Long.MIN_VALUE;
+
+    public static long minuteOf(long tick) {
+        return tick / TICKS_PER_MINUTE;
+    }
+
+    public void recordCollected(long tick, int amount) {
+        collected[slot(tick)] += amount;
+    }
+
+    public void recordVoided(long tick, int amount) {
+        voided[slot(tick)] += amount;
+    }
+
+    /**
+     * Items caught that could not be delivered (all routed chests full).
+     * Counted once per item entity, not on every pass that retries it.
+     */
+    public void recordFailed(long tick, int amount) {
+        failed[slot(tick)] += amount;
+    }
+
+    public long getCollected(long tick, int minutes) {
+        return sum(collected, tick, minutes);
+    }
+
+    public long getVoided(long tick, int minutes) {
+        return sum(voided, tick, minutes);
+    }
+
+    public long getFailed(long tick, int minutes) {
+        return sum(failed, tick, minutes);
+    }
+
+    /**
+     * Items collected and voided over the last minutes, including the current one.
+     */
+    public long getThroughput(long tick, int minutes) {
+        return getCollected(tick, minutes) + getVoided(tick, minutes);
+    }
+
+    /**
+     * Roll the ring forward to the tick's minute, clearing skipped slots.
+     * @return Slot index for the tick's minute
+     */
+    private int slot(long tick) {
+        long minute = minuteOf(tick);
+        if (minute != currentMinute) {
+            long skipped = currentMinute == Long.MIN_VALUE ? MINUTES : Math.min(MINUTES, minute - currentMinute);
+            for (long m = minute - skipped + 1; m <= minute; m++) {
+                int index = (int) Math.floorMod(m, (long) MINUTES);
+                collected[index] = 0;
+                voided[index] = 0;
+                failed[index] = 0;
+            }
+            currentMinute = minute;
+        }
+        return (int) Math.floorMod(minute, (long) MINUTES);
+    }
+
+    private long sum(int[] counts, long tick, int minutes) {
+        long minute = minuteOf(tick);
+        long total = 0;
+        for (int i = 0; i < Math.min(minutes, MINUTES); i++) {
+            long m = minute - i;
+            // Slots older than the newest recorded minute's window are stale
+            if (m > currentMinute || currentMinute - m >= MINUTES) continue;
+            total += counts[(int) Math.floorMod(m, (long) MINUTES)];
+        }
+        return total;
+    }
+
+    /**
+     * Approximate heap size in bytes (64-bit JVM, compressed oops).
+     */
+    public static long estimateHeapBytes() {
+        return 32 + 3 * (16 + 4L * MINUTES);
+    }
+}
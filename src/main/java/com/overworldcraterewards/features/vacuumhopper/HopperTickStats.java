@@ -0,0 +1,78 @@
+package com.overworldcraterewards.features.vacuumhopper;
+
+/**
+ * Rolling per-tick statistics of the vacuum hopper loop, for /ocr debug hopper.
+ * Keeps the last {@link #WINDOW} ticks in ring buffers.
+ */
+public class HopperTickStats {
+
+    public static final int WINDOW = 100;
+
+    private final int[] processed = new int[WINDOW];
+    private final int[] deferred = new int[WINDOW];
+    private final long[] nanos = new long[WINDOW];
+    private final boolean[] overBudget = new boolean[WINDOW];
+    private int cursor = 0;
+    private int filled = 0;
+
+    /**
+     * Record one tick of hopper work.
+     * @param processedCount Hoppers ticked
+     * @param deferredCount Hoppers left over for the next tick
+     * @param elapsedNanos Time spent
+     * @param budgetHit Whether the loop stopped on the time budget
+     */
+    public void record(int processedCount, int deferredCount, long elapsedNanos, boolean budgetHit) {
+        processed[cursor] = processedCount;
+        deferred[cursor] = deferredCount;
+        nanos[cursor] = elapsedNanos;
+        overBudget[cursor] = budgetHit;
+        cursor = (cursor + 1) % WINDOW;
+        if (filled < WINDOW) filled++;
+    }
+
+    private int last() {
+        return (cursor + WINDOW - 1) % WINDOW;
+    }
+
+    public int getLastProcessed() { return filled > 0 ? processed[last()] : 0; }
+    public int getLastDeferred() { return filled > 0 ? deferred[last()] : 0; }
+    public long getLastNanos() { return filled > 0 ? nanos[last()] : 0; }
+
+    public int getWindowSize() { return filled; }
+
+    public double getAverageProcessed() {
+        if (filled == 0) return 0;
+        long sum = 0;
+        for (int i = 0; i < filled; i++) sum += processed[i];
+        return (double) sum / filled;
+    }
+
+    public double getAverageDeferred() {
+        if (filled == 0) return 0;
+        long sum = 0;
+        for (int i = 0; i < filled; i++) sum += deferred[i];
+        return (double) sum / filled;
+    }
+
+    public long getAverageNanos() {
+        if (filled == 0) return 0;
+        long sum = 0;
+        for (int i = 0; i < filled; i++) sum += nanos[i];
+        return sum / filled;
+    }
+
+    public long getPeakNanos() {
+        long peak = 0;
+        for (int i = 0; i < filled; i++) peak = Math.max(peak, nanos[i]);
+        return peak;
+    }
+
+    public int getOverBudgetTicks() {
+        int count = 0;
+        for (int i = 0; i < filled; i++) {
+            if (overBudget[i]) count++;
+        }
+        return count;
+    }
+}
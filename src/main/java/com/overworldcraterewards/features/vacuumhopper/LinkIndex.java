@@ -0,0 +1,127 @@
+package com.overworldcraterewards.features.vacuumhopper;
+
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import org.bukkit.Chunk;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Index of hopper links by world and chunk, used to invalidate cached
+ * container handles when the linked block (or its chunk) changes.
+ */
+public class LinkIndex {
+
+    // World name -> (chunk key -> links to containers in that chunk)
+    private final Map<String, Long2ObjectMap<List<HopperLink>>> worlds = new HashMap<>();
+
+    public void add(HopperLink link) {
+        long chunkKey = Chunk.getChunkKey(link.getX() >> 4, link.getZ() >> 4);
+        Long2ObjectMap<List<HopperLink>> chunks = worlds.computeIfAbsent(link.getWorldName(), k -> new Long2ObjectOpenHashMap<>());
+        List<HopperLink> list = chunks.get(chunkKey);
+        if (list == null) {
+            list = new ArrayList<>(2);
+            chunks.put(chunkKey, list);
+        }
+        list.add(link);
+    }
+
+    public void remove(HopperLink link) {
+        Long2ObjectMap<List<HopperLink>> chunks = worlds.get(link.getWorldName());
+        if (chunks == null) return;
+
+        long chunkKey = Chunk.getChunkKey(link.getX() >> 4, link.getZ() >> 4);
+        List<HopperLink> list = chunks.get(chunkKey);
+        if (list == null) return;
+        list.remove(link);
+        if (list.isEmpty()) {
+            chunks.remove(chunkKey);
+        }
+    }
+
+    /**
+     * Get all links to containers in a chunk.
+     * @return The links, or null if there are none
+     */
+    public List<HopperLink> getLinksInChunk(String worldName, long chunkKey) {
+        Long2ObjectMap<List<HopperLink>> chunks = worlds.get(worldName);
+        return chunks != null ? chunks.get(chunkKey) : null;
+    }
+
+    /**
+     * Invalidate cached handles for links at a block.
+     */
+    public void invalidateBlock(String worldName, int x, int y, int z) {
+        List<HopperLink> links = getLinksInChunk(worldName, Chunk.getChunkKey(x >> 4, z >> 4));
+        if (links == null) return;
+        for (HopperLink link : links) {
+            if (link.isAt(worldName, x, y, z)) {
+                link.invalidate();
+            }
+        }
+    }
+
+    /**
+     * Invalidate cached handles for links at a block and its horizontal
+     * neighbours, since a chest changing next to a linked chest turns a
+     * double chest inventory into a single one or the other way around.
+     */
+    public void invalidateAround(String worldName, int x, int y, int z) {
+        invalidateBlock(worldName, x, y, z);
+        invalidateBlock(worldName, x + 1, y, z);
+        invalidateBlock(worldName, x - 1, y, z);
+        invalidateBlock(worldName, x, y, z + 1);
+        invalidateBlock(worldName, x, y, z - 1);
+    }
+
+    /**
+     * Forget the full flag of links at a block and its horizontal neighbours,
+     * after items were taken out of a container (which may be a double chest).
+     */
+    public void clearFullAround(String worldName, int x, int y, int z, Consumer<HopperLink> onCleared) {
+        clearFull(worldName, x, y, z, onCleared);
+        clearFull(worldName, x + 1, y, z, onCleared);
+        clearFull(worldName, x - 1, y, z, onCleared);
+        clearFull(worldName, x, y, z + 1, onCleared);
+        clearFull(worldName, x, y, z - 1, onCleared);
+    }
+
+    private void clearFull(String worldName, int x, int y, int z, Consumer<HopperLink> onCleared) {
+        List<HopperLink> links = getLinksInChunk(worldName, Chunk.getChunkKey(x >> 4, z >> 4));
+        if (links == null) return;
+        for (HopperLink link : links) {
+            if (link.isAt(worldName, x, y, z)) {
+                link.clearFull();
+                onCleared.accept(link);
+            }
+        }
+    }
+
+    /**
+     * Invalidate cached handles for every link in a chunk.
+     */
+    public void invalidateChunk(String worldName, long chunkKey) {
+        List<HopperLink> links = getLinksInChunk(worldName, chunkKey);
+        if (links == null) return;
+        for (HopperLink link : links) {
+            link.invalidate();
+        }
+    }
+
+    /**
+     * Invalidate cached handles for every link in a world, e.g. when it unloads.
+     */
+    public void invalidateWorld(String worldName) {
+        Long2ObjectMap<List<HopperLink>> chunks = worlds.get(worldName);
+        if (chunks == null) return;
+        for (List<HopperLink> links : chunks.values()) {
+            for (HopperLink link : links) {
+                link.invalidate();
+            }
+        }
+    }
+}
@@ -0,0 +1,237 @@
+package com.overworldcraterewards.features.vacuumhopper;
+
+import org.bukkit.Bukkit;
+import org.bukkit.Material;
+import org.bukkit.NamespacedKey;
+import org.bukkit.Tag;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * Set of materials used for hopper void filters and link routes.
+ *
+ * Entries are single materials ("COBBLESTONE") or item tags ("#logs",
+ * "#minecraft:flowers"). Whenever the entries change they are compiled into
+ * a bitset indexed by {@link Material#ordinal()}, with tags expanded once,
+ * so {@link #contains(Material)} in the vacuum loop is a single array read
+ * no matter how large the filter is.
+ */
+public class MaterialFilter {
+
+    public static final String TAG_PREFIX = "#";
+
+    private static final long[] EMPTY = new long[0];
+    private static final Material[] MATERIALS = Material.values();
+    private static final int WORDS = (MATERIALS.length + 63) >>> 6;
+
+    // Entries in the order they were added (shown in the GUI in this order),
+    // allocated on first use since most filters and routes stay small or empty
+    private Set<Material> materials = Collections.emptySet();
+    private Set<String> tags = Collections.emptySet();
+
+    // Compiled membership bitset
+    private long[] bits = EMPTY;
+
+    /**
+     * Check whether a material is voided, directly or through a tag.
+     */
+    public boolean contains(Material material) {
+        int ordinal = material.ordinal();
+        int word = ordinal >>> 6;
+        return word < bits.length && (bits[word] & (1L << ordinal)) != 0;
+    }
+
+    /**
+     * Visit every material in the filter, with tags expanded.
+     */
+    public void forEachMaterial(Consumer<Material> action) {
+        for (int word = 0; word < bits.length; word++) {
+            long remaining = bits[word];
+            while (remaining != 0) {
+                int bit = Long.numberOfTrailingZeros(remaining);
+                action.accept(MATERIALS[(word << 6) + bit]);
+                remaining &= remaining - 1;
+            }
+        }
+    }
+
+    /**
+     * Check whether a material is an explicit entry (not just covered by a tag).
+     */
+    public boolean hasMaterial(Material material) {
+        return materials.contains(material);
+    }
+
+    public boolean add(Material material) {
+        if (!mutableMaterials().add(material)) return false;
+        compile();
+        return true;
+    }
+
+    public boolean remove(Material material) {
+        if (!materials.remove(material)) return false;
+        compile();
+        return true;
+    }
+
+    /**
+     * Add an item tag entry.
+     * @param tag Tag name with or without the '#' prefix, e.g. "#logs"
+     * @return False if the tag does not exist or is already in the filter
+     */
+    public boolean addTag(String tag) {
+        String entry = normalizeTag(tag);
+        if (resolveTag(entry) == null) return false;
+        if (!mutableTags().add(entry)) return false;
+        compile();
+        return true;
+    }
+
+    public boolean removeTag(String tag) {
+        if (!tags.remove(normalizeTag(tag))) return false;
+        compile();
+        return true;
+    }
+
+    /**
+     * Add a stored entry (material name or "#tag"). Unknown materials are
+     * dropped; unknown tags are kept so a missing datapack does not erase them.
+     */
+    public void addEntry(String entry) {
+        entry = entry.trim();
+        if (entry.isEmpty()) return;
+
+        if (entry.startsWith(TAG_PREFIX)) {
+            mutableTags().add(normalizeTag(entry));
+        } else {
+            try {
+                mutableMaterials().add(Material.valueOf(entry));
+            } catch (IllegalArgumentException ignored) {
+                return;
+            }
+        }
+        compile();
+    }
+
+    /**
+     * Entries in storage form: material names followed by "#tag" entries.
+     */
+    public List<String> toEntries() {
+        List<String> entries = new ArrayList<>(materials.size() + tags.size());
+        for (Material material : materials) {
+            entries.add(material.name());
+        }
+        entries.addAll(tags);
+        return entries;
+    }
+
+    public Set<Material> getMaterials() {
+        return Collections.unmodifiableSet(materials);
+    }
+
+    public Set<String> getTags() {
+        return Collections.unmodifiableSet(tags);
+    }
+
+    public boolean isEmpty() {
+        return materials.isEmpty() && tags.isEmpty();
+    }
+
+    private Set<Material> mutableMaterials() {
+        if (materials.isEmpty()) {
+            materials = new LinkedHashSet<>();
+        }
+        return materials;
+    }
+
+    private Set<String> mutableTags() {
+        if (tags.isEmpty()) {
+            tags = new LinkedHashSet<>();
+        }
+        return tags;
+    }
+
+    /**
+     * Approximate heap size in bytes (64-bit JVM, compressed oops), not
+     * counting the shared Material constants and tag strings.
+     */
+    public long estimateHeapBytes() {
+        long bytes = 0;
+        if (!materials.isEmpty()) bytes += 72 + 16 + 4L * 16 + 40L * materials.size();
+        if (!tags.isEmpty()) bytes += 72 + 16 + 4L * 16 + 40L * tags.size();
+        if (bits.length > 0) bytes += 16 + 8L * bits.length;
+        return bytes;
+    }
+
+    /**
+     * Rebuild the bitset from the current entries.
+     */
+    private void compile() {
+        if (isEmpty()) {
+            bits = EMPTY;
+            return;
+        }
+
+        long[] compiled = new long[WORDS];
+        for (Material material : materials) {
+            set(compiled, material);
+        }
+        for (String entry : tags) {
+            Tag<Material> tag = resolveTag(entry);
+            if (tag == null) continue;
+            for (Material material : tag.getValues()) {
+                set(compiled, material);
+            }
+        }
+        bits = compiled;
+    }
+
+    private static void set(long[] bits, Material material) {
+        int ordinal = material.ordinal();
+        bits[ordinal >>> 6] |= 1L << ordinal;
+    }
+
+    // === Tags ===
+
+    /**
+     * Normalize a tag to "#name" for the minecraft namespace or "#namespace:name".
+     */
+    public static String normalizeTag(String tag) {
+        String key = tag.startsWith(TAG_PREFIX) ? tag.substring(1) : tag;
+        key = key.toLowerCase();
+        if (key.startsWith(NamespacedKey.MINECRAFT + ":")) {
+            key = key.substring(NamespacedKey.MINECRAFT.length() + 1);
+        }
+        return TAG_PREFIX + key;
+    }
+
+    /**
+     * Look up an item tag, falling back to block tags.
+     * @return The tag, or null if it does not exist
+     */
+    public static Tag<Material> resolveTag(String tag) {
+        NamespacedKey key = NamespacedKey.fromString(normalizeTag(tag).substring(1));
+        if (key == null) return null;
+
+        Tag<Material> itemTag = Bukkit.getTag(Tag.REGISTRY_ITEMS, key, Material.class);
+        if (itemTag != null) return itemTag;
+        return Bukkit.getTag(Tag.REGISTRY_BLOCKS, key, Material.class);
+    }
+
+    /**
+     * All item tags that can be added, in "#name" form.
+     */
+    public static List<String> getAvailableTags() {
+        List<String> names = new ArrayList<>();
+        for (Tag<Material> tag : Bukkit.getTags(Tag.REGISTRY_ITEMS, Material.class)) {
+            names.add(normalizeTag(tag.getKey().toString()));
+        }
+        Collections.sort(names);
+        return names;
+    }
+}
@@ -0,0 +1,46 @@
+package com.overworldcraterewards.features.vacuumhopper;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Secondary index of placed hoppers by owner, so per-player limits and
+ * admin lookups never scan every hopper.
+ */
+public class OwnerIndex {
+
+    // Owner -> hoppers in placement (or load) order
+    private final Map<UUID, Set<VacuumHopperManager.HopperData>> owners = new HashMap<>();
+
+    public void add(VacuumHopperManager.HopperData data) {
+        if (data.getOwner() == null) return;
+        owners.computeIfAbsent(data.getOwner(), k -> new LinkedHashSet<>()).add(data);
+    }
+
+    public void remove(VacuumHopperManager.HopperData data) {
+        if (data.getOwner() == null) return;
+        Set<VacuumHopperManager.HopperData> hoppers = owners.get(data.getOwner());
+        if (hoppers == null) return;
+        hoppers.remove(data);
+        if (hoppers.isEmpty()) {
+            owners.remove(data.getOwner());
+        }
+    }
+
+    /**
+     * @return The owner's hoppers (read-only), empty if none
+     */
+    public Set<VacuumHopperManager.HopperData> get(UUID owner) {
+        Set<VacuumHopperManager.HopperData> hoppers = owners.get(owner);
+        return hoppers != null ? Collections.unmodifiableSet(hoppers) : Collections.emptySet();
+    }
+
+    public int count(UUID owner) {
+        Set<VacuumHopperManager.HopperData> hoppers = owners.get(owner);
+        return hoppers != null ? hoppers.size() : 0;
+    }
+}
@@ -0,0 +1,90 @@
+package com.overworldcraterewards.features.vacuumhopper;
+
+import it.unimi.dsi.fastutil.longs.Long2IntMap;
+import it.unimi.dsi.fastutil.longs.Long2IntOpenHashMap;
+import org.bukkit.Chunk;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Per-world count of online players in each chunk.
+ *
+ * Updated only when a player crosses a chunk border, so checking whether a
+ * hopper is within activation range of any player costs a few map lookups
+ * instead of a distance check against every player in the world.
+ */
+public class PlayerChunkGrid {
+
+    // World name -> (chunk key -> players in that chunk)
+    private final Map<String, Long2IntMap> worlds = new HashMap<>();
+
+    // Chunk each tracked player was last counted in
+    private final Map<UUID, Position> positions = new HashMap<>();
+
+    private record Position(String worldName, long chunkKey) {}
+
+    /**
+     * Move a player to a chunk, or start tracking them.
+     */
+    public void update(UUID playerId, String worldName, int chunkX, int chunkZ) {
+        Position position = new Position(worldName, Chunk.getChunkKey(chunkX, chunkZ));
+        Position previous = positions.put(playerId, position);
+        if (position.equals(previous)) return;
+
+        if (previous != null) {
+            decrement(previous);
+        }
+        Long2IntMap chunks = worlds.computeIfAbsent(worldName, k -> new Long2IntOpenHashMap());
+        chunks.put(position.chunkKey(), chunks.get(position.chunkKey()) + 1);
+    }
+
+    public void remove(UUID playerId) {
+        Position previous = positions.remove(playerId);
+        if (previous != null) {
+            decrement(previous);
+        }
+    }
+
+    private void decrement(Position position) {
+        Long2IntMap chunks = worlds.get(position.worldName());
+        if (chunks == null) return;
+
+        int count = chunks.get(position.chunkKey()) - 1;
+        if (count > 0) {
+            chunks.put(position.chunkKey(), count);
+        } else {
+            chunks.remove(position.chunkKey());
+            if (chunks.isEmpty()) {
+                worlds.remove(position.worldName());
+            }
+        }
+    }
+
+    /**
+     * @see #isPlayerNear(String, int, int, int)
+     */
+    public boolean isPlayerNear(String worldName, long chunkKey, int range) {
+        // Unpack Chunk.getChunkKey: x in the low 32 bits, z in the high 32 bits
+        return isPlayerNear(worldName, (int) chunkKey, (int) (chunkKey >> 32), range);
+    }
+
+    /**
+     * Check whether any player is within range chunks (square, like entity
+     * activation range) of a chunk.
+     */
+    public boolean isPlayerNear(String worldName, int chunkX, int chunkZ, int range) {
+        Long2IntMap chunks = worlds.get(worldName);
+        if (chunks == null) return false;
+
+        for (int cx = chunkX - range; cx <= chunkX + range; cx++) {
+            for (int cz = chunkZ - range; cz <= chunkZ + range; cz++) {
+                if (chunks.containsKey(Chunk.getChunkKey(cx, cz))) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+}
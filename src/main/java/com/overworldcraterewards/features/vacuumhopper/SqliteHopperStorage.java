@@ -0,0 +1,422 @@
+package com.overworldcraterewards.features.vacuumhopper;
+
+import java.io.File;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+import java.util.logging.Logger;
+
+/**
+ * Embedded SQLite storage for Vacuum Void Hoppers (vacuum-hoppers.db).
+ *
+ * Hoppers are loaded per world when the world loads, so only worlds that are
+ * actually in use are read. Changes are queued and written in batches with
+ * prepared statements inside one transaction on a dedicated I/O thread.
+ * A batch that fails (e.g. SQLITE_BUSY or a full disk) is kept and retried
+ * with a growing delay, merged with whatever was queued meanwhile; if the
+ * database could not be opened, opening it is retried the same way. Changes
+ * are only dropped at shutdown, if the database still cannot take them.
+ * The SQLite JDBC driver ships with the server.
+ */
+public class SqliteHopperStorage implements HopperStorage {
+
+    private static final String CREATE_TABLE = "CREATE TABLE IF NOT EXISTS vacuum_hoppers ("
+            + "world TEXT NOT NULL, x INTEGER NOT NULL, y INTEGER NOT NULL, z INTEGER NOT NULL, "
+            + "owner TEXT, filter TEXT NOT NULL, links TEXT NOT NULL, "
+            + "items_collected INTEGER NOT NULL DEFAULT 0, items_voided INTEGER NOT NULL DEFAULT 0, "
+            + "buffer TEXT NOT NULL DEFAULT '', "
+            + "PRIMARY KEY (world, x, y, z))";
+    private static final String SELECT_WORLD = "SELECT x, y, z, owner, filter, links, items_collected, items_voided, buffer "
+            + "FROM vacuum_hoppers WHERE world = ?";
+    private static final String UPSERT = "INSERT OR REPLACE INTO vacuum_hoppers "
+            + "(world, x, y, z, owner, filter, links, items_collected, items_voided, buffer) "
+            + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final String SELECT_WORLDS = "SELECT DISTINCT world FROM vacuum_hoppers";
+    private static final String DELETE = "DELETE FROM vacuum_hoppers WHERE world = ? AND x = ? AND y = ? AND z = ?";
+    private static final String UPDATE_STATS = "UPDATE vacuum_hoppers SET items_collected = ?, items_voided = ?, buffer = ? "
+            + "WHERE world = ? AND x = ? AND y = ? AND z = ?";
+
+    // Failed batches are retried after 1s, 2s, 4s... up to 60s; after this many
+    // attempts the affected hoppers are re-saved in full and retried every 60s
+    private static final int MAX_RETRIES = 8;
+    private static final long RETRY_DELAY_MILLIS = 1000;
+    private static final long MAX_RETRY_DELAY_MILLIS = 60_000;
+
+    /**
+     * A queued write. A null record means delete.
+     */
+    private record Change(String worldName, int x, int y, int z, HopperRecord record, boolean statsOnly) {
+
+        String key() {
+            return worldName + ":" + x + ":" + y + ":" + z;
+        }
+
+        /**
+         * The single change with the effect of this one followed by a later one
+         * to the same hopper.
+         */
+        Change then(Change later) {
+            // A stats update changes nothing after a delete, and only the stats after an upsert
+            if (later.statsOnly() && record == null) return this;
+            if (later.statsOnly() && !statsOnly) {
+                return new Change(worldName, x, y, z, later.record(), false);
+            }
+            return later;
+        }
+
+        /**
+         * This change as a write of the whole hopper, which does not rely on
+         * an earlier write having created its row.
+         */
+        Change asFullSave() {
+            return statsOnly ? new Change(worldName, x, y, z, record, false) : this;
+        }
+    }
+
+    private final Logger logger;
+    private final File databaseFile;
+    private final File legacyFile;
+
+    private final ScheduledThreadPoolExecutor ioExecutor = new ScheduledThreadPoolExecutor(1, r -> {
+        Thread thread = new Thread(r, "OCR-HopperDB");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    // Pending writes, drained in one batch by the I/O thread
+    private final Queue<Change> pending = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean flushScheduled = new AtomicBoolean(false);
+
+    // Only touched on the I/O thread
+    private Connection connection;
+    // Changes drained from pending but not yet written (e.g. a failed batch), by hopper
+    private final Map<String, Change> unsaved = new LinkedHashMap<>();
+    private int failedAttempts = 0;
+    private boolean retryScheduled = false;
+    // Opening the database failed; logged once, and retried with the next flush
+    private boolean openFailed = false;
+
+    /**
+     * @param databaseFile The SQLite database file
+     * @param legacyFile vacuum-hoppers.yml, imported once if the database is empty
+     */
+    public SqliteHopperStorage(Logger logger, File databaseFile, File legacyFile) {
+        this.logger = logger;
+        this.databaseFile = databaseFile;
+        this.legacyFile = legacyFile;
+        // A retry still waiting at shutdown is flushed by close() instead
+        ioExecutor.setExecuteExistingDelayedTasksAfterShutdownPolicy(false);
+        ioExecutor.execute(this::open);
+    }
+
+    private void open() {
+        try {
+            Class.forName("org.sqlite.JDBC");
+            databaseFile.getParentFile().mkdirs();
+            connection = DriverManager.getConnection("jdbc:sqlite:" + databaseFile.getAbsolutePath());
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("PRAGMA journal_mode=WAL");
+                statement.execute("PRAGMA synchronous=NORMAL");
+                statement.execute(CREATE_TABLE);
+            }
+            addColumnIfMissing("buffer", "TEXT NOT NULL DEFAULT ''");
+            importLegacy();
+            if (openFailed) {
+                logger.info("Opened vacuum hopper database, writing the changes kept meanwhile.");
+                openFailed = false;
+            }
+        } catch (ClassNotFoundException | SQLException e) {
+            if (!openFailed) {
+                logger.severe("Failed to open vacuum hopper database, keeping changes in memory until it opens: "
+                        + e.getMessage());
+                openFailed = true;
+            }
+            closeQuietly();
+        }
+    }
+
+    private void closeQuietly() {
+        try {
+            if (connection != null) connection.close();
+        } catch (SQLException ignored) {
+            // Already broken
+        }
+        connection = null;
+    }
+
+    /**
+     * Add a column introduced after the table was first created.
+     */
+    private void addColumnIfMissing(String column, String definition) throws SQLException {
+        try (Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery("PRAGMA table_info(vacuum_hoppers)")) {
+            while (rs.next()) {
+                if (rs.getString("name").equalsIgnoreCase(column)) return;
+            }
+        }
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("ALTER TABLE vacuum_hoppers ADD COLUMN " + column + " " + definition);
+        }
+    }
+
+    /**
+     * Import vacuum-hoppers.yml (and its journal) into an empty database.
+     */
+    private void importLegacy() throws SQLException {
+        if (!legacyFile.exists()) return;
+        try (Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery("SELECT COUNT(*) FROM vacuum_hoppers")) {
+            if (rs.next() && rs.getLong(1) > 0) return;
+        }
+
+        Map<String, HopperRecord> records = new HopperJournal(logger, legacyFile, 0).loadAll();
+        if (records.isEmpty()) return;
+
+        List<Change> changes = new ArrayList<>(records.size());
+        for (HopperRecord record : records.values()) {
+            changes.add(new Change(record.worldName(), record.x(), record.y(), record.z(), record, false));
+        }
+        writeBatch(changes);
+        logger.info("Imported " + records.size() + " vacuum hoppers from " + legacyFile.getName() + ".");
+    }
+
+    // === Loading ===
+
+    @Override
+    public CompletableFuture<List<HopperRecord>> loadWorld(String worldName) {
+        return CompletableFuture.supplyAsync(() -> {
+            List<HopperRecord> result = new ArrayList<>();
+            if (connection == null) return result;
+
+            try (PreparedStatement statement = connection.prepareStatement(SELECT_WORLD)) {
+                statement.setString(1, worldName);
+                try (ResultSet rs = statement.executeQuery()) {
+                    while (rs.next()) {
+                        result.add(new HopperRecord(worldName,
+                                rs.getInt("x"), rs.getInt("y"), rs.getInt("z"),
+                                rs.getString("owner"),
+                                HopperJournal.splitList(rs.getString("filter"), ","),
+                                HopperJournal.splitList(rs.getString("links"), ";"),
+                                rs.getLong("items_collected"),
+                                rs.getLong("items_voided"),
+                                HopperJournal.splitList(rs.getString("buffer"), ",")));
+                    }
+                }
+            } catch (SQLException e) {
+                logger.warning("Failed to load vacuum hoppers for world " + worldName + ": " + e.getMessage());
+            }
+            return result;
+        }, ioExecutor);
+    }
+
+    @Override
+    public CompletableFuture<Set<String>> listWorlds() {
+        return CompletableFuture.supplyAsync(() -> {
+            Set<String> worldNames = new LinkedHashSet<>();
+            if (connection == null) return worldNames;
+
+            try (Statement statement = connection.createStatement();
+                 ResultSet rs = statement.executeQuery(SELECT_WORLDS)) {
+                while (rs.next()) {
+                    worldNames.add(rs.getString(1));
+                }
+            } catch (SQLException e) {
+                logger.warning("Failed to list vacuum hopper worlds: " + e.getMessage());
+            }
+            return worldNames;
+        }, ioExecutor);
+    }
+
+    // === Writes ===
+
+    @Override
+    public void save(HopperRecord record) {
+        enqueue(new Change(record.worldName(), record.x(), record.y(), record.z(), record, false));
+    }
+
+    @Override
+    public void delete(String worldName, int x, int y, int z) {
+        enqueue(new Change(worldName, x, y, z, null, false));
+    }
+
+    @Override
+    public void checkpoint(List<HopperRecord> changed, Supplier<Registered> registered) {
+        for (HopperRecord record : changed) {
+            pending.add(new Change(record.worldName(), record.x(), record.y(), record.z(), record, true));
+        }
+        scheduleFlush();
+    }
+
+    @Override
+    public void close(List<HopperRecord> changed, Supplier<Registered> registered) {
+        for (HopperRecord record : changed) {
+            pending.add(new Change(record.worldName(), record.x(), record.y(), record.z(), record, true));
+        }
+        ioExecutor.execute(() -> {
+            flush(true);
+            if (!unsaved.isEmpty()) {
+                logger.severe("Failed to save " + unsaved.size() + " vacuum hopper changes on shutdown; they are lost.");
+            }
+            try {
+                if (connection != null) connection.close();
+            } catch (SQLException e) {
+                logger.warning("Failed to close vacuum hopper database: " + e.getMessage());
+            }
+        });
+        ioExecutor.shutdown();
+        try {
+            if (!ioExecutor.awaitTermination(30, TimeUnit.SECONDS)) {
+                logger.warning("Timed out waiting for vacuum hopper data to be written.");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void enqueue(Change change) {
+        pending.add(change);
+        scheduleFlush();
+    }
+
+    /**
+     * Coalesce queued changes into one flush task.
+     */
+    private void scheduleFlush() {
+        if (flushScheduled.compareAndSet(false, true)) {
+            ioExecutor.execute(() -> flush(false));
+        }
+    }
+
+    /**
+     * Write the queued changes, after the changes of a failed batch.
+     * @param force Write now even if a failed batch is still waiting for its retry
+     */
+    private void flush(boolean force) {
+        flushScheduled.set(false);
+        Change change;
+        while ((change = pending.poll()) != null) {
+            unsaved.merge(change.key(), change, Change::then);
+        }
+        if (unsaved.isEmpty()) return;
+        // The scheduled retry picks these up
+        if (!force && retryScheduled) return;
+
+        if (connection == null) {
+            open();
+            if (connection == null) {
+                scheduleRetry(null);
+                return;
+            }
+        }
+
+        List<Change> batch = new ArrayList<>(unsaved.values());
+        try {
+            writeBatch(batch);
+            unsaved.clear();
+            failedAttempts = 0;
+        } catch (SQLException e) {
+            scheduleRetry(e);
+        }
+    }
+
+    /**
+     * Keep the unsaved changes and try again later.
+     * @param error Why the batch failed, or null if the database is not open
+     */
+    private void scheduleRetry(SQLException error) {
+        failedAttempts++;
+        long delay = Math.min(MAX_RETRY_DELAY_MILLIS, RETRY_DELAY_MILLIS << Math.min(failedAttempts - 1, 16));
+        if (failedAttempts == MAX_RETRIES) {
+            // A stats update only applies to a row an earlier write created, which may be
+            // among the changes that failed: write those hoppers in full from now on
+            unsaved.replaceAll((key, change) -> change.asFullSave());
+            logger.severe("Still unable to save " + unsaved.size() + " vacuum hopper changes after "
+                    + failedAttempts + " attempts, re-saving those hoppers in full every "
+                    + (MAX_RETRY_DELAY_MILLIS / 1000) + "s" + (error != null ? ": " + error.getMessage() : ""));
+        } else if (error != null && failedAttempts < MAX_RETRIES) {
+            logger.warning("Failed to save vacuum hopper data, retrying in " + (delay / 1000) + "s: " + error.getMessage());
+        }
+
+        if (!retryScheduled && !ioExecutor.isShutdown()) {
+            retryScheduled = true;
+            ioExecutor.schedule(() -> {
+                retryScheduled = false;
+                flush(false);
+            }, delay, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private void writeBatch(List<Change> batch) throws SQLException {
+        connection.setAutoCommit(false);
+        try (PreparedStatement upsert = connection.prepareStatement(UPSERT);
+             PreparedStatement delete = connection.prepareStatement(DELETE);
+             PreparedStatement updateStats = connection.prepareStatement(UPDATE_STATS)) {
+
+            // Statements run in batch order per type, so flush the other types
+            // before switching to keep changes to the same hopper in order
+            PreparedStatement current = null;
+            for (Change change : batch) {
+                PreparedStatement next = change.record() == null ? delete
+                        : change.statsOnly() ? updateStats : upsert;
+                if (current != null && current != next) {
+                    current.executeBatch();
+                }
+                current = next;
+
+                if (next == upsert) {
+                    HopperRecord record = change.record();
+                    upsert.setString(1, record.worldName());
+                    upsert.setInt(2, record.x());
+                    upsert.setInt(3, record.y());
+                    upsert.setInt(4, record.z());
+                    upsert.setString(5, record.owner());
+                    upsert.setString(6, String.join(",", record.filter()));
+                    upsert.setString(7, String.join(";", record.links()));
+                    upsert.setLong(8, record.itemsCollected());
+                    upsert.setLong(9, record.itemsVoided());
+                    upsert.setString(10, String.join(",", record.buffer()));
+                } else if (next == updateStats) {
+                    HopperRecord record = change.record();
+                    updateStats.setLong(1, record.itemsCollected());
+                    updateStats.setLong(2, record.itemsVoided());
+                    updateStats.setString(3, String.join(",", record.buffer()));
+                    updateStats.setString(4, record.worldName());
+                    updateStats.setInt(5, record.x());
+                    updateStats.setInt(6, record.y());
+                    updateStats.setInt(7, record.z());
+                } else {
+                    delete.setString(1, change.worldName());
+                    delete.setInt(2, change.x());
+                    delete.setInt(3, change.y());
+                    delete.setInt(4, change.z());
+                }
+                next.addBatch();
+            }
+            if (current != null) {
+                current.executeBatch();
+            }
+            connection.commit();
+        } catch (SQLException e) {
+            connection.rollback();
+            throw e;
+        } finally {
+            connection.setAutoCommit(true);
+        }
+    }
+}
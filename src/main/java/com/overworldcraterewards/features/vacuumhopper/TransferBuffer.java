@@ -0,0 +1,149 @@
+package com.overworldcraterewards.features.vacuumhopper;
+
+import org.bukkit.Material;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Bounded per-hopper buffer of plain items waiting for a linked chest whose
+ * chunk is not loaded.
+ *
+ * Items are kept as material counts in parallel primitive arrays, so only
+ * items without meta (which are fully described by material and amount)
+ * may be buffered.
+ */
+public class TransferBuffer {
+
+    private static final Material[] MATERIALS = Material.values();
+    private static final int[] EMPTY = new int[0];
+
+    private int[] ordinals = EMPTY;
+    private int[] counts = EMPTY;
+    private int size = 0;
+    private int total = 0;
+
+    /**
+     * Add items to the buffer, as far as the capacity allows.
+     * @param capacity Maximum number of items held in total
+     * @return Number of items accepted
+     */
+    public int add(Material material, int amount, int capacity) {
+        int accepted = Math.min(amount, capacity - total);
+        if (accepted <= 0) return 0;
+
+        int ordinal = material.ordinal();
+        for (int i = 0; i < size; i++) {
+            if (ordinals[i] == ordinal) {
+                counts[i] += accepted;
+                total += accepted;
+                return accepted;
+            }
+        }
+
+        if (size == ordinals.length) {
+            int newLength = Math.max(4, size * 2);
+            ordinals = Arrays.copyOf(ordinals, newLength);
+            counts = Arrays.copyOf(counts, newLength);
+        }
+        ordinals[size] = ordinal;
+        counts[size] = accepted;
+        size++;
+        total += accepted;
+        return accepted;
+    }
+
+    /**
+     * Number of distinct materials in the buffer.
+     */
+    public int size() {
+        return size;
+    }
+
+    public Material getMaterial(int index) {
+        return MATERIALS[ordinals[index]];
+    }
+
+    public int getCount(int index) {
+        return counts[index];
+    }
+
+    /**
+     * Set the remaining count of an entry. An entry set to zero is
+     * swap-removed, so callers should iterate from the end.
+     */
+    public void setCount(int index, int count) {
+        total += count - counts[index];
+        if (count > 0) {
+            counts[index] = count;
+            return;
+        }
+
+        int last = size - 1;
+        ordinals[index] = ordinals[last];
+        counts[index] = counts[last];
+        size = last;
+        if (size == 0) {
+            ordinals = EMPTY;
+            counts = EMPTY;
+        }
+    }
+
+    /**
+     * Total number of buffered items.
+     */
+    public int getTotal() {
+        return total;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Approximate heap size in bytes (64-bit JVM, compressed oops).
+     */
+    public long estimateHeapBytes() {
+        long bytes = 32;
+        if (ordinals.length > 0) {
+            bytes += 2 * (16 + 4L * ordinals.length);
+        }
+        return bytes;
+    }
+
+    public void clear() {
+        ordinals = EMPTY;
+        counts = EMPTY;
+        size = 0;
+        total = 0;
+    }
+
+    // === Serialization ===
+
+    /**
+     * Entries in storage form: "MATERIAL=count".
+     */
+    public List<String> toEntries() {
+        List<String> entries = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            entries.add(MATERIALS[ordinals[i]].name() + "=" + counts[i]);
+        }
+        return entries;
+    }
+
+    /**
+     * Restore a stored entry. Malformed entries and unknown materials are skipped.
+     */
+    public void addEntry(String entry) {
+        int split = entry.indexOf('=');
+        if (split <= 0) return;
+        try {
+            Material material = Material.valueOf(entry.substring(0, split));
+            int count = Integer.parseInt(entry.substring(split + 1));
+            if (count > 0) {
+                add(material, count, Integer.MAX_VALUE);
+            }
+        } catch (IllegalArgumentException ignored) {}
+    }
+}
@@ -1,13 +1,16 @@
 package com.overworldcraterewards.features.vacuumhopper;
 
 import com.overworldcraterewards.OverworldCrateRewardsPlugin;
+import com.overworldcraterewards.config.ConfigManager;
+import com.overworldcraterewards.data.PDCKeys;
+import com.overworldcraterewards.items.ItemData;
 import com.overworldcraterewards.util.MessageUtil;
 import net.kyori.adventure.text.Component;
 import net.kyori.adventure.text.format.NamedTextColor;
 import net.kyori.adventure.text.format.TextDecoration;
 import org.bukkit.Bukkit;
-import org.bukkit.Location;
 import org.bukkit.Material;
+import org.bukkit.Tag;
 import org.bukkit.inventory.Inventory;
 import org.bukkit.inventory.ItemStack;
 import org.bukkit.inventory.meta.ItemMeta;
@@ -38,14 +41,24 @@ public class VacuumHopperGUI {
     public static final int INFO_LINKS_SLOT = 51;
     public static final int INFO_STATUS_SLOT = 52;
 
+    // Window of the recent throughput shown on the info items
+    private static final int RECENT_MINUTES = 5;
+
     /**
-     * Create and open the GUI for a placed hopper.
+     * Create the shared GUI inventory for a placed hopper.
      */
-    public static Inventory createGUI(Location hopperLoc, VacuumHopperManager.HopperData data,
-                                       VacuumHopperManager manager) {
-        Inventory gui = Bukkit.createInventory(null, 54,
+    static Inventory createGUI(HopperGUIView view, VacuumHopperManager.HopperData data) {
+        Inventory gui = Bukkit.createInventory(view, 54,
                 Component.text(GUI_TITLE_PREFIX, NamedTextColor.DARK_PURPLE)
                         .decoration(TextDecoration.BOLD, true));
+        populate(gui, data);
+        return gui;
+    }
+
+    /**
+     * Fill (or rebuild) the borders, link item, filter area and info items.
+     */
+    static void populate(Inventory gui, VacuumHopperManager.HopperData data) {
 
         // Fill borders with gray glass panes
         ItemStack border = createBorderItem();
@@ -61,34 +74,76 @@ public class VacuumHopperGUI {
             }
         }
 
-        // Link Item in slot 4
-        gui.setItem(LINK_ITEM_SLOT, createLinkItem(hopperLoc));
+        restoreLinkItem(gui, data);
 
         // Populate filter slots with current filter items as display
+        for (int i = FILTER_START; i <= FILTER_END; i++) {
+            gui.setItem(i, null);
+        }
         int slot = FILTER_START;
-        for (Material mat : data.getVoidFilter()) {
+        for (Material mat : data.getVoidFilter().getMaterials()) {
             if (slot > FILTER_END) break;
             gui.setItem(slot, createFilterDisplayItem(mat));
             slot++;
         }
+        for (String tag : data.getVoidFilter().getTags()) {
+            if (slot > FILTER_END) break;
+            gui.setItem(slot, createTagDisplayItem(tag));
+            slot++;
+        }
+
+        updateInfo(gui, data);
+    }
+
+    /**
+     * Put a fresh link item in slot 4, replacing whatever is there.
+     */
+    static void restoreLinkItem(Inventory gui, VacuumHopperManager.HopperData data) {
+        gui.setItem(LINK_ITEM_SLOT, createLinkItem(VacuumHopperManager.toLocationKey(data)));
+    }
+
+    /**
+     * Refresh the info items (counters, recent throughput, status) of an open GUI.
+     */
+    public static void updateInfo(Inventory gui, VacuumHopperManager.HopperData data) {
+        HopperThroughput throughput = data.getThroughput();
+        long now = Bukkit.getCurrentTick();
+
+        ItemStack collected = createInfoItem(Material.HOPPER, "Items Collected",
+                MessageUtil.formatNumber(data.getItemsCollected()), NamedTextColor.GREEN);
+        ItemStack voided = createInfoItem(Material.BARRIER, "Items Voided",
+                MessageUtil.formatNumber(data.getItemsVoided()), NamedTextColor.RED);
+        if (throughput != null) {
+            addLore(collected, "Last " + RECENT_MINUTES + " min: "
+                    + MessageUtil.formatNumber(throughput.getCollected(now, RECENT_MINUTES)), NamedTextColor.GRAY);
+            long failed = throughput.getFailed(now, RECENT_MINUTES);
+            if (failed > 0) {
+                addLore(collected, "Not delivered (chests full): " + MessageUtil.formatNumber(failed), NamedTextColor.YELLOW);
+            }
+            addLore(voided, "Last " + RECENT_MINUTES + " min: "
+                    + MessageUtil.formatNumber(throughput.getVoided(now, RECENT_MINUTES)), NamedTextColor.GRAY);
+        }
 
-        // Info items
-        gui.setItem(INFO_COLLECTED_SLOT, createInfoItem(Material.HOPPER, "Items Collected",
-                MessageUtil.formatNumber(data.getItemsCollected()), NamedTextColor.GREEN));
-        gui.setItem(INFO_VOIDED_SLOT, createInfoItem(Material.BARRIER, "Items Voided",
-                MessageUtil.formatNumber(data.getItemsVoided()), NamedTextColor.RED));
+        gui.setItem(INFO_COLLECTED_SLOT, collected);
+        gui.setItem(INFO_VOIDED_SLOT, voided);
         gui.setItem(INFO_LINKS_SLOT, createInfoItem(Material.TRIPWIRE_HOOK, "Linked Chests",
-                data.getLinkedChests().size() + "/" + OverworldCrateRewardsPlugin.getInstance()
+                data.getLinks().size() + "/" + OverworldCrateRewardsPlugin.getInstance()
                         .getConfigManager().getVacuumHopperMaxLinks(), NamedTextColor.AQUA));
-        gui.setItem(INFO_STATUS_SLOT, createInfoItem(Material.LIME_DYE, "Status", "Active", NamedTextColor.GREEN));
+        gui.setItem(INFO_STATUS_SLOT, createStatusItem(data));
+    }
 
-        return gui;
+    private static void addLore(ItemStack item, String line, NamedTextColor color) {
+        ItemMeta meta = item.getItemMeta();
+        List<Component> lore = new ArrayList<>(meta.lore());
+        lore.add(Component.text(line, color).decoration(TextDecoration.ITALIC, false));
+        meta.lore(lore);
+        item.setItemMeta(meta);
     }
 
     /**
      * Create the link item (Tripwire Hook).
      */
-    public static ItemStack createLinkItem(Location hopperLoc) {
+    public static ItemStack createLinkItem(String hopperKey) {
         ItemStack item = new ItemStack(Material.TRIPWIRE_HOOK);
         ItemMeta meta = item.getItemMeta();
         meta.displayName(Component.text("⚡ Hopper Link", NamedTextColor.AQUA)
@@ -103,7 +158,7 @@ public class VacuumHopperGUI {
         lore.add(Component.text("Place it back to save links", NamedTextColor.GRAY)
                 .decoration(TextDecoration.ITALIC, false));
         lore.add(Component.empty());
-        lore.add(Component.text("Hopper: " + VacuumHopperManager.toLocationKey(hopperLoc), NamedTextColor.DARK_GRAY)
+        lore.add(Component.text("Hopper: " + hopperKey, NamedTextColor.DARK_GRAY)
                 .decoration(TextDecoration.ITALIC, false));
         meta.lore(lore);
 
@@ -113,7 +168,7 @@ public class VacuumHopperGUI {
         meta.getPersistentDataContainer().set(
                 com.overworldcraterewards.data.PDCKeys.VACUUM_HOPPER_LINKS,
                 org.bukkit.persistence.PersistentDataType.STRING,
-                VacuumHopperManager.toLocationKey(hopperLoc)
+                hopperKey
         );
 
         item.setItemMeta(meta);
@@ -125,9 +180,14 @@ public class VacuumHopperGUI {
      */
     public static boolean isLinkItem(ItemStack item) {
         if (item == null || !item.hasItemMeta()) return false;
-        return item.getItemMeta().getPersistentDataContainer()
-                .has(com.overworldcraterewards.data.PDCKeys.VACUUM_HOPPER_LINKS,
-                        org.bukkit.persistence.PersistentDataType.STRING);
+        return ItemData.has(item, PDCKeys.VACUUM_HOPPER_LINKS);
+    }
+
+    /**
+     * Check if an item is the link item of the given hopper.
+     */
+    public static boolean isLinkItemFor(ItemStack item, VacuumHopperManager.HopperData data) {
+        return VacuumHopperManager.toLocationKey(data).equals(getLinkItemHopperKey(item));
     }
 
     /**
@@ -135,9 +195,7 @@ public class VacuumHopperGUI {
      */
     public static String getLinkItemHopperKey(ItemStack item) {
         if (item == null || !item.hasItemMeta()) return null;
-        return item.getItemMeta().getPersistentDataContainer()
-                .get(com.overworldcraterewards.data.PDCKeys.VACUUM_HOPPER_LINKS,
-                        org.bukkit.persistence.PersistentDataType.STRING);
+        return ItemData.getString(item, PDCKeys.VACUUM_HOPPER_LINKS);
     }
 
     private static ItemStack createBorderItem() {
@@ -164,6 +222,85 @@ public class VacuumHopperGUI {
         return item;
     }
 
+    /**
+     * Display item for a tag entry: the first item of the tag, marked with the tag name.
+     */
+    private static ItemStack createTagDisplayItem(String tagEntry) {
+        Tag<Material> tag = MaterialFilter.resolveTag(tagEntry);
+        Material icon = Material.NAME_TAG;
+        int size = 0;
+        if (tag != null) {
+            size = tag.getValues().size();
+            for (Material mat : tag.getValues()) {
+                if (mat.isItem()) {
+                    icon = mat;
+                    break;
+                }
+            }
+        }
+
+        ItemStack item = new ItemStack(icon);
+        ItemMeta meta = item.getItemMeta();
+        meta.displayName(Component.text(tagEntry, NamedTextColor.RED)
+                .decoration(TextDecoration.ITALIC, false));
+        List<Component> lore = new ArrayList<>();
+        lore.add(Component.text("✖ VOIDED", NamedTextColor.RED)
+                .decoration(TextDecoration.BOLD, true)
+                .decoration(TextDecoration.ITALIC, false));
+        lore.add(Component.text(tag != null ? "Tag: " + size + " items" : "Unknown tag", NamedTextColor.GRAY)
+                .decoration(TextDecoration.ITALIC, false));
+        lore.add(Component.text("Click to remove from filter", NamedTextColor.GRAY)
+                .decoration(TextDecoration.ITALIC, false));
+        meta.lore(lore);
+        meta.getPersistentDataContainer().set(
+                com.overworldcraterewards.data.PDCKeys.VACUUM_HOPPER_FILTER_TAG,
+                org.bukkit.persistence.PersistentDataType.STRING,
+                tagEntry
+        );
+        item.setItemMeta(meta);
+        return item;
+    }
+
+    /**
+     * Get the tag entry a filter display item stands for.
+     * @return The "#tag" entry, or null if the item is not a tag entry
+     */
+    public static String getFilterTag(ItemStack item) {
+        if (item == null || !item.hasItemMeta()) return null;
+        return ItemData.getString(item, PDCKeys.VACUUM_HOPPER_FILTER_TAG);
+    }
+
+    /**
+     * Status info item: activity, effective scan interval, wake reason and buffer.
+     */
+    private static ItemStack createStatusItem(VacuumHopperManager.HopperData data) {
+        ConfigManager config = OverworldCrateRewardsPlugin.getInstance().getConfigManager();
+        int baseInterval = config.getVacuumHopperRescanInterval();
+        int interval = data.getRescanInterval(baseInterval, config.getVacuumHopperIdleMaxInterval());
+        boolean idle = data.getIdleLevel() > 0;
+
+        ItemStack item = createInfoItem(idle ? Material.GRAY_DYE : Material.LIME_DYE, "Status",
+                idle ? "Idle" : "Active", idle ? NamedTextColor.GRAY : NamedTextColor.GREEN);
+        ItemMeta meta = item.getItemMeta();
+        List<Component> lore = new ArrayList<>(meta.lore());
+        lore.add(Component.text("Scan interval: " + (interval > 0 ? formatTicks(interval) : "off"), NamedTextColor.GRAY)
+                .decoration(TextDecoration.ITALIC, false));
+        lore.add(Component.text("Last woken by: " + data.getWakeReason().getDisplayName(), NamedTextColor.GRAY)
+                .decoration(TextDecoration.ITALIC, false));
+        if (!data.getBuffer().isEmpty()) {
+            // Items held for linked chests in unloaded chunks
+            lore.add(Component.text("Buffering " + MessageUtil.formatNumber(data.getBuffer().getTotal()) + " items",
+                    NamedTextColor.YELLOW).decoration(TextDecoration.ITALIC, false));
+        }
+        meta.lore(lore);
+        item.setItemMeta(meta);
+        return item;
+    }
+
+    private static String formatTicks(int ticks) {
+        return ticks % 20 == 0 ? (ticks / 20) + "s" : String.format("%.1fs", ticks / 20.0);
+    }
+
     private static ItemStack createInfoItem(Material material, String title, String value, NamedTextColor valueColor) {
         ItemStack item = new ItemStack(material);
         ItemMeta meta = item.getItemMeta();
@@ -19,9 +19,27 @@ import org.bukkit.event.EventPriority;
 import org.bukkit.event.Listener;
 import org.bukkit.event.block.Action;
 import org.bukkit.event.block.BlockBreakEvent;
+import org.bukkit.event.block.BlockExplodeEvent;
+import org.bukkit.event.block.BlockPistonExtendEvent;
+import org.bukkit.event.block.BlockPistonRetractEvent;
 import org.bukkit.event.block.BlockPlaceEvent;
+import org.bukkit.event.entity.EntityExplodeEvent;
+import org.bukkit.event.entity.ItemSpawnEvent;
+import org.bukkit.event.inventory.InventoryAction;
 import org.bukkit.event.inventory.InventoryClickEvent;
+import org.bukkit.event.inventory.InventoryDragEvent;
+import org.bukkit.event.inventory.InventoryMoveItemEvent;
+import org.bukkit.event.player.PlayerChangedWorldEvent;
 import org.bukkit.event.player.PlayerInteractEvent;
+import org.bukkit.event.player.PlayerJoinEvent;
+import org.bukkit.event.player.PlayerMoveEvent;
+import org.bukkit.event.player.PlayerQuitEvent;
+import org.bukkit.event.player.PlayerRespawnEvent;
+import org.bukkit.event.player.PlayerTeleportEvent;
+import org.bukkit.event.world.ChunkLoadEvent;
+import org.bukkit.event.world.ChunkUnloadEvent;
+import org.bukkit.event.world.WorldLoadEvent;
+import org.bukkit.event.world.WorldUnloadEvent;
 import org.bukkit.inventory.EquipmentSlot;
 import org.bukkit.inventory.Inventory;
 import org.bukkit.inventory.ItemStack;
@@ -30,9 +48,8 @@ import org.bukkit.persistence.PersistentDataContainer;
 import org.bukkit.persistence.PersistentDataType;
 
 import java.util.ArrayList;
-import java.util.HashSet;
+import java.util.Arrays;
 import java.util.List;
-import java.util.Set;
 
 /**
  * Handles block place/break, GUI interactions, and link item usage
@@ -43,9 +60,6 @@ public class VacuumHopperListener implements Listener {
     private final OverworldCrateRewardsPlugin plugin;
     private final VacuumHopperManager manager;
 
-    // Track which players have the hopper GUI open and which hopper
-    private final java.util.Map<java.util.UUID, Location> openGUIs = new java.util.HashMap<>();
-
     public VacuumHopperListener(OverworldCrateRewardsPlugin plugin, VacuumHopperManager manager) {
         this.plugin = plugin;
         this.manager = manager;
@@ -63,33 +77,33 @@ public class VacuumHopperListener implements Listener {
         Player player = event.getPlayer();
         Location loc = event.getBlockPlaced().getLocation();
 
+        // Enforce the per-player hopper limit
+        int limit = manager.getHopperLimit(player);
+        if (limit > 0 && manager.getOwnedHopperCount(player.getUniqueId()) >= limit) {
+            event.setCancelled(true);
+            player.sendMessage(Component.text("You have reached your limit of " + limit
+                    + " Vacuum Void Hoppers.", NamedTextColor.RED));
+            return;
+        }
+
         // Read filter/links from item PDC if exists (persistence across pickup/place)
-        Set<Material> filter = new HashSet<>();
-        List<Location> links = new ArrayList<>();
+        List<String> filter = new ArrayList<>();
+        List<String> links = new ArrayList<>();
 
         ItemMeta meta = item.getItemMeta();
         if (meta != null) {
             PersistentDataContainer pdc = meta.getPersistentDataContainer();
 
-            // Deserialize filter
+            // Deserialize filter (material names and #tags)
             String filterStr = pdc.get(PDCKeys.VACUUM_HOPPER_FILTER, PersistentDataType.STRING);
             if (filterStr != null && !filterStr.isEmpty()) {
-                for (String matName : filterStr.split(",")) {
-                    try {
-                        filter.add(Material.valueOf(matName.trim()));
-                    } catch (IllegalArgumentException ignored) {}
-                }
+                filter.addAll(Arrays.asList(filterStr.split(",")));
             }
 
             // Deserialize links
             String linksStr = pdc.get(PDCKeys.VACUUM_HOPPER_LINKS, PersistentDataType.STRING);
             if (linksStr != null && !linksStr.isEmpty()) {
-                for (String linkKey : linksStr.split(";")) {
-                    Location linkLoc = VacuumHopperManager.parseLocationKey(linkKey.trim());
-                    if (linkLoc != null) {
-                        links.add(linkLoc);
-                    }
-                }
+                links.addAll(Arrays.asList(linksStr.split(";")));
             }
         }
 
@@ -131,20 +145,16 @@ public class VacuumHopperListener implements Listener {
 
         // Serialize filter
         if (data != null && !data.getVoidFilter().isEmpty()) {
-            StringBuilder filterSb = new StringBuilder();
-            for (Material mat : data.getVoidFilter()) {
-                if (filterSb.length() > 0) filterSb.append(",");
-                filterSb.append(mat.name());
-            }
-            pdc.set(PDCKeys.VACUUM_HOPPER_FILTER, PersistentDataType.STRING, filterSb.toString());
+            pdc.set(PDCKeys.VACUUM_HOPPER_FILTER, PersistentDataType.STRING,
+                    String.join(",", data.getVoidFilter().toEntries()));
         }
 
         // Serialize links
-        if (data != null && !data.getLinkedChests().isEmpty()) {
+        if (data != null && !data.getLinks().isEmpty()) {
             StringBuilder linksSb = new StringBuilder();
-            for (Location linkLoc : data.getLinkedChests()) {
+            for (HopperLink link : data.getLinks()) {
                 if (linksSb.length() > 0) linksSb.append(";");
-                linksSb.append(VacuumHopperManager.toLocationKey(linkLoc));
+                linksSb.append(link.serialize());
             }
             pdc.set(PDCKeys.VACUUM_HOPPER_LINKS, PersistentDataType.STRING, linksSb.toString());
         }
@@ -179,9 +189,7 @@ public class VacuumHopperListener implements Listener {
         // This is handled in a separate event below
 
         VacuumHopperManager.HopperData data = manager.getHopper(loc);
-        Inventory gui = VacuumHopperGUI.createGUI(loc, data, manager);
-        openGUIs.put(player.getUniqueId(), loc);
-        player.openInventory(gui);
+        player.openInventory(manager.getGuiView(data).getInventory());
         player.playSound(player.getLocation(), Sound.BLOCK_ENDER_CHEST_OPEN, 0.5f, 1.2f);
     }
 
@@ -232,7 +240,7 @@ public class VacuumHopperListener implements Listener {
                     0.5
             );
             VacuumHopperManager.HopperData data = manager.getHopper(hopperLoc);
-            int linkCount = data != null ? data.getLinkedChests().size() : 0;
+            int linkCount = data != null ? data.getLinks().size() : 0;
             int maxLinks = plugin.getConfigManager().getVacuumHopperMaxLinks();
             player.sendActionBar(Component.text("✓ Chest linked! (" + linkCount + "/" + maxLinks + ")", NamedTextColor.GREEN));
         } else {
@@ -247,19 +255,21 @@ public class VacuumHopperListener implements Listener {
     public void onInventoryClick(InventoryClickEvent event) {
         if (!(event.getWhoClicked() instanceof Player player)) return;
 
-        Location hopperLoc = openGUIs.get(player.getUniqueId());
-        if (hopperLoc == null) return;
-
-        // Check if it's our GUI (by title)
-        Component title = event.getView().title();
-        if (title == null) return;
-        // Simple check: if player has an open GUI tracked, handle it
+        if (!(event.getInventory().getHolder(false) instanceof HopperGUIView view)) return;
 
         int slot = event.getRawSlot();
 
-        // Allow link item to be taken/placed in slot 4
+        // Link item slot is take-only: the only item that may go in is this hopper's link item
         if (slot == VacuumHopperGUI.LINK_ITEM_SLOT) {
-            // Allow taking/placing the link item
+            boolean allowed = switch (event.getAction()) {
+                case PICKUP_ALL, PICKUP_HALF, PICKUP_ONE, PICKUP_SOME, MOVE_TO_OTHER_INVENTORY -> true;
+                case PLACE_ALL, PLACE_ONE, PLACE_SOME, SWAP_WITH_CURSOR ->
+                        VacuumHopperGUI.isLinkItemFor(event.getCursor(), view.getData());
+                default -> false;
+            };
+            if (!allowed) {
+                event.setCancelled(true);
+            }
             return;
         }
 
@@ -273,13 +283,22 @@ public class VacuumHopperListener implements Listener {
         if (slot >= 0 && slot < 54 && VacuumHopperGUI.isFilterSlot(slot)) {
             event.setCancelled(true);
 
-            VacuumHopperManager.HopperData data = manager.getHopper(hopperLoc);
-            if (data == null) return;
+            VacuumHopperManager.HopperData data = view.getData();
 
             ItemStack currentSlotItem = event.getCurrentItem();
             ItemStack cursorItem = event.getCursor();
 
-            if (currentSlotItem != null && currentSlotItem.getType() != Material.AIR) {
+            String tagEntry = VacuumHopperGUI.getFilterTag(currentSlotItem);
+            if (tagEntry != null) {
+                // Clicking a tag entry → remove the whole tag from filter
+                data.getVoidFilter().removeTag(tagEntry);
+                event.getInventory().setItem(slot, null);
+                player.playSound(player.getLocation(), Sound.BLOCK_NOTE_BLOCK_BASS, 0.5f, 1.0f);
+                player.sendActionBar(Component.text("Removed ", NamedTextColor.RED)
+                        .append(Component.text(tagEntry, NamedTextColor.WHITE))
+                        .append(Component.text(" from void filter", NamedTextColor.RED)));
+                view.markUnsaved();
+            } else if (currentSlotItem != null && currentSlotItem.getType() != Material.AIR) {
                 // Clicking an existing filter item → remove it from filter
                 Material filterMat = currentSlotItem.getType();
                 data.getVoidFilter().remove(filterMat);
@@ -288,11 +307,11 @@ public class VacuumHopperListener implements Listener {
                 player.sendActionBar(Component.text("Removed ", NamedTextColor.RED)
                         .append(Component.text(com.overworldcraterewards.util.MessageUtil.formatMaterialName(filterMat.name()), NamedTextColor.WHITE))
                         .append(Component.text(" from void filter", NamedTextColor.RED)));
-                manager.saveData();
+                view.markUnsaved();
             } else if (cursorItem != null && cursorItem.getType() != Material.AIR) {
                 // Clicking empty slot with item on cursor → add to filter
                 Material filterMat = cursorItem.getType();
-                if (!data.getVoidFilter().contains(filterMat)) {
+                if (!data.getVoidFilter().hasMaterial(filterMat)) {
                     data.getVoidFilter().add(filterMat);
 
                     // Create display item (don't consume player's item)
@@ -314,31 +333,186 @@ public class VacuumHopperListener implements Listener {
                     player.sendActionBar(Component.text("Added ", NamedTextColor.GREEN)
                             .append(Component.text(com.overworldcraterewards.util.MessageUtil.formatMaterialName(filterMat.name()), NamedTextColor.WHITE))
                             .append(Component.text(" to void filter", NamedTextColor.GREEN)));
-                    manager.saveData();
+                    view.markUnsaved();
                 }
             }
             return;
         }
 
+        // Shift-clicking from the player inventory would move the item into the GUI
+        if (event.getAction() == InventoryAction.MOVE_TO_OTHER_INVENTORY) {
+            event.setCancelled(true);
+            return;
+        }
+
         // Clicks in player inventory while GUI is open — allow normally
         // (player can pick up items from their inventory to use as filter templates)
     }
 
     /**
-     * Handle GUI close: remove from tracking, save data.
+     * Dragging items across the GUI would place them in its slots.
+     */
+    @EventHandler
+    public void onInventoryDrag(InventoryDragEvent event) {
+        if (!(event.getInventory().getHolder(false) instanceof HopperGUIView)) return;
+
+        int size = event.getInventory().getSize();
+        for (int slot : event.getRawSlots()) {
+            if (slot < size) {
+                event.setCancelled(true);
+                return;
+            }
+        }
+    }
+
+    /**
+     * Handle GUI close: filter edits made in the shared view are saved
+     * once, when its last viewer closes it.
+     * Closing any container also lets linked chests there be tried again.
      */
     @EventHandler
     public void onInventoryClose(org.bukkit.event.inventory.InventoryCloseEvent event) {
-        if (!(event.getPlayer() instanceof Player player)) return;
+        if (!(event.getPlayer() instanceof Player)) return;
+
+        // The closing player is still counted as a viewer
+        if (event.getInventory().getHolder(false) instanceof HopperGUIView view
+                && event.getInventory().getViewers().size() <= 1
+                && view.consumeUnsaved() && manager.isRegistered(view.getData())) {
+            manager.saveGuiEdits(view);
+        }
+
+        // A player may have taken items out of a linked chest
+        manager.onContainerChanged(event.getInventory());
+    }
+
+    // === Full-Chest Memory: a hopper or dropper pulled items out of a linked chest ===
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onInventoryMoveItem(InventoryMoveItemEvent event) {
+        manager.onContainerChanged(event.getSource());
+    }
+
+    // === Link Invalidation: drop cached container handles when blocks change ===
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onLinkedBlockBreak(BlockBreakEvent event) {
+        manager.onBlockChange(event.getBlock());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onLinkedBlockPlace(BlockPlaceEvent event) {
+        // A chest placed next to a linked chest turns it into a double chest
+        manager.onBlockChange(event.getBlockPlaced());
+    }
 
-        Location hopperLoc = openGUIs.remove(player.getUniqueId());
-        if (hopperLoc != null) {
-            // Check if link item was placed back
-            // (This is handled automatically since the link item stays in the GUI)
-            manager.saveData();
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onBlockExplode(BlockExplodeEvent event) {
+        for (Block block : event.blockList()) {
+            manager.onBlockChange(block);
         }
     }
 
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onEntityExplode(EntityExplodeEvent event) {
+        for (Block block : event.blockList()) {
+            manager.onBlockChange(block);
+        }
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onPistonExtend(BlockPistonExtendEvent event) {
+        for (Block block : event.getBlocks()) {
+            manager.onBlockChange(block);
+            manager.onBlockChange(block.getRelative(event.getDirection()));
+        }
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onPistonRetract(BlockPistonRetractEvent event) {
+        for (Block block : event.getBlocks()) {
+            manager.onBlockChange(block);
+            manager.onBlockChange(block.getRelative(event.getDirection()));
+        }
+    }
+
+    // === Item Routing: spawned items go straight to the owning hopper's queue ===
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onItemSpawn(ItemSpawnEvent event) {
+        manager.onItemSpawn(event.getEntity());
+    }
+
+    // === Player Tracking: activation range and idle wake-up ===
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onPlayerMove(PlayerMoveEvent event) {
+        // Walking only; teleports and portals have their own events below
+        trackChunkCrossing(event.getPlayer(), event.getFrom(), event.getTo());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onPlayerTeleport(PlayerTeleportEvent event) {
+        // Also fires for portals (PlayerPortalEvent extends PlayerTeleportEvent)
+        trackChunkCrossing(event.getPlayer(), event.getFrom(), event.getTo());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPlayerChangedWorld(PlayerChangedWorldEvent event) {
+        // Catches world changes made without a teleport event, e.g. by other plugins
+        Location loc = event.getPlayer().getLocation();
+        manager.onPlayerEnterChunk(event.getPlayer(), loc.getWorld(), loc.getBlockX() >> 4, loc.getBlockZ() >> 4);
+    }
+
+    private void trackChunkCrossing(Player player, Location from, Location to) {
+        int chunkX = to.getBlockX() >> 4;
+        int chunkZ = to.getBlockZ() >> 4;
+        if (chunkX == from.getBlockX() >> 4 && chunkZ == from.getBlockZ() >> 4
+                && to.getWorld() == from.getWorld()) {
+            return;
+        }
+        manager.onPlayerEnterChunk(player, to.getWorld(), chunkX, chunkZ);
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPlayerJoin(PlayerJoinEvent event) {
+        Location loc = event.getPlayer().getLocation();
+        manager.onPlayerEnterChunk(event.getPlayer(), loc.getWorld(), loc.getBlockX() >> 4, loc.getBlockZ() >> 4);
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPlayerRespawn(PlayerRespawnEvent event) {
+        // Respawning does not fire a move event
+        Location loc = event.getRespawnLocation();
+        manager.onPlayerEnterChunk(event.getPlayer(), loc.getWorld(), loc.getBlockX() >> 4, loc.getBlockZ() >> 4);
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPlayerQuit(PlayerQuitEvent event) {
+        manager.onPlayerQuit(event.getPlayer());
+    }
+
+    // === Chunk Lifecycle: only loaded chunks are ticked ===
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onChunkLoad(ChunkLoadEvent event) {
+        manager.onChunkLoad(event.getChunk());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onChunkUnload(ChunkUnloadEvent event) {
+        manager.onChunkUnload(event.getChunk());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onWorldLoad(WorldLoadEvent event) {
+        manager.loadWorld(event.getWorld());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onWorldUnload(WorldUnloadEvent event) {
+        manager.onWorldUnload(event.getWorld());
+    }
+
     public VacuumHopperManager getManager() {
         return manager;
     }
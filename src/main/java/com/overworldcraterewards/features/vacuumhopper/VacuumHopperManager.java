@@ -2,15 +2,22 @@ package com.overworldcraterewards.features.vacuumhopper;
 
 import com.overworldcraterewards.OverworldCrateRewardsPlugin;
 import com.overworldcraterewards.config.ConfigManager;
+import com.overworldcraterewards.hooks.RoseStackerHook;
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.longs.LongIterator;
+import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
+import it.unimi.dsi.fastutil.longs.LongSet;
 import org.bukkit.Bukkit;
+import org.bukkit.Chunk;
 import org.bukkit.Location;
 import org.bukkit.Material;
 import org.bukkit.Particle;
 import org.bukkit.World;
 import org.bukkit.block.Block;
-import org.bukkit.block.Container;
 import org.bukkit.entity.Entity;
 import org.bukkit.entity.Item;
+import org.bukkit.entity.Player;
 import org.bukkit.inventory.Inventory;
 import org.bukkit.inventory.ItemStack;
 import org.bukkit.scheduler.BukkitRunnable;
@@ -18,15 +25,19 @@ import org.bukkit.scheduler.BukkitTask;
 
 import java.io.File;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
-
-import org.bukkit.configuration.ConfigurationSection;
-import org.bukkit.configuration.file.YamlConfiguration;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
 
 /**
  * Manages all placed Vacuum Void Hoppers in the world.
@@ -38,226 +49,1176 @@ public class VacuumHopperManager {
     private final OverworldCrateRewardsPlugin plugin;
     private final ConfigManager config;
 
-    // Runtime data for all placed hoppers, keyed by location string "world:x:y:z"
-    private final Map<String, HopperData> placedHoppers = new HashMap<>();
+    // Runtime data for all placed hoppers, bucketed by world and chunk
+    private final HopperRegistry registry = new HopperRegistry();
+
+    // Hopper catchment areas, used to route spawned items to their hopper
+    private final CatchmentIndex catchments;
+
+    // Linked containers by chunk, used to invalidate cached inventory handles
+    private final LinkIndex linkIndex = new LinkIndex();
+
+    // Hoppers by owner, used for placement limits and listings
+    private final OwnerIndex ownerIndex = new OwnerIndex();
+
+    // Shared GUI of each hopper that has been opened, kept until the hopper is removed
+    private final Map<HopperData, HopperGUIView> guiViews = new HashMap<>();
+
+    // Online players by chunk, used for the activation range
+    private final PlayerChunkGrid playerGrid = new PlayerChunkGrid();
 
     // Tick tasks
     private BukkitTask vacuumTask;
     private BukkitTask particleTask;
+    private BukkitTask compactTask;
+    private BukkitTask snapshotTask;
+    private BukkitTask reconcileTask;
+    private BukkitTask guiRefreshTask;
+
+    // Background pruning of dead hoppers and links
+    private final HopperReconciler reconciler;
+
+    // Round-robin cursor over active buckets, resumed every tick
+    private int bucketCursor = 0;
+    private int hopperCursor = 0;
+    private int pendingQuota = 0;
+    private final HopperTickStats tickStats = new HopperTickStats();
+
+    // Hoppers whose buffered items should be flushed on the next tick
+    private final Set<HopperData> pendingFlush = new LinkedHashSet<>();
+
+    // Hoppers whose buffer changed this tick, journaled once at the end of the tick
+    private final Set<HopperData> bufferChanged = new LinkedHashSet<>();
+
+    // How long a chest found full is skipped before it is tried again,
+    // unless an inventory change clears the flag sooner
+    private static final long FULL_RECHECK_TICKS = 100;
+
+    // Read-only view for other threads, republished at most once a second
+    private final AtomicReference<HopperSnapshot> snapshot = new AtomicReference<>(HopperSnapshot.EMPTY);
+
+    // Chunks changed since the last publication: world name -> chunk keys
+    private final Map<String, LongSet> snapshotChanges = new HashMap<>();
 
-    // Data file
-    private File dataFile;
+    // Durable storage (journaled YAML or SQLite)
+    private final HopperStorage storage;
+
+    // Worlds whose hoppers have been requested from storage
+    private final Set<String> loadedWorlds = new HashSet<>();
+
+    // Worlds whose stored hoppers have been registered, so the registry holds all of them
+    private final Set<String> registeredWorlds = new HashSet<>();
 
     public VacuumHopperManager(OverworldCrateRewardsPlugin plugin) {
         this.plugin = plugin;
         this.config = plugin.getConfigManager();
-        this.dataFile = new File(plugin.getDataFolder(), "vacuum-hoppers.yml");
+        this.storage = createStorage();
+        this.catchments = new CatchmentIndex(config.getVacuumHopperRadius());
+        this.reconciler = new HopperReconciler(plugin, this);
 
-        loadData();
+        // Other worlds are loaded as they come up
+        for (World world : Bukkit.getWorlds()) {
+            loadWorld(world);
+        }
+        for (Player player : Bukkit.getOnlinePlayers()) {
+            Location loc = player.getLocation();
+            playerGrid.update(player.getUniqueId(), loc.getWorld().getName(), loc.getBlockX() >> 4, loc.getBlockZ() >> 4);
+        }
         startTasks();
+
+        // Give multi-world plugins time to load their worlds before deciding one is gone
+        if (config.isVacuumHopperQuarantineMissingWorlds()) {
+            Bukkit.getScheduler().runTaskLater(plugin, () -> reconciler.quarantineMissingWorlds(storage), 1200L);
+        }
+    }
+
+    private HopperStorage createStorage() {
+        File yamlFile = new File(plugin.getDataFolder(), "vacuum-hoppers.yml");
+        if (config.getVacuumHopperStorage().equalsIgnoreCase("sqlite")) {
+            return new SqliteHopperStorage(plugin.getLogger(),
+                    new File(plugin.getDataFolder(), "vacuum-hoppers.db"), yamlFile);
+        }
+        return new HopperJournal(plugin.getLogger(), yamlFile, config.getVacuumHopperBackupGenerations());
+    }
+
+    /**
+     * Why an idle hopper last went back to its base scan interval.
+     */
+    public enum WakeReason {
+        LOADED("Loaded"),
+        ITEM_SPAWN("Item spawned"),
+        PLAYER_NEARBY("Player nearby"),
+        CHUNK_LOAD("Chunk loaded");
+
+        private final String displayName;
+
+        WakeReason(String displayName) {
+            this.displayName = displayName;
+        }
+
+        public String getDisplayName() { return displayName; }
     }
 
     /**
      * Data class for a placed hopper.
      */
     public static class HopperData {
+        private final int worldId;
+        private final long blockKey;
         private UUID owner;
-        private Set<Material> voidFilter = new HashSet<>();
-        private List<Location> linkedChests = new ArrayList<>();
+        private final MaterialFilter voidFilter = new MaterialFilter();
+        private final List<HopperLink> links = new ArrayList<>();
+        private final TransferBuffer buffer = new TransferBuffer();
         private long itemsCollected = 0;
         private long itemsVoided = 0;
+        private boolean statsDirty = false;
+
+        // Recent per-minute counts, allocated once the hopper does anything
+        private HopperThroughput throughput;
+
+        // Compiled routing table, rebuilt lazily after links or routes change:
+        // sorter links for a material first, then the general links
+        private Map<Material, HopperLink[]> routeTable;
+        private HopperLink[] defaultRoute;
+
+        // Items routed to this hopper, drained by the vacuum tick (allocated on first use),
+        // flagged once they have been counted as not delivered
+        private Map<Item, Boolean> queuedItems;
+        private long nextRescanTick = 0;
 
+        // Consecutive empty area scans; each one doubles the scan interval
+        private int idleLevel = 0;
+        private WakeReason wakeReason = WakeReason.LOADED;
+
+        public HopperData(String worldName, int x, int y, int z) {
+            this.worldId = WorldIds.id(worldName);
+            this.blockKey = Block.getBlockKey(x, y, z);
+        }
+
+        public String getWorldName() { return WorldIds.name(worldId); }
+        public long getBlockKey() { return blockKey; }
+        public int getX() { return Block.getBlockKeyX(blockKey); }
+        public int getY() { return Block.getBlockKeyY(blockKey); }
+        public int getZ() { return Block.getBlockKeyZ(blockKey); }
         public UUID getOwner() { return owner; }
         public void setOwner(UUID owner) { this.owner = owner; }
-        public Set<Material> getVoidFilter() { return voidFilter; }
-        public List<Location> getLinkedChests() { return linkedChests; }
+        public MaterialFilter getVoidFilter() { return voidFilter; }
+        public List<HopperLink> getLinks() { return links; }
+        public TransferBuffer getBuffer() { return buffer; }
         public long getItemsCollected() { return itemsCollected; }
         public void setItemsCollected(long count) { this.itemsCollected = count; }
         public long getItemsVoided() { return itemsVoided; }
         public void setItemsVoided(long count) { this.itemsVoided = count; }
+        public boolean isStatsDirty() { return statsDirty; }
+        public void setStatsDirty(boolean dirty) { this.statsDirty = dirty; }
+        public Set<Item> getQueuedItems() { return queuedItems != null ? queuedItems.keySet() : Collections.emptySet(); }
+
+        public void queueItem(Item item) {
+            if (queuedItems == null) {
+                queuedItems = new LinkedHashMap<>();
+            }
+            queuedItems.putIfAbsent(item, Boolean.FALSE);
+        }
+
+        /**
+         * Flag a queued item that could not be delivered.
+         * @return True the first time, so it is counted once however long it waits
+         */
+        private boolean markUndelivered(Item item) {
+            return queuedItems != null && queuedItems.replace(item, Boolean.FALSE, Boolean.TRUE);
+        }
+
+        public void clearQueue() {
+            queuedItems = null;
+        }
+
+        /**
+         * @return Recent throughput, or null if the hopper has not moved anything yet
+         */
+        public HopperThroughput getThroughput() { return throughput; }
+
+        private HopperThroughput throughput() {
+            if (throughput == null) {
+                throughput = new HopperThroughput();
+            }
+            return throughput;
+        }
+
+        /**
+         * Approximate retained heap of this hopper in bytes, assuming a 64-bit
+         * JVM with compressed oops. Shared objects (Materials, Items) are not counted.
+         */
+        public long estimateHeapBytes() {
+            long bytes = 88; // This object
+            if (owner != null) bytes += 32;
+            bytes += 24 + voidFilter.estimateHeapBytes();
+            bytes += 24 + 16 + 4L * links.size(); // ArrayList + backing array
+            for (HopperLink link : links) {
+                bytes += link.estimateHeapBytes();
+            }
+            bytes += buffer.estimateHeapBytes();
+            if (throughput != null) bytes += HopperThroughput.estimateHeapBytes();
+            if (queuedItems != null) {
+                bytes += 72 + 40L * queuedItems.size() + 16 + 4L * Integer.highestOneBit(Math.max(16, queuedItems.size() * 2));
+            }
+            if (routeTable != null && !routeTable.isEmpty()) {
+                bytes += 48 + (16 + 32 + 16 + 4L * links.size()) * routeTable.size();
+            }
+            if (defaultRoute != null) {
+                bytes += 16 + 4L * defaultRoute.length;
+            }
+            return bytes;
+        }
+        public long getNextRescanTick() { return nextRescanTick; }
+        public void setNextRescanTick(long tick) { this.nextRescanTick = tick; }
+        public int getIdleLevel() { return idleLevel; }
+        public WakeReason getWakeReason() { return wakeReason; }
+
+        /**
+         * Effective area scan interval: the base interval doubled once per
+         * consecutive empty scan, capped at maxInterval.
+         */
+        public int getRescanInterval(int baseInterval, int maxInterval) {
+            if (baseInterval <= 0) return baseInterval;
+            long interval = (long) baseInterval << idleLevel;
+            return (int) Math.min(interval, Math.max(baseInterval, maxInterval));
+        }
+
+        /**
+         * Record the result of an area scan, backing off after an empty one.
+         */
+        private void onScan(boolean empty, int baseInterval, int maxInterval) {
+            if (!empty) {
+                idleLevel = 0;
+            } else if (getRescanInterval(baseInterval, maxInterval) < maxInterval) {
+                idleLevel++;
+            }
+        }
+
+        /**
+         * Drop back to the base scan interval, scanning again within one base interval.
+         */
+        private void wake(WakeReason reason, long now, int baseInterval) {
+            wakeReason = reason;
+            if (idleLevel == 0) return;
+            idleLevel = 0;
+            if (baseInterval > 0) {
+                nextRescanTick = Math.min(nextRescanTick, now + baseInterval);
+            }
+        }
+
+        /**
+         * Get the linked chests to try for a material, in order.
+         */
+        public HopperLink[] getRoute(Material material) {
+            if (defaultRoute == null) {
+                compileRoutes();
+            }
+            HopperLink[] route = routeTable.get(material);
+            return route != null ? route : defaultRoute;
+        }
+
+        /**
+         * Drop the compiled routing table after links or their routes changed.
+         */
+        public void invalidateRoutes() {
+            routeTable = null;
+            defaultRoute = null;
+        }
+
+        private void compileRoutes() {
+            List<HopperLink> general = new ArrayList<>(links.size());
+            Map<Material, List<HopperLink>> sorted = new HashMap<>();
+            for (HopperLink link : links) {
+                MaterialFilter routes = link.getRoutes();
+                if (routes == null) {
+                    general.add(link);
+                } else {
+                    routes.forEachMaterial(mat -> sorted.computeIfAbsent(mat, k -> new ArrayList<>(2)).add(link));
+                }
+            }
+
+            defaultRoute = general.toArray(new HopperLink[0]);
+            if (sorted.isEmpty()) {
+                routeTable = Collections.emptyMap();
+                return;
+            }
+
+            // Overflow from sorter chests goes to the general chests
+            routeTable = new HashMap<>(sorted.size() * 2);
+            for (Map.Entry<Material, List<HopperLink>> entry : sorted.entrySet()) {
+                List<HopperLink> route = entry.getValue();
+                route.addAll(general);
+                routeTable.put(entry.getKey(), route.toArray(new HopperLink[0]));
+            }
+        }
     }
 
     /**
      * Start the repeating tasks for vacuum collection and particles.
      */
     private void startTasks() {
-        int tickInterval = config.getVacuumHopperTickInterval();
-
-        // Vacuum + transfer task
+        // Vacuum + transfer task: runs every tick and handles a slice of the hoppers
         vacuumTask = new BukkitRunnable() {
             @Override
             public void run() {
-                for (Map.Entry<String, HopperData> entry : new HashMap<>(placedHoppers).entrySet()) {
-                    Location loc = parseLocationKey(entry.getKey());
-                    if (loc == null || !loc.isWorldLoaded()) continue;
+                runVacuumSlice();
+            }
+        }.runTaskTimer(plugin, 20L, 1L);
 
-                    // Check if chunk is loaded
-                    if (!loc.getWorld().isChunkLoaded(loc.getBlockX() >> 4, loc.getBlockZ() >> 4)) {
-                        continue;
+        // Particle task: pulsing aura every 40 ticks (2 seconds)
+        particleTask = new BukkitRunnable() {
+            @Override
+            public void run() {
+                int range = config.getVacuumHopperActivationRange();
+                for (HopperRegistry.ChunkBucket bucket : registry.getActiveBuckets()) {
+                    // Don't waste particles on hoppers no player can see
+                    if (!playerGrid.isPlayerNear(bucket.getWorldName(), bucket.getChunkKey(), range)) continue;
+
+                    World world = bucket.getWorld();
+                    for (HopperData data : bucket.getHoppers()) {
+                        spawnParticles(world, data);
                     }
+                }
+            }
+        }.runTaskTimer(plugin, 40L, 40L);
 
-                    // Verify the block is still a lodestone
-                    Block block = loc.getBlock();
-                    if (block.getType() != Material.LODESTONE) {
-                        // Block was broken by something else, remove data
-                        placedHoppers.remove(entry.getKey());
-                        continue;
-                    }
+        // Checkpoint task: persist item counters and compact pending changes
+        long saveInterval = Math.max(1, config.getVacuumHopperSaveInterval()) * 20L;
+        compactTask = new BukkitRunnable() {
+            @Override
+            public void run() {
+                storage.checkpoint(collectChangedStats(), VacuumHopperManager.this::collectRegistered);
+            }
+        }.runTaskTimer(plugin, saveInterval, saveInterval);
 
-                    HopperData data = entry.getValue();
-                    int radius = config.getVacuumHopperRadius();
-                    int transferRate = config.getVacuumHopperTransferRate();
-                    int itemsTransferred = 0;
-
-                    // Collect nearby items
-                    for (Entity entity : loc.getWorld().getNearbyEntities(loc.clone().add(0.5, 0.5, 0.5), radius, radius, radius)) {
-                        if (!(entity instanceof Item itemEntity)) continue;
-                        if (itemEntity.isDead()) continue;
-                        if (itemEntity.getPickupDelay() > 40) continue; // Skip recently dropped items with long delay
-
-                        ItemStack itemStack = itemEntity.getItemStack();
-
-                        // Check void filter
-                        if (data.getVoidFilter().contains(itemStack.getType())) {
-                            // Void this item
-                            data.setItemsVoided(data.getItemsVoided() + itemStack.getAmount());
-                            itemEntity.remove();
-                            continue;
-                        }
-
-                        // Try to transfer to linked chests
-                        boolean transferred = false;
-                        for (Location chestLoc : new ArrayList<>(data.getLinkedChests())) {
-                            if (chestLoc == null || !chestLoc.isWorldLoaded()) continue;
-                            if (!chestLoc.getWorld().isChunkLoaded(chestLoc.getBlockX() >> 4, chestLoc.getBlockZ() >> 4)) {
-                                continue;
-                            }
-
-                            Block chestBlock = chestLoc.getBlock();
-                            if (!(chestBlock.getState() instanceof Container container)) {
-                                // Chest was broken, remove link
-                                data.getLinkedChests().remove(chestLoc);
-                                continue;
-                            }
-
-                            Inventory inv = container.getInventory();
-                            HashMap<Integer, ItemStack> remaining = inv.addItem(itemStack.clone());
-
-                            if (remaining.isEmpty()) {
-                                // Fully transferred
-                                itemEntity.remove();
-                                transferred = true;
-                                data.setItemsCollected(data.getItemsCollected() + itemStack.getAmount());
-                                itemsTransferred += itemStack.getAmount();
-                                break;
-                            } else {
-                                // Partially transferred
-                                int transferredCount = itemStack.getAmount() - remaining.values().stream()
-                                        .mapToInt(ItemStack::getAmount).sum();
-                                if (transferredCount > 0) {
-                                    data.setItemsCollected(data.getItemsCollected() + transferredCount);
-                                    itemsTransferred += transferredCount;
-                                    // Update the item entity with remaining amount
-                                    ItemStack leftover = remaining.values().iterator().next();
-                                    itemEntity.setItemStack(leftover);
-                                }
-                                // Try next chest for overflow
-                            }
-                        }
-
-                        // If no linked chests or all full, pull item toward hopper but don't delete it
-                        if (!transferred && !data.getLinkedChests().isEmpty()) {
-                            // Item stays in world, can be picked up by player
-                        } else if (!transferred) {
-                            // No linked chests — just pull toward hopper location
-                            double distance = itemEntity.getLocation().distance(loc.clone().add(0.5, 0.5, 0.5));
-                            if (distance > 1.5) {
-                                org.bukkit.util.Vector direction = loc.clone().add(0.5, 0.5, 0.5).toVector()
-                                        .subtract(itemEntity.getLocation().toVector()).normalize();
-                                itemEntity.setVelocity(direction.multiply(0.3));
-                            }
-                        }
-
-                        if (itemsTransferred >= transferRate) break;
-                    }
+        // Snapshot task: republish the chunks that changed, if any
+        snapshotTask = new BukkitRunnable() {
+            @Override
+            public void run() {
+                if (!snapshotChanges.isEmpty()) {
+                    publishSnapshot();
                 }
             }
-        }.runTaskTimer(plugin, 20L, tickInterval);
+        }.runTaskTimer(plugin, 20L, 20L);
 
-        // Particle task: pulsing aura every 40 ticks (2 seconds)
-        particleTask = new BukkitRunnable() {
+        // Reconcile task: validate a few hoppers and links per tick
+        reconcileTask = new BukkitRunnable() {
             @Override
             public void run() {
-                for (Map.Entry<String, HopperData> entry : placedHoppers.entrySet()) {
-                    Location loc = parseLocationKey(entry.getKey());
-                    if (loc == null || !loc.isWorldLoaded()) continue;
-                    if (!loc.getWorld().isChunkLoaded(loc.getBlockX() >> 4, loc.getBlockZ() >> 4)) continue;
-
-                    // Check if any player is nearby (don't waste particles)
-                    boolean playerNearby = false;
-                    for (org.bukkit.entity.Player p : loc.getWorld().getPlayers()) {
-                        if (p.getLocation().distance(loc) < 48) {
-                            playerNearby = true;
-                            break;
-                        }
-                    }
-                    if (!playerNearby) continue;
-
-                    // Pulsing ring particles
-                    double radius = config.getVacuumHopperRadius();
-                    Location center = loc.clone().add(0.5, 0.5, 0.5);
-                    int points = 16;
-                    for (int i = 0; i < points; i++) {
-                        double angle = (2 * Math.PI / points) * i;
-                        double x = center.getX() + radius * Math.cos(angle);
-                        double z = center.getZ() + radius * Math.sin(angle);
-                        Location particleLoc = new Location(loc.getWorld(), x, center.getY(), z);
-                        loc.getWorld().spawnParticle(
-                                Particle.PORTAL,
-                                particleLoc,
-                                1,
-                                0, 0, 0,
-                                0.01
-                        );
-                    }
+                reconciler.tick();
+            }
+        }.runTaskTimer(plugin, 1L, 1L);
+
+        // GUI refresh task: keep the info items of open hopper GUIs up to date
+        guiRefreshTask = new BukkitRunnable() {
+            @Override
+            public void run() {
+                refreshGuiViews();
+            }
+        }.runTaskTimer(plugin, 20L, config.getVacuumHopperGuiRefreshInterval());
+    }
+
+    /**
+     * Tick the next slice of hoppers in loaded chunks.
+     *
+     * A full pass over all loaded hoppers is spread over tick-interval ticks
+     * in round-robin order. The slice stops early once the tick budget is
+     * used up; the remaining quota is carried over (up to one full pass) and
+     * the cursor resumes where it stopped, so a burst of work stretches over
+     * several ticks instead of landing on one.
+     */
+    private void runVacuumSlice() {
+        if (!pendingFlush.isEmpty()) {
+            flushPendingBuffers();
+        }
+
+        int active = registry.activeSize();
+        if (active == 0) {
+            pendingQuota = 0;
+            tickStats.record(0, 0, 0, false);
+            saveChangedBuffers();
+            return;
+        }
+
+        int interval = Math.max(1, config.getVacuumHopperTickInterval());
+        pendingQuota = Math.min(pendingQuota + (active + interval - 1) / interval, active);
+
+        long budget = config.getVacuumHopperTickBudgetNanos();
+        long start = System.nanoTime();
+        int processed = 0;
+        boolean budgetHit = false;
+        boolean activationTicking = config.isVacuumHopperActivationTicking();
+        int range = config.getVacuumHopperActivationRange();
+
+        List<HopperRegistry.ChunkBucket> buckets = registry.getActiveBuckets();
+        while (pendingQuota > 0 && !buckets.isEmpty()) {
+            if (bucketCursor >= buckets.size()) {
+                bucketCursor = 0;
+                hopperCursor = 0;
+            }
+            HopperRegistry.ChunkBucket bucket = buckets.get(bucketCursor);
+            List<HopperData> hoppers = bucket.getHoppers();
+            if (hopperCursor >= hoppers.size()) {
+                bucketCursor++;
+                hopperCursor = 0;
+                continue;
+            }
+            if (activationTicking && hopperCursor == 0
+                    && !playerGrid.isPlayerNear(bucket.getWorldName(), bucket.getChunkKey(), range)) {
+                // Out of every player's activation range: skip the whole chunk
+                pendingQuota -= Math.min(pendingQuota, hoppers.size());
+                bucketCursor++;
+                continue;
+            }
+
+            int sizeBefore = hoppers.size();
+            HopperData data = hoppers.get(hopperCursor);
+            tickHopper(bucket.getWorld(), data);
+            processed++;
+            pendingQuota--;
+
+            if (!bucket.isActive()) {
+                // Last hopper removed: another bucket was swapped into this slot
+                hopperCursor = 0;
+            } else if (hoppers.size() == sizeBefore) {
+                hopperCursor++;
+            }
+            // else: the hopper was swap-removed, this index now holds an unvisited one
+
+            if (budget > 0 && System.nanoTime() - start >= budget) {
+                budgetHit = pendingQuota > 0;
+                break;
+            }
+        }
+
+        tickStats.record(processed, pendingQuota, System.nanoTime() - start, budgetHit);
+        saveChangedBuffers();
+    }
 
-                    // Center vortex
-                    loc.getWorld().spawnParticle(
-                            Particle.WITCH,
-                            center,
-                            3,
-                            0.2, 0.2, 0.2,
-                            0.01
-                    );
+    /**
+     * Run one vacuum + transfer pass for a hopper in a loaded chunk.
+     * Only items routed to the hopper's queue are looked at.
+     */
+    private void tickHopper(World world, HopperData data) {
+        // Verify the block is still a lodestone
+        if (world.getType(data.getX(), data.getY(), data.getZ()) != Material.LODESTONE) {
+            // Block was broken by something else, remove data
+            pruneHopper(world, data);
+            return;
+        }
+
+        Location loc = new Location(world, data.getX(), data.getY(), data.getZ());
+
+        // Periodic area scan catches items that drifted in (water streams) instead of spawning inside
+        long now = Bukkit.getCurrentTick();
+        if (now >= data.getNextRescanTick()) {
+            int baseInterval = config.getVacuumHopperRescanInterval();
+            int maxInterval = config.getVacuumHopperIdleMaxInterval();
+
+            int radius = catchments.getRadius();
+            boolean found = false;
+            for (Entity entity : world.getNearbyEntities(loc.clone().add(0.5, 0.5, 0.5), radius, radius, radius)) {
+                if (!(entity instanceof Item itemEntity)) continue;
+                // Same owner as spawn routing, so an item in overlapping catchments sits in
+                // one queue only; one routed here already is kept once (queued by entity)
+                Location itemLoc = itemEntity.getLocation();
+                if (catchments.findOwner(world, itemLoc.getX(), itemLoc.getY(), itemLoc.getZ()) == data) {
+                    data.queueItem(itemEntity);
+                    found = true;
                 }
             }
-        }.runTaskTimer(plugin, 40L, 40L);
+
+            // Back off while nothing drifts in; spawns and nearby players wake the hopper
+            data.onScan(!found && data.getQueuedItems().isEmpty(), baseInterval, maxInterval);
+            int rescanInterval = data.getRescanInterval(baseInterval, maxInterval);
+            data.setNextRescanTick(rescanInterval > 0 ? now + rescanInterval : Long.MAX_VALUE);
+        }
+
+        Set<Item> queue = data.getQueuedItems();
+        if (queue.isEmpty()) return;
+
+        int transferRate = config.getVacuumHopperTransferRate();
+        int itemsCaught = 0;
+        Location center = loc.clone().add(0.5, 0.5, 0.5);
+        List<ItemGroup> groups = new ArrayList<>();
+
+        // Drain queued items into groups of identical items
+        Iterator<Item> queueIterator = queue.iterator();
+        while (queueIterator.hasNext() && itemsCaught < transferRate) {
+            Item itemEntity = queueIterator.next();
+            if (!itemEntity.isValid()) {
+                // Picked up, merged, despawned or removed
+                queueIterator.remove();
+                continue;
+            }
+
+            Location itemLoc = itemEntity.getLocation();
+            if (!catchments.contains(data, itemLoc.getX(), itemLoc.getY(), itemLoc.getZ())) {
+                // Drifted out of range
+                queueIterator.remove();
+                continue;
+            }
+            if (itemEntity.getPickupDelay() > 40) continue; // Skip recently dropped items with long delay
+
+            ItemStack itemStack = itemEntity.getItemStack();
+            int amount = RoseStackerHook.getStackedItemAmount(itemEntity);
+
+            // Check void filter
+            if (data.getVoidFilter().contains(itemStack.getType())) {
+                // Void this item
+                data.setItemsVoided(data.getItemsVoided() + amount);
+                data.setStatsDirty(true);
+                markSnapshotChanged(data);
+                data.throughput().recordVoided(now, amount);
+                itemEntity.remove();
+                queueIterator.remove();
+                continue;
+            }
+
+            if (data.getLinks().isEmpty()) {
+                // No linked chests — just pull toward hopper location
+                double distance = itemLoc.distance(center);
+                if (distance > 1.5) {
+                    org.bukkit.util.Vector direction = center.toVector()
+                            .subtract(itemLoc.toVector()).normalize();
+                    itemEntity.setVelocity(direction.multiply(0.3));
+                }
+                continue;
+            }
+
+            findGroup(groups, itemStack).add(itemEntity, amount);
+            itemsCaught += amount;
+        }
+
+        // One bulk insert per group and chest; items not moved stay in the world
+        for (ItemGroup group : groups) {
+            int moved = transferGroup(world, data, group, now);
+            if (moved > 0) {
+                data.throughput().recordCollected(now, moved);
+                data.setItemsCollected(data.getItemsCollected() + moved);
+                data.setStatsDirty(true);
+                markSnapshotChanged(data);
+                group.consume(moved, queue);
+            }
+            if (moved < group.total) {
+                // Stuck items stay queued and are retried every pass; count them once
+                int undelivered = group.markUndelivered(moved, data);
+                if (undelivered > 0) {
+                    data.throughput().recordFailed(now, undelivered);
+                }
+            }
+        }
+    }
+
+    // === Bulk Transfer ===
+
+    /**
+     * Items caught in one hopper pass that stack with each other
+     * (same material and meta), with their true RoseStacker amounts.
+     */
+    private static final class ItemGroup {
+        private final ItemStack prototype;
+        private final List<Item> entities = new ArrayList<>(4);
+        private final List<Integer> amounts = new ArrayList<>(4);
+        private int total = 0;
+
+        private ItemGroup(ItemStack prototype) {
+            this.prototype = prototype;
+        }
+
+        private void add(Item entity, int amount) {
+            entities.add(entity);
+            amounts.add(amount);
+            total += amount;
+        }
+
+        /**
+         * Remove or trim source entities after items were moved out of them.
+         */
+        private void consume(int moved, Set<Item> queue) {
+            for (int i = 0; i < entities.size() && moved > 0; i++) {
+                Item entity = entities.get(i);
+                int amount = amounts.get(i);
+                int taken = Math.min(amount, moved);
+                moved -= taken;
+                if (taken == amount) {
+                    entity.remove();
+                    queue.remove(entity);
+                } else {
+                    RoseStackerHook.setStackedItemAmount(entity, amount - taken);
+                }
+            }
+        }
+
+        /**
+         * Flag the source entities left over after items were moved out of them.
+         * @return Items in the entities flagged for the first time
+         */
+        private int markUndelivered(int moved, HopperData data) {
+            int undelivered = 0;
+            for (int i = 0; i < entities.size(); i++) {
+                int amount = amounts.get(i);
+                int taken = Math.min(amount, moved);
+                moved -= taken;
+                if (taken < amount && data.markUndelivered(entities.get(i))) {
+                    undelivered += amount - taken;
+                }
+            }
+            return undelivered;
+        }
+    }
+
+    private static ItemGroup findGroup(List<ItemGroup> groups, ItemStack itemStack) {
+        for (ItemGroup group : groups) {
+            if (group.prototype.getType() == itemStack.getType() && group.prototype.isSimilar(itemStack)) {
+                return group;
+            }
+        }
+        ItemGroup group = new ItemGroup(itemStack);
+        groups.add(group);
+        return group;
+    }
+
+    /**
+     * Insert a group into the linked chests routed for its material, one
+     * addItem call per chest, buffering plain items for chests in unloaded chunks.
+     * @return Number of items moved out of the group
+     */
+    private int transferGroup(World world, HopperData data, ItemGroup group, long now) {
+        ItemStack prototype = group.prototype;
+        int remaining = group.total;
+        boolean unloadedDestination = false;
+
+        // Try the linked chests routed for this material, skipping known-full ones
+        for (HopperLink link : data.getRoute(prototype.getType())) {
+            if (remaining == 0) break;
+            if (link.isKnownFull(now)) continue;
+
+            World linkWorld = link.getWorldName().equals(data.getWorldName())
+                    ? world : Bukkit.getWorld(link.getWorldName());
+            if (linkWorld == null || !linkWorld.isChunkLoaded(link.getX() >> 4, link.getZ() >> 4)) {
+                // Never force-load: the items may be buffered for this chest instead
+                unloadedDestination = true;
+                continue;
+            }
+
+            Inventory inv = link.getInventory(linkWorld, now);
+            if (inv == null) {
+                // Chest was broken, remove link
+                removeLink(data, link);
+                saveHopper(data);
+                continue;
+            }
+
+            // Never offer more than the chest could hold (RoseStacker stacks can be huge)
+            int offered = Math.min(remaining, inv.getSize() * prototype.getMaxStackSize());
+            HashMap<Integer, ItemStack> leftover = inv.addItem(toStacks(prototype, offered));
+            int notAdded = 0;
+            for (ItemStack stack : leftover.values()) {
+                notAdded += stack.getAmount();
+            }
+            if (notAdded > 0 && inv.firstEmpty() == -1) {
+                link.markFull(now + FULL_RECHECK_TICKS);
+            }
+            remaining -= offered - notAdded;
+        }
+
+        // A destination is unloaded: absorb plain items into the buffer until its chunk loads
+        if (remaining > 0 && unloadedDestination && !prototype.hasItemMeta()) {
+            int buffered = data.getBuffer().add(prototype.getType(), remaining,
+                    config.getVacuumHopperBufferCapacity());
+            if (buffered > 0) {
+                // The source entities are removed now, so the buffer must reach the journal
+                bufferChanged.add(data);
+                remaining -= buffered;
+            }
+        }
+
+        return group.total - remaining;
+    }
+
+    // === Transfer Buffer ===
+
+    private void flushPendingBuffers() {
+        long now = Bukkit.getCurrentTick();
+        for (HopperData data : pendingFlush) {
+            // Skip hoppers removed since they were queued
+            if (isRegistered(data)) {
+                flushBuffer(data, now);
+            }
+        }
+        pendingFlush.clear();
+    }
+
+    /**
+     * Move buffered items into loaded linked chests, one addItem call per
+     * material and chest. Chests in unloaded chunks are left alone.
+     */
+    private void flushBuffer(HopperData data, long now) {
+        TransferBuffer buffer = data.getBuffer();
+        for (int i = buffer.size() - 1; i >= 0; i--) {
+            Material material = buffer.getMaterial(i);
+            int remaining = buffer.getCount(i);
+
+            for (HopperLink link : data.getRoute(material)) {
+                if (remaining == 0) break;
+                if (link.isKnownFull(now)) continue;
+
+                World linkWorld = Bukkit.getWorld(link.getWorldName());
+                if (linkWorld == null || !linkWorld.isChunkLoaded(link.getX() >> 4, link.getZ() >> 4)) continue;
+
+                Inventory inv = link.getInventory(linkWorld, now);
+                if (inv == null) continue; // Broken chest, pruned by the next hopper tick
+
+                HashMap<Integer, ItemStack> leftover = inv.addItem(toStacks(material, remaining));
+                int notAdded = 0;
+                for (ItemStack stack : leftover.values()) {
+                    notAdded += stack.getAmount();
+                }
+                if (notAdded > 0 && inv.firstEmpty() == -1) {
+                    link.markFull(now + FULL_RECHECK_TICKS);
+                }
+                remaining = notAdded;
+            }
+
+            if (remaining != buffer.getCount(i)) {
+                buffer.setCount(i, remaining);
+                bufferChanged.add(data);
+            }
+        }
+    }
+
+    /**
+     * Journal every hopper whose buffer changed this tick, once each, so a
+     * crash neither loses buffered items nor delivers them twice.
+     */
+    private void saveChangedBuffers() {
+        if (bufferChanged.isEmpty()) return;
+        for (HopperData data : bufferChanged) {
+            // Skip hoppers removed since; their buffer was dropped in the world.
+            // Open GUIs pick the buffer up with their info items, no rebuild needed
+            if (isRegistered(data)) {
+                persist(data);
+            }
+        }
+        bufferChanged.clear();
+    }
+
+    private static ItemStack[] toStacks(Material material, int amount) {
+        return toStacks(new ItemStack(material), amount);
+    }
+
+    /**
+     * Split an amount of an item into full stacks plus a remainder.
+     */
+    private static ItemStack[] toStacks(ItemStack prototype, int amount) {
+        int maxStack = prototype.getMaxStackSize();
+        ItemStack[] stacks = new ItemStack[(amount + maxStack - 1) / maxStack];
+        for (int i = 0; i < stacks.length; i++) {
+            stacks[i] = prototype.asQuantity(Math.min(maxStack, amount - i * maxStack));
+        }
+        return stacks;
+    }
+
+    private void queueFlush(HopperData data) {
+        if (data != null && !data.getBuffer().isEmpty()) {
+            pendingFlush.add(data);
+        }
+    }
+
+    /**
+     * Drop buffered items at a removed hopper so they are not lost.
+     */
+    private void dropBuffer(World world, HopperData data) {
+        TransferBuffer buffer = data.getBuffer();
+        if (buffer.isEmpty()) return;
+
+        Location dropLoc = new Location(world, data.getX() + 0.5, data.getY() + 0.5, data.getZ() + 0.5);
+        for (int i = 0; i < buffer.size(); i++) {
+            for (ItemStack stack : toStacks(buffer.getMaterial(i), buffer.getCount(i))) {
+                world.dropItemNaturally(dropLoc, stack);
+            }
+        }
+        buffer.clear();
+    }
+
+    /**
+     * Spawn the pulsing aura for a hopper.
+     */
+    private void spawnParticles(World world, HopperData data) {
+        Location loc = new Location(world, data.getX(), data.getY(), data.getZ());
+
+        // Pulsing ring particles
+        double radius = config.getVacuumHopperRadius();
+        Location center = loc.clone().add(0.5, 0.5, 0.5);
+        int points = 16;
+        for (int i = 0; i < points; i++) {
+            double angle = (2 * Math.PI / points) * i;
+            double x = center.getX() + radius * Math.cos(angle);
+            double z = center.getZ() + radius * Math.sin(angle);
+            Location particleLoc = new Location(world, x, center.getY(), z);
+            world.spawnParticle(
+                    Particle.PORTAL,
+                    particleLoc,
+                    1,
+                    0, 0, 0,
+                    0.01
+            );
+        }
+
+        // Center vortex
+        world.spawnParticle(
+                Particle.WITCH,
+                center,
+                3,
+                0.2, 0.2, 0.2,
+                0.01
+        );
     }
 
     // === Hopper Registration ===
 
-    public void addHopper(Location location, UUID owner, Set<Material> filter, List<Location> links) {
-        String key = toLocationKey(location);
-        HopperData data = new HopperData();
+    public void addHopper(Location location, UUID owner, List<String> filter, List<String> links) {
+        HopperData data = new HopperData(location.getWorld().getName(),
+                location.getBlockX(), location.getBlockY(), location.getBlockZ());
         data.setOwner(owner);
-        data.getVoidFilter().addAll(filter);
-        data.getLinkedChests().addAll(links);
-        placedHoppers.put(key, data);
-        saveData();
+        for (String entry : filter) {
+            data.getVoidFilter().addEntry(entry);
+        }
+        for (String linkStr : links) {
+            HopperLink link = HopperLink.parse(linkStr.trim());
+            if (link != null) {
+                data.getLinks().add(link);
+            }
+        }
+        register(data);
+        saveHopper(data);
     }
 
     public HopperData removeHopper(Location location) {
-        HopperData data = placedHoppers.remove(toLocationKey(location));
-        saveData();
+        HopperData data = getHopper(location);
+        if (data != null) {
+            unregister(data);
+            dropBuffer(location.getWorld(), data);
+            storage.delete(data.getWorldName(), data.getX(), data.getY(), data.getZ());
+        }
         return data;
     }
 
     public HopperData getHopper(Location location) {
-        return placedHoppers.get(toLocationKey(location));
+        return registry.get(location.getWorld().getName(),
+                location.getBlockX(), location.getBlockY(), location.getBlockZ());
     }
 
     public boolean isHopper(Location location) {
-        return placedHoppers.containsKey(toLocationKey(location));
+        return getHopper(location) != null;
+    }
+
+    public int getHopperCount() {
+        return registry.size();
+    }
+
+    public int getActiveHopperCount() {
+        return registry.activeSize();
+    }
+
+    public HopperTickStats getTickStats() {
+        return tickStats;
+    }
+
+    // === Throughput ===
+
+    /**
+     * Hoppers with the highest collected plus voided count over the last minutes.
+     */
+    public List<HopperData> getTopHoppers(int minutes, int limit) {
+        long now = Bukkit.getCurrentTick();
+        List<HopperData> ranked = new ArrayList<>();
+        registry.forEach(data -> {
+            HopperThroughput throughput = data.getThroughput();
+            if (throughput != null && (throughput.getThroughput(now, minutes) > 0 || throughput.getFailed(now, minutes) > 0)) {
+                ranked.add(data);
+            }
+        });
+        ranked.sort((a, b) -> Long.compare(
+                b.getThroughput().getThroughput(now, minutes), a.getThroughput().getThroughput(now, minutes)));
+        return ranked.size() > limit ? ranked.subList(0, limit) : ranked;
+    }
+
+    // === Owners ===
+
+    /**
+     * Hoppers placed by a player, in placement order (read-only).
+     */
+    public Set<HopperData> getOwnedHoppers(UUID owner) {
+        return ownerIndex.get(owner);
+    }
+
+    public int getOwnedHopperCount(UUID owner) {
+        return ownerIndex.count(owner);
+    }
+
+    /**
+     * Maximum number of hoppers a player may place: the highest limit among
+     * the overworldcraterewards.hopper.limit.<name> permissions they have,
+     * otherwise player-limit.
+     * @return The limit, or 0 for unlimited
+     */
+    public int getHopperLimit(Player player) {
+        if (player.hasPermission("overworldcraterewards.hopper.unlimited")) return 0;
+
+        int limit = -1;
+        for (Map.Entry<String, Integer> entry : config.getVacuumHopperPermissionLimits().entrySet()) {
+            if (player.hasPermission("overworldcraterewards.hopper.limit." + entry.getKey())) {
+                if (entry.getValue() <= 0) return 0;
+                limit = Math.max(limit, entry.getValue());
+            }
+        }
+        return limit >= 0 ? limit : config.getVacuumHopperPlayerLimit();
+    }
+
+    // === Memory ===
+
+    /**
+     * Approximate heap retained by all registered hoppers.
+     * @return {hopper count, link count, estimated bytes}
+     */
+    public long[] estimateHeapUsage() {
+        long[] totals = new long[3];
+        registry.forEach(data -> {
+            totals[0]++;
+            totals[1] += data.getLinks().size();
+            totals[2] += data.estimateHeapBytes();
+        });
+        // Registry, catchment, link and owner index entries
+        totals[2] += totals[0] * (24 + 4 + 40) + totals[1] * (4 + 40);
+        return totals;
+    }
+
+    // === Snapshot ===
+
+    /**
+     * Latest published read-only view of all hoppers. Safe to call from any
+     * thread; may lag the live state by up to a second.
+     */
+    public HopperSnapshot getSnapshot() {
+        return snapshot.get();
+    }
+
+    /**
+     * Republish the hopper's chunk with the next snapshot.
+     */
+    private void markSnapshotChanged(HopperData data) {
+        snapshotChanges.computeIfAbsent(data.getWorldName(), k -> new LongOpenHashSet())
+                .add(Chunk.getChunkKey(data.getX() >> 4, data.getZ() >> 4));
+    }
+
+    /**
+     * Rebuild the views of the changed chunks and publish a snapshot that
+     * shares every other chunk with the previous one. Main thread only.
+     */
+    private void publishSnapshot() {
+        Map<String, Long2ObjectMap<List<HopperSnapshot.HopperView>>> changed = new HashMap<>();
+        for (Map.Entry<String, LongSet> entry : snapshotChanges.entrySet()) {
+            String worldName = entry.getKey();
+            Long2ObjectMap<List<HopperSnapshot.HopperView>> chunks = new Long2ObjectOpenHashMap<>();
+            for (LongIterator it = entry.getValue().iterator(); it.hasNext(); ) {
+                long chunkKey = it.nextLong();
+                HopperRegistry.ChunkBucket bucket = registry.getBucket(worldName, chunkKey);
+                List<HopperSnapshot.HopperView> views = new ArrayList<>(bucket != null ? bucket.getHoppers().size() : 0);
+                if (bucket != null) {
+                    for (HopperData data : bucket.getHoppers()) {
+                        views.add(new HopperSnapshot.HopperView(
+                                worldName, data.getX(), data.getY(), data.getZ(), data.getOwner(),
+                                data.getItemsCollected(), data.getItemsVoided(),
+                                data.getLinks().size(), data.getBuffer().getTotal()));
+                    }
+                }
+                chunks.put(chunkKey, views);
+            }
+            changed.put(worldName, chunks);
+        }
+        snapshotChanges.clear();
+
+        snapshot.set(snapshot.get().next(Bukkit.getCurrentTick(), changed));
+    }
+
+    private void register(HopperData data) {
+        HopperData previous = registry.get(data.getWorldName(), data.getX(), data.getY(), data.getZ());
+        if (previous != null) {
+            unregister(previous);
+        }
+        registry.put(data);
+        catchments.add(data);
+        ownerIndex.add(data);
+        for (HopperLink link : data.getLinks()) {
+            link.setHopper(data);
+            linkIndex.add(link);
+        }
+        markSnapshotChanged(data);
+    }
+
+    private void unregister(HopperData data) {
+        registry.remove(data.getWorldName(), data.getX(), data.getY(), data.getZ());
+        catchments.remove(data);
+        ownerIndex.remove(data);
+        for (HopperLink link : data.getLinks()) {
+            linkIndex.remove(link);
+        }
+        data.clearQueue();
+        HopperGUIView view = guiViews.remove(data);
+        if (view != null) {
+            view.discard();
+        }
+        markSnapshotChanged(data);
+    }
+
+    // === GUI ===
+
+    /**
+     * The shared GUI of a hopper, built on first use and brought up to date
+     * (rebuilt only if its filter or links changed since).
+     */
+    public HopperGUIView getGuiView(HopperData data) {
+        HopperGUIView view = guiViews.get(data);
+        if (view == null) {
+            view = new HopperGUIView(data);
+            guiViews.put(data, view);
+        } else {
+            view.refresh();
+            view.restoreLinkItem();
+        }
+        return view;
+    }
+
+    /**
+     * Refresh the GUIs that currently have viewers.
+     */
+    public void refreshGuiViews() {
+        for (HopperGUIView view : guiViews.values()) {
+            if (view.hasViewers()) {
+                view.refresh();
+            }
+        }
+    }
+
+    /**
+     * Save GUI filter edits still pending because a viewer is online (shutdown).
+     */
+    private void saveGuiViews() {
+        for (HopperGUIView view : guiViews.values()) {
+            if (view.consumeUnsaved()) {
+                saveGuiEdits(view);
+            }
+        }
+    }
+
+    // === Item Routing ===
+
+    /**
+     * Route a freshly spawned item (block drops, mob drops, player drops)
+     * to the queue of the hopper whose catchment it landed in.
+     */
+    public void onItemSpawn(Item item) {
+        Location itemLoc = item.getLocation();
+        HopperData owner = catchments.findOwner(item.getWorld(), itemLoc.getX(), itemLoc.getY(), itemLoc.getZ());
+        if (owner != null) {
+            owner.queueItem(item);
+            owner.wake(WakeReason.ITEM_SPAWN, Bukkit.getCurrentTick(), config.getVacuumHopperRescanInterval());
+        }
+    }
+
+    // === Player Tracking ===
+
+    /**
+     * Track a player that joined, respawned, teleported, changed world or
+     * crossed a chunk border, and wake the hoppers whose catchment overlaps
+     * the chunk they entered.
+     */
+    public void onPlayerEnterChunk(Player player, World world, int chunkX, int chunkZ) {
+        playerGrid.update(player.getUniqueId(), world.getName(), chunkX, chunkZ);
+
+        List<HopperData> hoppers = catchments.getHoppersInChunk(world.getName(), Chunk.getChunkKey(chunkX, chunkZ));
+        if (hoppers == null) return;
+
+        long now = Bukkit.getCurrentTick();
+        int baseInterval = config.getVacuumHopperRescanInterval();
+        for (HopperData data : hoppers) {
+            data.wake(WakeReason.PLAYER_NEARBY, now, baseInterval);
+        }
+    }
+
+    public void onPlayerQuit(Player player) {
+        playerGrid.remove(player.getUniqueId());
+    }
+
+    // === Chunk Lifecycle ===
+
+    public void onChunkLoad(Chunk chunk) {
+        registry.onChunkLoad(chunk.getWorld(), chunk.getX(), chunk.getZ());
+
+        // Items saved with the chunk never fire a spawn event, so rescan on next tick
+        HopperRegistry.ChunkBucket bucket = registry.getBucket(chunk.getWorld().getName(), chunk.getChunkKey());
+        if (bucket != null) {
+            for (HopperData data : bucket.getHoppers()) {
+                data.wake(WakeReason.CHUNK_LOAD, 0, 0);
+                data.setNextRescanTick(0);
+                reconciler.queue(data);
+            }
+        }
+
+        // Linked chests in this chunk can take the items buffered for them
+        List<HopperLink> links = linkIndex.getLinksInChunk(chunk.getWorld().getName(), chunk.getChunkKey());
+        if (links != null) {
+            for (HopperLink link : links) {
+                queueFlush(link.getHopper());
+                if (link.getHopper() != null) {
+                    reconciler.queue(link.getHopper());
+                }
+            }
+        }
+    }
+
+    public void onChunkUnload(Chunk chunk) {
+        registry.onChunkUnload(chunk.getWorld(), chunk.getX(), chunk.getZ());
+        linkIndex.invalidateChunk(chunk.getWorld().getName(), chunk.getChunkKey());
+
+        // Drop entity references so unloaded items are not kept alive
+        HopperRegistry.ChunkBucket bucket = registry.getBucket(chunk.getWorld().getName(), chunk.getChunkKey());
+        if (bucket != null) {
+            for (HopperData data : bucket.getHoppers()) {
+                data.clearQueue();
+            }
+        }
+    }
+
+    public void onWorldUnload(World world) {
+        registry.onWorldUnload(world);
+
+        // Cached inventories, GUIs and queued item entities would pin the unloaded world
+        linkIndex.invalidateWorld(world.getName());
+        registry.forEach(data -> {
+            if (data.getWorldName().equals(world.getName())) {
+                data.clearQueue();
+            }
+        });
+        guiViews.values().removeIf(view -> {
+            if (!view.getData().getWorldName().equals(world.getName())) return false;
+            if (view.consumeUnsaved()) {
+                saveGuiEdits(view);
+            }
+            view.discard();
+            return true;
+        });
+    }
+
+    /**
+     * A block changed (broken, exploded, pushed): drop cached container
+     * handles of links at or next to it.
+     */
+    public void onBlockChange(Block block) {
+        linkIndex.invalidateAround(block.getWorld().getName(), block.getX(), block.getY(), block.getZ());
     }
 
     // === Link Management ===
@@ -267,104 +1228,246 @@ public class VacuumHopperManager {
         if (data == null) return false;
 
         int maxLinks = config.getVacuumHopperMaxLinks();
-        if (data.getLinkedChests().size() >= maxLinks) return false;
+        if (data.getLinks().size() >= maxLinks) return false;
 
         // Check for duplicate
-        for (Location existing : data.getLinkedChests()) {
-            if (existing.getBlockX() == chestLoc.getBlockX()
-                    && existing.getBlockY() == chestLoc.getBlockY()
-                    && existing.getBlockZ() == chestLoc.getBlockZ()
-                    && existing.getWorld().equals(chestLoc.getWorld())) {
+        String worldName = chestLoc.getWorld().getName();
+        for (HopperLink existing : data.getLinks()) {
+            if (existing.isAt(worldName, chestLoc.getBlockX(), chestLoc.getBlockY(), chestLoc.getBlockZ())) {
                 return false; // Already linked
             }
         }
 
-        data.getLinkedChests().add(chestLoc.clone());
-        saveData();
+        HopperLink link = new HopperLink(worldName, chestLoc.getBlockX(), chestLoc.getBlockY(), chestLoc.getBlockZ());
+        link.setHopper(data);
+        data.getLinks().add(link);
+        data.invalidateRoutes();
+        linkIndex.add(link);
+        saveHopper(data);
         return true;
     }
 
-    // === Persistence ===
+    // === Reconciliation ===
 
-    private void loadData() {
-        if (!dataFile.exists()) return;
+    public HopperReconciler getReconciler() {
+        return reconciler;
+    }
 
-        YamlConfiguration yaml = YamlConfiguration.loadConfiguration(dataFile);
-        ConfigurationSection section = yaml.getConfigurationSection("hoppers");
-        if (section == null) return;
+    boolean isRegistered(HopperData data) {
+        return registry.get(data.getWorldName(), data.getX(), data.getY(), data.getZ()) == data;
+    }
 
-        for (String key : section.getKeys(false)) {
-            ConfigurationSection hopperSection = section.getConfigurationSection(key);
-            if (hopperSection == null) continue;
+    void forEachActiveHopper(Consumer<HopperData> action) {
+        for (HopperRegistry.ChunkBucket bucket : registry.getActiveBuckets()) {
+            for (HopperData data : bucket.getHoppers()) {
+                action.accept(data);
+            }
+        }
+    }
 
-            HopperData data = new HopperData();
+    /**
+     * Remove a hopper whose lodestone is gone, dropping its buffered items.
+     */
+    void pruneHopper(World world, HopperData data) {
+        unregister(data);
+        dropBuffer(world, data);
+        storage.delete(data.getWorldName(), data.getX(), data.getY(), data.getZ());
+    }
 
-            String ownerStr = hopperSection.getString("owner");
-            if (ownerStr != null) {
+    /**
+     * Remove links whose container is gone.
+     */
+    void pruneLinks(HopperData data, List<HopperLink> dead) {
+        for (HopperLink link : dead) {
+            removeLink(data, link);
+        }
+        saveHopper(data);
+    }
+
+    private void removeLink(HopperData data, HopperLink link) {
+        data.getLinks().remove(link);
+        data.invalidateRoutes();
+        linkIndex.remove(link);
+    }
+
+    /**
+     * @param owner Only count this player's hoppers, or null for every hopper
+     * @return True if a hopper is linked to the container
+     */
+    public boolean isLinked(Location container, UUID owner) {
+        String worldName = container.getWorld().getName();
+        int x = container.getBlockX(), y = container.getBlockY(), z = container.getBlockZ();
+        List<HopperLink> links = linkIndex.getLinksInChunk(worldName, Chunk.getChunkKey(x >> 4, z >> 4));
+        if (links == null) return false;
+        for (HopperLink link : links) {
+            if (link.isAt(worldName, x, y, z) && (owner == null
+                    || (link.getHopper() != null && owner.equals(link.getHopper().getOwner())))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Edit the sorter routes of every link to a container.
+     * @param owner Only edit links of this player's hoppers, or null for every hopper
+     * @param edit Applied to each link; returns true if it changed the link
+     * @return Number of hoppers whose links changed
+     */
+    public int editRoutes(Location container, UUID owner, Predicate<HopperLink> edit) {
+        String worldName = container.getWorld().getName();
+        int x = container.getBlockX(), y = container.getBlockY(), z = container.getBlockZ();
+
+        List<HopperLink> links = linkIndex.getLinksInChunk(worldName, Chunk.getChunkKey(x >> 4, z >> 4));
+        if (links == null) return 0;
+
+        // A hopper may be linked to the container more than once
+        Set<HopperData> changed = new LinkedHashSet<>();
+        for (HopperLink link : links) {
+            HopperData data = link.getHopper();
+            if (data == null || !link.isAt(worldName, x, y, z)) continue;
+            if (owner != null && !owner.equals(data.getOwner())) continue;
+            if (edit.test(link)) {
+                changed.add(data);
+            }
+        }
+
+        for (HopperData data : changed) {
+            data.invalidateRoutes();
+            saveHopper(data);
+        }
+        return changed.size();
+    }
+
+    /**
+     * Items were taken out of a container: linked chests there may have room again.
+     */
+    public void onContainerChanged(Inventory inventory) {
+        Location loc = inventory.getLocation();
+        if (loc == null || loc.getWorld() == null) return;
+        linkIndex.clearFullAround(loc.getWorld().getName(), loc.getBlockX(), loc.getBlockY(), loc.getBlockZ(),
+                link -> queueFlush(link.getHopper()));
+    }
+
+    // === Persistence ===
+
+    /**
+     * Request a world's hoppers from storage and register them on the main thread.
+     */
+    public void loadWorld(World world) {
+        String worldName = world.getName();
+        if (!loadedWorlds.add(worldName)) return;
+
+        storage.loadWorld(worldName).thenAccept(records -> {
+            if (!plugin.isEnabled()) return;
+            Bukkit.getScheduler().runTask(plugin, () -> registerRecords(worldName, records));
+        });
+    }
+
+    private void registerRecords(String worldName, List<HopperRecord> records) {
+        registeredWorlds.add(worldName);
+        int loaded = 0;
+        for (HopperRecord record : records) {
+            // A hopper placed while the world was loading is newer than the stored one
+            if (registry.get(worldName, record.x(), record.y(), record.z()) != null) continue;
+
+            HopperData data = new HopperData(worldName, record.x(), record.y(), record.z());
+
+            if (record.owner() != null) {
                 try {
-                    data.setOwner(UUID.fromString(ownerStr));
+                    data.setOwner(UUID.fromString(record.owner()));
                 } catch (IllegalArgumentException ignored) {}
             }
 
             // Load void filter
-            List<String> filterList = hopperSection.getStringList("filter");
-            for (String mat : filterList) {
-                try {
-                    data.getVoidFilter().add(Material.valueOf(mat));
-                } catch (IllegalArgumentException ignored) {}
+            for (String entry : record.filter()) {
+                data.getVoidFilter().addEntry(entry);
             }
 
             // Load linked chests
-            List<String> linkList = hopperSection.getStringList("links");
-            for (String linkStr : linkList) {
-                Location linkLoc = parseLocationKey(linkStr);
-                if (linkLoc != null) {
-                    data.getLinkedChests().add(linkLoc);
+            for (String linkStr : record.links()) {
+                HopperLink link = HopperLink.parse(linkStr);
+                if (link != null) {
+                    data.getLinks().add(link);
                 }
             }
 
-            data.setItemsCollected(hopperSection.getLong("items-collected", 0));
-            data.setItemsVoided(hopperSection.getLong("items-voided", 0));
+            data.setItemsCollected(record.itemsCollected());
+            data.setItemsVoided(record.itemsVoided());
+            for (String entry : record.buffer()) {
+                data.getBuffer().addEntry(entry);
+            }
 
-            placedHoppers.put(key, data);
+            register(data);
+            loaded++;
         }
 
-        plugin.getLogger().info("Loaded " + placedHoppers.size() + " vacuum hoppers.");
+        if (loaded > 0) {
+            plugin.getLogger().info("Loaded " + loaded + " vacuum hoppers in " + worldName + ".");
+        }
     }
 
-    public void saveData() {
-        YamlConfiguration yaml = new YamlConfiguration();
+    /**
+     * Store the current state of one hopper (filter, links, owner) after a
+     * change made outside its GUI, which is rebuilt the next time it refreshes.
+     * The write happens off the main thread.
+     */
+    public void saveHopper(HopperData data) {
+        HopperGUIView view = guiViews.get(data);
+        if (view != null) {
+            view.markStale();
+        }
+        persist(data);
+    }
 
-        for (Map.Entry<String, HopperData> entry : placedHoppers.entrySet()) {
-            String path = "hoppers." + entry.getKey().replace(":", "_");
-            HopperData data = entry.getValue();
+    /**
+     * Store filter edits made in a hopper's GUI. The GUI already shows them,
+     * so it is not rebuilt.
+     */
+    public void saveGuiEdits(HopperGUIView view) {
+        persist(view.getData());
+    }
 
-            yaml.set(path + ".location", entry.getKey());
-            if (data.getOwner() != null) {
-                yaml.set(path + ".owner", data.getOwner().toString());
-            }
+    private void persist(HopperData data) {
+        storage.save(toRecord(data));
+        data.setStatsDirty(false);
+        markSnapshotChanged(data);
+    }
 
-            List<String> filterNames = new ArrayList<>();
-            for (Material mat : data.getVoidFilter()) {
-                filterNames.add(mat.name());
+    /**
+     * Copy hoppers whose item counters changed into immutable records for the I/O thread.
+     */
+    private List<HopperRecord> collectChangedStats() {
+        List<HopperRecord> records = new ArrayList<>();
+        registry.forEach(data -> {
+            if (data.isStatsDirty()) {
+                records.add(toRecord(data));
+                data.setStatsDirty(false);
             }
-            yaml.set(path + ".filter", filterNames);
+        });
+        return records;
+    }
 
-            List<String> linkStrings = new ArrayList<>();
-            for (Location loc : data.getLinkedChests()) {
-                linkStrings.add(toLocationKey(loc));
-            }
-            yaml.set(path + ".links", linkStrings);
+    /**
+     * Copy every registered hopper into immutable records for the I/O thread.
+     */
+    private HopperStorage.Registered collectRegistered() {
+        List<HopperRecord> records = new ArrayList<>(registry.size());
+        registry.forEach(data -> records.add(toRecord(data)));
+        return new HopperStorage.Registered(Set.copyOf(registeredWorlds), records);
+    }
 
-            yaml.set(path + ".items-collected", data.getItemsCollected());
-            yaml.set(path + ".items-voided", data.getItemsVoided());
+    private static HopperRecord toRecord(HopperData data) {
+        List<String> linkStrings = new ArrayList<>(data.getLinks().size());
+        for (HopperLink link : data.getLinks()) {
+            linkStrings.add(link.serialize());
         }
 
-        try {
-            yaml.save(dataFile);
-        } catch (Exception e) {
-            plugin.getLogger().warning("Failed to save vacuum hopper data: " + e.getMessage());
-        }
+        return new HopperRecord(data.getWorldName(), data.getX(), data.getY(), data.getZ(),
+                data.getOwner() != null ? data.getOwner().toString() : null,
+                List.copyOf(data.getVoidFilter().toEntries()), List.copyOf(linkStrings),
+                data.getItemsCollected(), data.getItemsVoided(),
+                List.copyOf(data.getBuffer().toEntries()));
     }
 
     // === Utility ===
@@ -373,6 +1476,10 @@ public class VacuumHopperManager {
         return loc.getWorld().getName() + ":" + loc.getBlockX() + ":" + loc.getBlockY() + ":" + loc.getBlockZ();
     }
 
+    public static String toLocationKey(HopperData data) {
+        return data.getWorldName() + ":" + data.getX() + ":" + data.getY() + ":" + data.getZ();
+    }
+
     public static Location parseLocationKey(String key) {
         String[] parts = key.split(":");
         if (parts.length != 4) return null;
@@ -391,11 +1498,32 @@ public class VacuumHopperManager {
     }
 
     /**
-     * Shutdown: cancel tasks and save data.
+     * Apply reloaded configuration: re-index catchments for the new radius
+     * and restart the tasks with the new tick interval.
+     */
+    public void reload() {
+        catchments.rebuild(registry, config.getVacuumHopperRadius());
+        if (vacuumTask != null) vacuumTask.cancel();
+        if (particleTask != null) particleTask.cancel();
+        if (compactTask != null) compactTask.cancel();
+        if (snapshotTask != null) snapshotTask.cancel();
+        if (reconcileTask != null) reconcileTask.cancel();
+        if (guiRefreshTask != null) guiRefreshTask.cancel();
+        startTasks();
+    }
+
+    /**
+     * Shutdown: cancel tasks and write a final snapshot.
      */
     public void shutdown() {
         if (vacuumTask != null) vacuumTask.cancel();
         if (particleTask != null) particleTask.cancel();
-        saveData();
+        if (compactTask != null) compactTask.cancel();
+        if (snapshotTask != null) snapshotTask.cancel();
+        if (reconcileTask != null) reconcileTask.cancel();
+        if (guiRefreshTask != null) guiRefreshTask.cancel();
+        saveGuiViews();
+        saveChangedBuffers();
+        storage.close(collectChangedStats(), this::collectRegistered);
     }
 }
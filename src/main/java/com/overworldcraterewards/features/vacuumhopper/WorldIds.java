@@ -0,0 +1,36 @@
+package com.overworldcraterewards.features.vacuumhopper;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Small integer ids for world names.
+ *
+ * Hoppers and links store an int id instead of a World reference (which
+ * would pin unloaded worlds) or their own copy of the name string. Ids are
+ * never reused, and lookups by id are lock-free.
+ */
+final class WorldIds {
+
+    private static final Map<String, Integer> ids = new HashMap<>();
+    private static volatile String[] names = new String[0];
+
+    private WorldIds() {}
+
+    static synchronized int id(String worldName) {
+        Integer id = ids.get(worldName);
+        if (id != null) return id;
+
+        int next = names.length;
+        String[] grown = Arrays.copyOf(names, next + 1);
+        grown[next] = worldName;
+        ids.put(worldName, next);
+        names = grown;
+        return next;
+    }
+
+    static String name(int id) {
+        return names[id];
+    }
+}
@@ -2,6 +2,7 @@ package com.overworldcraterewards.hooks;
 
 import org.bukkit.Bukkit;
 import org.bukkit.entity.Item;
+import org.bukkit.inventory.ItemStack;
 
 import java.util.logging.Logger;
 
@@ -56,4 +57,30 @@ public class RoseStackerHook {
         }
         return itemEntity.getItemStack().getAmount();
     }
+
+    /**
+     * Set the real stacked amount of a dropped Item entity.
+     * Updates the RoseStacker stack size if the item is stacked,
+     * otherwise the vanilla Bukkit amount.
+     */
+    public static void setStackedItemAmount(Item itemEntity, int amount) {
+        if (isAvailable) {
+            try {
+                dev.rosewood.rosestacker.api.RoseStackerAPI api =
+                        dev.rosewood.rosestacker.api.RoseStackerAPI.getInstance();
+                if (api.isItemStacked(itemEntity)) {
+                    dev.rosewood.rosestacker.stack.StackedItem stacked = api.getStackedItem(itemEntity);
+                    if (stacked != null) {
+                        stacked.setStackSize(amount);
+                        return;
+                    }
+                }
+            } catch (Exception e) {
+                // RoseStacker API error, fall back to vanilla
+            }
+        }
+        ItemStack itemStack = itemEntity.getItemStack();
+        itemStack.setAmount(amount);
+        itemEntity.setItemStack(itemStack);
+    }
 }
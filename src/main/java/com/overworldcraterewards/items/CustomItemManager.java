@@ -96,14 +96,7 @@ public class CustomItemManager {
      * @return true if the item matches the type
      */
     public boolean isCustomItem(ItemStack item, CustomItemType type) {
-        if (item == null || !item.hasItemMeta()) {
-            return false;
-        }
-
-        String itemType = item.getItemMeta().getPersistentDataContainer()
-                .get(PDCKeys.ITEM_TYPE, PersistentDataType.STRING);
-
-        return type.getId().equals(itemType);
+        return ItemIdentifier.is(item, type);
     }
 
     /**
@@ -112,18 +105,7 @@ public class CustomItemManager {
      * @return The CustomItemType, or null if not a custom item
      */
     public CustomItemType getItemType(ItemStack item) {
-        if (item == null || !item.hasItemMeta()) {
-            return null;
-        }
-
-        String itemTypeId = item.getItemMeta().getPersistentDataContainer()
-                .get(PDCKeys.ITEM_TYPE, PersistentDataType.STRING);
-
-        if (itemTypeId == null) {
-            return null;
-        }
-
-        return CustomItemType.fromId(itemTypeId);
+        return ItemIdentifier.identify(item);
     }
 
     /**
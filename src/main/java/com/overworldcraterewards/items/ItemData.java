@@ -0,0 +1,123 @@
+package com.overworldcraterewards.items;
+
+import net.minecraft.core.component.DataComponents;
+import net.minecraft.nbt.CompoundTag;
+import net.minecraft.nbt.NumericTag;
+import net.minecraft.nbt.StringTag;
+import net.minecraft.nbt.Tag;
+import net.minecraft.world.item.component.CustomData;
+import org.bukkit.NamespacedKey;
+import org.bukkit.craftbukkit.inventory.CraftItemStack;
+import org.bukkit.inventory.ItemStack;
+import org.bukkit.persistence.PersistentDataType;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Read-only access to the plugin's persistent data on item stacks.
+ *
+ * Values are read straight from the stack's custom data component (where
+ * Bukkit keeps persistent data under "PublicBukkitValues"), without building
+ * an ItemMeta or copying the tag. If the server internals cannot be reached,
+ * reads fall back to Paper's persistent data view.
+ *
+ * Writes still go through ItemMeta.
+ */
+public final class ItemData {
+
+    // Compound Bukkit stores persistent data in, inside the custom data component
+    private static final String BUKKIT_VALUES = "PublicBukkitValues";
+
+    private static final boolean DIRECT;
+
+    static {
+        boolean available;
+        try {
+            Class.forName("org.bukkit.craftbukkit.inventory.CraftItemStack");
+            available = DataComponents.CUSTOM_DATA != null;
+        } catch (ClassNotFoundException | LinkageError e) {
+            available = false;
+        }
+        DIRECT = available;
+    }
+
+    // NamespacedKey -> "namespace:key", so lookups do not build the string every time
+    private static final Map<NamespacedKey, String> tagNames = new ConcurrentHashMap<>();
+
+    private ItemData() {} // Utility class
+
+    /**
+     * @return True if reads bypass ItemMeta
+     */
+    public static boolean isDirect() {
+        return DIRECT;
+    }
+
+    /**
+     * The stack's custom data component, usable as an identity for its data:
+     * it is immutable and replaced whenever the data changes.
+     * @return The component, or null if the stack has none or internals are unavailable
+     */
+    public static Object getDataIdentity(ItemStack item) {
+        if (!DIRECT || item == null) return null;
+        return CraftItemStack.unwrap(item).get(DataComponents.CUSTOM_DATA);
+    }
+
+    public static String getString(ItemStack item, NamespacedKey key) {
+        if (item == null) return null;
+        if (!DIRECT) {
+            return item.getPersistentDataContainer().get(key, PersistentDataType.STRING);
+        }
+        return find(item, key) instanceof StringTag tag ? tag.value() : null;
+    }
+
+    public static long getLong(ItemStack item, NamespacedKey key, long defaultValue) {
+        if (item == null) return defaultValue;
+        if (!DIRECT) {
+            return item.getPersistentDataContainer().getOrDefault(key, PersistentDataType.LONG, defaultValue);
+        }
+        return find(item, key) instanceof NumericTag tag ? tag.longValue() : defaultValue;
+    }
+
+    public static double getDouble(ItemStack item, NamespacedKey key, double defaultValue) {
+        if (item == null) return defaultValue;
+        if (!DIRECT) {
+            return item.getPersistentDataContainer().getOrDefault(key, PersistentDataType.DOUBLE, defaultValue);
+        }
+        return find(item, key) instanceof NumericTag tag ? tag.doubleValue() : defaultValue;
+    }
+
+    /**
+     * Read a BOOLEAN value (stored as a byte).
+     */
+    public static boolean getBoolean(ItemStack item, NamespacedKey key, boolean defaultValue) {
+        if (item == null) return defaultValue;
+        if (!DIRECT) {
+            return item.getPersistentDataContainer().getOrDefault(key, PersistentDataType.BOOLEAN, defaultValue);
+        }
+        return find(item, key) instanceof NumericTag tag ? tag.byteValue() != 0 : defaultValue;
+    }
+
+    /**
+     * @return True if the stack has any value under the key
+     */
+    public static boolean has(ItemStack item, NamespacedKey key) {
+        if (item == null) return false;
+        if (!DIRECT) {
+            return item.getPersistentDataContainer().has(key);
+        }
+        return find(item, key) != null;
+    }
+
+    private static Tag find(ItemStack item, NamespacedKey key) {
+        CustomData customData = CraftItemStack.unwrap(item).get(DataComponents.CUSTOM_DATA);
+        if (customData == null) return null;
+
+        // Read-only use of the component's own tag; nothing here may modify it
+        @SuppressWarnings("deprecation")
+        CompoundTag root = customData.getUnsafe();
+        if (!(root.get(BUKKIT_VALUES) instanceof CompoundTag values)) return null;
+        return values.get(tagNames.computeIfAbsent(key, NamespacedKey::asString));
+    }
+}
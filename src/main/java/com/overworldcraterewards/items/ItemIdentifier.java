@@ -0,0 +1,81 @@
+package com.overworldcraterewards.items;
+
+import com.overworldcraterewards.data.PDCKeys;
+import org.bukkit.Material;
+import org.bukkit.inventory.ItemStack;
+
+/**
+ * Fast identification of custom items.
+ *
+ * Stacks whose material no custom item uses are rejected without looking
+ * at their data. Otherwise the item type is read through {@link ItemData},
+ * which does not copy the ItemMeta. Positive results are memoized by the
+ * identity of the stack's custom data component: the component is
+ * immutable and shared by copies of the stack, and replaced whenever the
+ * stack's data changes, so a hit is always current and costs no allocation.
+ */
+public final class ItemIdentifier {
+
+    private static final int CACHE_SIZE = 256;
+
+    // Materials used by at least one custom item, indexed by ordinal
+    private static final boolean[] CUSTOM_MATERIALS = new boolean[Material.values().length];
+
+    // Direct-mapped cache: custom data component -> item type
+    private static final Entry[] cache = new Entry[CACHE_SIZE];
+
+    static {
+        for (CustomItemType type : CustomItemType.values()) {
+            CUSTOM_MATERIALS[type.getMaterial().ordinal()] = true;
+        }
+    }
+
+    private record Entry(Object customData, CustomItemType type) {}
+
+    private ItemIdentifier() {} // Utility class
+
+    /**
+     * @return The custom item type of the stack, or null if it is not a custom item
+     */
+    public static CustomItemType identify(ItemStack item) {
+        if (item == null) return null;
+        Material material = item.getType();
+        if (!CUSTOM_MATERIALS[material.ordinal()]) return null;
+
+        if (!ItemData.isDirect()) {
+            return readType(item, material);
+        }
+
+        Object customData = ItemData.getDataIdentity(item);
+        if (customData == null) return null;
+
+        int slot = System.identityHashCode(customData) & (CACHE_SIZE - 1);
+        Entry entry = cache[slot];
+        if (entry != null && entry.customData == customData) {
+            return entry.type;
+        }
+
+        CustomItemType type = readType(item, material);
+        if (type != null) {
+            cache[slot] = new Entry(customData, type);
+        }
+        return type;
+    }
+
+    /**
+     * @return True if the stack is the given custom item type
+     */
+    public static boolean is(ItemStack item, CustomItemType type) {
+        if (item == null || item.getType() != type.getMaterial()) return false;
+        return identify(item) == type;
+    }
+
+    private static CustomItemType readType(ItemStack item, Material material) {
+        String id = ItemData.getString(item, PDCKeys.ITEM_TYPE);
+        if (id == null) return null;
+
+        CustomItemType type = CustomItemType.fromId(id);
+        // Custom items are always created with their own material
+        return type != null && type.getMaterial() == material ? type : null;
+    }
+}
@@ -0,0 +1,150 @@
+package com.overworldcraterewards.items;
+
+import org.bukkit.Bukkit;
+import org.bukkit.entity.Player;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.entity.EntityPickupItemEvent;
+import org.bukkit.event.entity.PlayerDeathEvent;
+import org.bukkit.event.inventory.InventoryClickEvent;
+import org.bukkit.event.inventory.InventoryDragEvent;
+import org.bukkit.event.player.PlayerDropItemEvent;
+import org.bukkit.event.player.PlayerJoinEvent;
+import org.bukkit.event.player.PlayerQuitEvent;
+import org.bukkit.event.player.PlayerRespawnEvent;
+import org.bukkit.event.player.PlayerSwapHandItemsEvent;
+import org.bukkit.inventory.PlayerInventory;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Per-player index of the inventory slot holding each custom item type.
+ *
+ * A remembered slot is verified on every lookup (one identification of one
+ * stack), so items moved by anything at all are noticed. Knowing that a
+ * player has no item of a type is what saves the inventory scans; that
+ * answer is dropped by inventory events (click, drag, pickup, drop, swap,
+ * death, join) and otherwise expires after a second, which bounds how long
+ * items given without an event (commands, other plugins) go unnoticed.
+ */
+public class ItemSlotIndex implements Listener {
+
+    // How long "no item of this type" is trusted without an inventory event
+    private static final int ABSENT_TICKS = 20;
+
+    private static final CustomItemType[] TYPES = CustomItemType.values();
+
+    private static final class Entry {
+        // Slot per type (ordinal), -1 if unknown
+        final int[] slots = new int[TYPES.length];
+        // Tick until which the type is known to be absent, per type
+        final long[] absentUntil = new long[TYPES.length];
+        // Tick of the last inventory event; scans in that tick may see the inventory before the change
+        long changedTick = -1;
+
+        Entry() {
+            Arrays.fill(slots, -1);
+        }
+    }
+
+    private final Map<UUID, Entry> entries = new HashMap<>();
+
+    /**
+     * @return The slot (PlayerInventory index, off-hand included) holding an
+     *         item of the type, or -1 if the player has none
+     */
+    public int findSlot(Player player, CustomItemType type) {
+        Entry entry = entries.computeIfAbsent(player.getUniqueId(), k -> new Entry());
+        PlayerInventory inventory = player.getInventory();
+        int index = type.ordinal();
+
+        int slot = entry.slots[index];
+        if (slot >= 0 && ItemIdentifier.is(inventory.getItem(slot), type)) {
+            return slot;
+        }
+        entry.slots[index] = -1;
+
+        long now = Bukkit.getCurrentTick();
+        if (now < entry.absentUntil[index]) {
+            return -1;
+        }
+
+        for (int i = 0; i < inventory.getSize(); i++) {
+            if (ItemIdentifier.is(inventory.getItem(i), type)) {
+                entry.slots[index] = i;
+                return i;
+            }
+        }
+        if (now > entry.changedTick) {
+            entry.absentUntil[index] = now + ABSENT_TICKS;
+        }
+        return -1;
+    }
+
+    /**
+     * Forget which types are known to be absent (an item may have been added).
+     */
+    public void invalidate(Player player) {
+        Entry entry = entries.get(player.getUniqueId());
+        if (entry == null) return;
+        Arrays.fill(entry.absentUntil, 0);
+        entry.changedTick = Bukkit.getCurrentTick();
+    }
+
+    // === Events ===
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onInventoryClick(InventoryClickEvent event) {
+        if (event.getWhoClicked() instanceof Player player) {
+            invalidate(player);
+        }
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onInventoryDrag(InventoryDragEvent event) {
+        if (event.getWhoClicked() instanceof Player player) {
+            invalidate(player);
+        }
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onPickup(EntityPickupItemEvent event) {
+        if (event.getEntity() instanceof Player player) {
+            invalidate(player);
+        }
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onDrop(PlayerDropItemEvent event) {
+        invalidate(event.getPlayer());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onSwapHands(PlayerSwapHandItemsEvent event) {
+        invalidate(event.getPlayer());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onDeath(PlayerDeathEvent event) {
+        invalidate(event.getEntity());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onRespawn(PlayerRespawnEvent event) {
+        invalidate(event.getPlayer());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onJoin(PlayerJoinEvent event) {
+        entries.put(event.getPlayer().getUniqueId(), new Entry());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onQuit(PlayerQuitEvent event) {
+        entries.remove(event.getPlayer().getUniqueId());
+    }
+}
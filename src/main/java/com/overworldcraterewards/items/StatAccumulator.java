@@ -0,0 +1,279 @@
+package com.overworldcraterewards.items;
+
+import com.overworldcraterewards.OverworldCrateRewardsPlugin;
+import com.overworldcraterewards.util.InventoryUtil;
+import org.bukkit.Bukkit;
+import org.bukkit.NamespacedKey;
+import org.bukkit.entity.Player;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.entity.PlayerDeathEvent;
+import org.bukkit.event.inventory.InventoryClickEvent;
+import org.bukkit.event.inventory.InventoryDragEvent;
+import org.bukkit.event.player.PlayerDropItemEvent;
+import org.bukkit.event.player.PlayerQuitEvent;
+import org.bukkit.event.player.PlayerSwapHandItemsEvent;
+import org.bukkit.inventory.ItemStack;
+import org.bukkit.inventory.meta.ItemMeta;
+import org.bukkit.persistence.PersistentDataContainer;
+import org.bukkit.persistence.PersistentDataType;
+import org.bukkit.scheduler.BukkitRunnable;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.BiConsumer;
+import java.util.function.DoubleSupplier;
+
+/**
+ * Write-behind storage for the stats tracked on custom items.
+ *
+ * The first tracked event on an item loads its stats into primitive fields;
+ * later events update those fields only, so thresholds are checked against
+ * the exact current values without an ItemMeta round trip per event. Stats
+ * are written back to the item's persistent data (and its lore refreshed)
+ * every stats.flush-interval ticks, before the item is moved or dropped, on
+ * death and quit, and on plugin disable. Features flush explicitly before
+ * changing the item themselves (upgrades, toggles).
+ */
+public class StatAccumulator implements Listener {
+
+    private static final CustomItemType[] TYPES = CustomItemType.values();
+
+    /**
+     * Persistent data keys a custom item type tracks, and how to refresh
+     * its lore once they were written.
+     */
+    public record Spec(NamespacedKey[] longKeys, NamespacedKey[] doubleKeys,
+                       DoubleSupplier[] doubleDefaults, BiConsumer<Player, ItemStack> afterFlush) {}
+
+    /**
+     * Current stat values of one item, indexed like the keys of its spec.
+     */
+    public static final class Stats {
+        private final int slot;
+        private final long[] longs;
+        private final double[] doubles;
+        private boolean dirty = false;
+
+        private Stats(int slot, int longCount, int doubleCount) {
+            this.slot = slot;
+            this.longs = new long[longCount];
+            this.doubles = new double[doubleCount];
+        }
+
+        public long getLong(int index) { return longs[index]; }
+        public double getDouble(int index) { return doubles[index]; }
+
+        public long addLong(int index, long delta) {
+            dirty = true;
+            return longs[index] += delta;
+        }
+
+        public double addDouble(int index, double delta) {
+            dirty = true;
+            return doubles[index] += delta;
+        }
+
+        public void setLong(int index, long value) {
+            dirty = true;
+            longs[index] = value;
+        }
+
+        public void setDouble(int index, double value) {
+            dirty = true;
+            doubles[index] = value;
+        }
+    }
+
+    private final Spec[] specs = new Spec[TYPES.length];
+
+    // Player -> loaded stats per item type (ordinal), null if none
+    private final Map<UUID, Stats[]> players = new HashMap<>();
+
+    public StatAccumulator(OverworldCrateRewardsPlugin plugin) {
+        new BukkitRunnable() {
+            @Override
+            public void run() {
+                flushAll();
+            }
+        }.runTaskTimer(plugin, 20L, plugin.getConfigManager().getStatFlushInterval());
+    }
+
+    public void register(CustomItemType type, NamespacedKey[] longKeys, NamespacedKey[] doubleKeys,
+                         BiConsumer<Player, ItemStack> afterFlush) {
+        register(type, longKeys, doubleKeys, null, afterFlush);
+    }
+
+    /**
+     * @param doubleDefaults Defaults for missing double values (null entries mean 0)
+     */
+    public void register(CustomItemType type, NamespacedKey[] longKeys, NamespacedKey[] doubleKeys,
+                         DoubleSupplier[] doubleDefaults, BiConsumer<Player, ItemStack> afterFlush) {
+        specs[type.ordinal()] = new Spec(longKeys, doubleKeys, doubleDefaults, afterFlush);
+    }
+
+    /**
+     * Stats of the item in the given slot, loaded from the item on first use.
+     * If the type's stats were loaded from another slot, those are flushed first.
+     */
+    public Stats get(Player player, CustomItemType type, int slot, ItemStack item) {
+        Stats[] all = players.computeIfAbsent(player.getUniqueId(), k -> new Stats[TYPES.length]);
+        int index = type.ordinal();
+
+        Stats stats = all[index];
+        if (stats != null && stats.slot != slot) {
+            flush(player, type);
+            stats = null;
+        }
+        if (stats == null) {
+            stats = load(specs[index], slot, item);
+            all[index] = stats;
+        }
+        return stats;
+    }
+
+    private static Stats load(Spec spec, int slot, ItemStack item) {
+        Stats stats = new Stats(slot, spec.longKeys.length, spec.doubleKeys.length);
+        for (int i = 0; i < spec.longKeys.length; i++) {
+            stats.longs[i] = ItemData.getLong(item, spec.longKeys[i], 0L);
+        }
+        for (int i = 0; i < spec.doubleKeys.length; i++) {
+            DoubleSupplier fallback = spec.doubleDefaults != null ? spec.doubleDefaults[i] : null;
+            stats.doubles[i] = ItemData.getDouble(item, spec.doubleKeys[i],
+                    fallback != null ? fallback.getAsDouble() : 0.0);
+        }
+        return stats;
+    }
+
+    // === Flushing ===
+
+    /**
+     * Write one item type's pending stats back to the player's item.
+     */
+    public void flush(Player player, CustomItemType type) {
+        Stats[] all = players.get(player.getUniqueId());
+        if (all == null) return;
+
+        int index = type.ordinal();
+        Stats stats = all[index];
+        all[index] = null;
+        if (stats == null || !stats.dirty) return;
+
+        ItemStack item = player.getInventory().getItem(stats.slot);
+        if (!ItemIdentifier.is(item, type)) {
+            // Moved without an event; the item is gone if it cannot be found
+            int slot = InventoryUtil.findItemSlot(player, type);
+            if (slot < 0) return;
+            item = player.getInventory().getItem(slot);
+        }
+        // The stack is the live slot contents, so it is updated in place
+        write(specs[index], stats, player, item);
+    }
+
+    public void flush(Player player) {
+        Stats[] all = players.get(player.getUniqueId());
+        if (all == null) return;
+        for (int i = 0; i < all.length; i++) {
+            if (all[i] != null) {
+                flush(player, TYPES[i]);
+            }
+        }
+    }
+
+    public void flushAll() {
+        for (UUID uuid : players.keySet().toArray(new UUID[0])) {
+            Player player = Bukkit.getPlayer(uuid);
+            if (player != null) {
+                flush(player);
+            } else {
+                players.remove(uuid);
+            }
+        }
+    }
+
+    private static void write(Spec spec, Stats stats, Player player, ItemStack item) {
+        ItemMeta meta = item.getItemMeta();
+        PersistentDataContainer pdc = meta.getPersistentDataContainer();
+        for (int i = 0; i < spec.longKeys.length; i++) {
+            pdc.set(spec.longKeys[i], PersistentDataType.LONG, stats.longs[i]);
+        }
+        for (int i = 0; i < spec.doubleKeys.length; i++) {
+            pdc.set(spec.doubleKeys[i], PersistentDataType.DOUBLE, stats.doubles[i]);
+        }
+        item.setItemMeta(meta);
+        spec.afterFlush.accept(player, item);
+    }
+
+    // === Events ===
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onInventoryClick(InventoryClickEvent event) {
+        if (event.getWhoClicked() instanceof Player player) {
+            flush(player);
+        }
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onInventoryDrag(InventoryDragEvent event) {
+        if (event.getWhoClicked() instanceof Player player) {
+            flush(player);
+        }
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onDrop(PlayerDropItemEvent event) {
+        // The dropped stack was already taken out of the inventory
+        Player player = event.getPlayer();
+        ItemStack dropped = event.getItemDrop().getItemStack();
+        CustomItemType type = ItemIdentifier.identify(dropped);
+        Stats[] all = players.get(player.getUniqueId());
+        if (type != null && all != null && all[type.ordinal()] != null) {
+            Stats stats = all[type.ordinal()];
+            if (!ItemIdentifier.is(player.getInventory().getItem(stats.slot), type)) {
+                all[type.ordinal()] = null;
+                if (stats.dirty) {
+                    write(specs[type.ordinal()], stats, player, dropped);
+                    event.getItemDrop().setItemStack(dropped);
+                }
+            }
+        }
+        flush(player);
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onSwapHands(PlayerSwapHandItemsEvent event) {
+        flush(event.getPlayer());
+    }
+
+    /**
+     * Write pending stats to the item in the inventory (kept with keepInventory)
+     * and to its copy in the drops.
+     */
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onDeath(PlayerDeathEvent event) {
+        Player player = event.getEntity();
+        Stats[] all = players.get(player.getUniqueId());
+        if (all == null) return;
+
+        for (int i = 0; i < all.length; i++) {
+            Stats stats = all[i];
+            if (stats == null || !stats.dirty) continue;
+            for (ItemStack drop : event.getDrops()) {
+                if (ItemIdentifier.is(drop, TYPES[i])) {
+                    write(specs[i], stats, player, drop);
+                    break;
+                }
+            }
+        }
+        flush(player);
+        players.remove(player.getUniqueId());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onQuit(PlayerQuitEvent event) {
+        flush(event.getPlayer());
+        players.remove(event.getPlayer().getUniqueId());
+    }
+}
@@ -1,10 +1,11 @@
 package com.overworldcraterewards.util;
 
-import com.overworldcraterewards.data.PDCKeys;
+import com.overworldcraterewards.OverworldCrateRewardsPlugin;
 import com.overworldcraterewards.items.CustomItemType;
+import com.overworldcraterewards.items.ItemIdentifier;
+import com.overworldcraterewards.items.ItemSlotIndex;
 import org.bukkit.entity.Player;
 import org.bukkit.inventory.ItemStack;
-import org.bukkit.persistence.PersistentDataType;
 
 /**
  * Utility methods for inventory operations.
@@ -30,18 +31,42 @@ public final class InventoryUtil {
      * @return The ItemStack if found, null otherwise
      */
     public static ItemStack findItemInInventory(Player player, CustomItemType type) {
-        // Check main inventory + hotbar
-        for (ItemStack item : player.getInventory().getContents()) {
-            if (isCustomItem(item, type)) {
-                return item;
+        int slot = findItemSlot(player, type);
+        return slot >= 0 ? player.getInventory().getItem(slot) : null;
+    }
+
+    /**
+     * Find the slot of a specific custom item type in a player's inventory.
+     * @param player The player to check
+     * @param type The item type to look for
+     * @return The PlayerInventory slot (off-hand included), or -1 if not found
+     */
+    public static int findItemSlot(Player player, CustomItemType type) {
+        OverworldCrateRewardsPlugin plugin = OverworldCrateRewardsPlugin.getInstance();
+        ItemSlotIndex index = plugin != null ? plugin.getItemSlotIndex() : null;
+        if (index != null) {
+            return index.findSlot(player, type);
+        }
+
+        for (int i = 0; i < player.getInventory().getSize(); i++) {
+            if (isCustomItem(player.getInventory().getItem(i), type)) {
+                return i;
             }
         }
-        // Check off-hand slot (not included in getContents())
-        ItemStack offHand = player.getInventory().getItemInOffHand();
-        if (isCustomItem(offHand, type)) {
-            return offHand;
+        return -1;
+    }
+
+    /**
+     * Write an updated custom item back into the slot holding that item type.
+     * @param player The player whose inventory to update
+     * @param type The item type to replace
+     * @param updated The updated item
+     */
+    public static void replaceItemInInventory(Player player, CustomItemType type, ItemStack updated) {
+        int slot = findItemSlot(player, type);
+        if (slot >= 0) {
+            player.getInventory().setItem(slot, updated);
         }
-        return null;
     }
 
     /**
@@ -51,14 +76,7 @@ public final class InventoryUtil {
      * @return true if the item matches the type
      */
     public static boolean isCustomItem(ItemStack item, CustomItemType type) {
-        if (item == null || !item.hasItemMeta()) {
-            return false;
-        }
-
-        String itemType = item.getItemMeta().getPersistentDataContainer()
-                .get(PDCKeys.ITEM_TYPE, PersistentDataType.STRING);
-
-        return type.getId().equals(itemType);
+        return ItemIdentifier.is(item, type);
     }
 
     /**
@@ -67,17 +85,6 @@ public final class InventoryUtil {
      * @return The CustomItemType if it's a custom item, null otherwise
      */
     public static CustomItemType getCustomItemType(ItemStack item) {
-        if (item == null || !item.hasItemMeta()) {
-            return null;
-        }
-
-        String itemTypeId = item.getItemMeta().getPersistentDataContainer()
-                .get(PDCKeys.ITEM_TYPE, PersistentDataType.STRING);
-
-        if (itemTypeId == null) {
-            return null;
-        }
-
-        return CustomItemType.fromId(itemTypeId);
+        return ItemIdentifier.identify(item);
     }
 }
@@ -0,0 +1,255 @@
+package com.overworldcraterewards.economy;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Logger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class EconomyExecutorTest {
+
+    private static final Logger LOGGER = Logger.getLogger("EconomyExecutorTest");
+    private static final UUID PLAYER = UUID.randomUUID();
+
+    @Test
+    void refusedResultsTripTheBreaker() {
+        EconomyExecutor executor = new EconomyExecutor(LOGGER, 4, 3, 60_000);
+        for (int i = 0; i < 3; i++) {
+            assertTrue(executor.isAsync());
+            assertFalse(executor.submit(PLAYER, () -> false, success -> !success).join());
+        }
+        assertFalse(executor.isAsync());
+
+        // While tripped, calls for players with nothing queued run on the calling thread
+        Thread caller = Thread.currentThread();
+        assertEquals(caller, executor.submit(UUID.randomUUID(), Thread::currentThread).join());
+        executor.close();
+    }
+
+    @Test
+    void successResetsTheFailureCount() {
+        EconomyExecutor executor = new EconomyExecutor(LOGGER, 4, 3, 60_000);
+        executor.submit(PLAYER, () -> false, success -> !success).join();
+        executor.submit(PLAYER, () -> false, success -> !success).join();
+        executor.submit(PLAYER, () -> true, success -> !success).join();
+        executor.submit(PLAYER, () -> false, success -> !success).join();
+        executor.submit(PLAYER, () -> false, success -> !success).join();
+        assertTrue(executor.isAsync());
+        executor.close();
+    }
+
+    @Test
+    void resultsAreNotCountedWithoutAFailureTest() {
+        EconomyExecutor executor = new EconomyExecutor(LOGGER, 4, 1, 60_000);
+        executor.submit(PLAYER, () -> false).join();
+        assertTrue(executor.isAsync());
+        executor.close();
+    }
+
+    @Test
+    void callsForOnePlayerRunInSubmissionOrder() {
+        EconomyExecutor executor = new EconomyExecutor(LOGGER, 8, 3, 60_000);
+        List<Integer> order = Collections.synchronizedList(new ArrayList<>());
+        AtomicInteger running = new AtomicInteger();
+        List<CompletableFuture<Integer>> results = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            int call = i;
+            results.add(executor.submit(PLAYER, () -> {
+                // Never two calls of the same player at once
+                assertEquals(1, running.incrementAndGet());
+                order.add(call);
+                running.decrementAndGet();
+                return call;
+            }));
+        }
+        for (CompletableFuture<Integer> result : results) {
+            result.join();
+        }
+
+        List<Integer> expected = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            expected.add(i);
+        }
+        assertEquals(expected, order);
+        executor.close();
+    }
+
+    @Test
+    void withdrawalWaitsForQueuedDeposits() {
+        EconomyExecutor executor = new EconomyExecutor(LOGGER, 4, 3, 60_000);
+        CountDownLatch provider = new CountDownLatch(1);
+        AtomicInteger balance = new AtomicInteger();
+
+        CompletableFuture<Integer> deposit = executor.submit(PLAYER, () -> {
+            await(provider);
+            return balance.addAndGet(10);
+        });
+        CompletableFuture<Boolean> withdrawal = executor.submit(PLAYER, () -> balance.get() >= 10);
+
+        assertFalse(withdrawal.isDone());
+        provider.countDown();
+        assertEquals(10, deposit.join().intValue());
+        assertTrue(withdrawal.join());
+        executor.close();
+    }
+
+    @Test
+    void trippedBreakerDoesNotOvertakeQueuedCalls() {
+        EconomyExecutor executor = new EconomyExecutor(LOGGER, 4, 1, 60_000);
+        CountDownLatch provider = new CountDownLatch(1);
+        List<String> order = Collections.synchronizedList(new ArrayList<>());
+
+        CompletableFuture<Boolean> queued = executor.submit(PLAYER, () -> {
+            await(provider);
+            order.add("deposit");
+            return true;
+        });
+        // Another player's refusal trips the breaker while the deposit is still queued
+        executor.submit(UUID.randomUUID(), () -> false, success -> !success).join();
+        assertFalse(executor.isAsync());
+
+        CompletableFuture<Boolean> withdrawal = executor.submit(PLAYER, () -> order.add("withdraw"));
+        provider.countDown();
+        queued.join();
+        withdrawal.join();
+
+        assertEquals(List.of("deposit", "withdraw"), order);
+        executor.close();
+    }
+
+    @Test
+    void atMostMaxConcurrentCallsRunAtOnce() throws InterruptedException {
+        EconomyExecutor executor = new EconomyExecutor(LOGGER, 2, 3, 60_000);
+        CountDownLatch provider = new CountDownLatch(1);
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger peak = new AtomicInteger();
+
+        List<CompletableFuture<Boolean>> results = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            results.add(executor.submit(UUID.randomUUID(), () -> {
+                peak.accumulateAndGet(running.incrementAndGet(), Math::max);
+                await(provider);
+                running.decrementAndGet();
+                return true;
+            }));
+        }
+
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (running.get() < 2 && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+        // Give the other four a chance to get past the limit if it were broken
+        Thread.sleep(100);
+        assertEquals(2, running.get());
+
+        provider.countDown();
+        for (CompletableFuture<Boolean> result : results) {
+            assertTrue(result.join());
+        }
+        assertEquals(2, peak.get());
+        executor.close();
+    }
+
+    @Test
+    void callCancelledBeforeItStartsIsDropped() {
+        EconomyExecutor executor = new EconomyExecutor(LOGGER, 4, 3, 60_000);
+        CountDownLatch provider = new CountDownLatch(1);
+        AtomicInteger calls = new AtomicInteger();
+
+        CompletableFuture<Boolean> running = executor.submit(PLAYER, () -> {
+            await(provider);
+            return true;
+        });
+        CompletableFuture<Integer> queued = executor.submit(PLAYER, calls::incrementAndGet);
+        // The caller gave up waiting while the call was still queued
+        assertTrue(queued.cancel(false));
+        provider.countDown();
+        running.join();
+
+        assertEquals(1, executor.submit(PLAYER, calls::incrementAndGet).join().intValue());
+        assertFalse(running.cancel(false));
+        executor.close();
+    }
+
+    @Test
+    void callThatStartedCannotBeCancelled() {
+        EconomyExecutor executor = new EconomyExecutor(LOGGER, 4, 3, 60_000);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch provider = new CountDownLatch(1);
+
+        CompletableFuture<Boolean> call = executor.submit(PLAYER, () -> {
+            started.countDown();
+            await(provider);
+            return true;
+        });
+        await(started);
+        assertFalse(call.cancel(false));
+        provider.countDown();
+        assertTrue(call.join());
+        executor.close();
+    }
+
+    @Test
+    void timeoutsTripTheBreaker() {
+        EconomyExecutor executor = new EconomyExecutor(LOGGER, 4, 2, 60_000);
+        executor.recordTimeout(250);
+        assertTrue(executor.isAsync());
+        executor.recordTimeout(250);
+        assertFalse(executor.isAsync());
+        executor.close();
+    }
+
+    @Test
+    void forgottenQueueIsDroppedOnceItDrains() throws InterruptedException {
+        EconomyExecutor executor = new EconomyExecutor(LOGGER, 4, 3, 60_000);
+        CountDownLatch provider = new CountDownLatch(1);
+        CompletableFuture<Boolean> call = executor.submit(PLAYER, () -> {
+            await(provider);
+            return true;
+        });
+
+        // The player quit with a payout still running
+        executor.forget(PLAYER);
+        assertEquals(1, executor.getTrackedPlayers());
+        provider.countDown();
+        call.join();
+
+        // The drain finishes just after the result completes
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (executor.getTrackedPlayers() > 0 && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+        assertEquals(0, executor.getTrackedPlayers());
+        executor.close();
+    }
+
+    @Test
+    void idleQueueIsDroppedRightAway() {
+        EconomyExecutor executor = new EconomyExecutor(LOGGER, 4, 1, 60_000);
+        // Tripped breaker: the call runs inline and leaves an idle queue behind
+        executor.recordTimeout(250);
+        executor.submit(PLAYER, () -> true).join();
+        assertEquals(1, executor.getTrackedPlayers());
+        executor.forget(PLAYER);
+        assertEquals(0, executor.getTrackedPlayers());
+        executor.close();
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            assertTrue(latch.await(5, TimeUnit.SECONDS));
+        } catch (InterruptedException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,215 @@
+package com.overworldcraterewards.economy;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.UUID;
+import java.util.logging.Logger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PayoutJournalTest {
+
+    private static final Logger LOGGER = Logger.getLogger("PayoutJournalTest");
+    private static final UUID ALICE = UUID.fromString("00000000-0000-0000-0000-00000000000a");
+    private static final UUID BOB = UUID.fromString("00000000-0000-0000-0000-00000000000b");
+
+    @TempDir
+    Path dir;
+
+    private File file() {
+        return dir.resolve("payouts.journal").toFile();
+    }
+
+    private PayoutJournal open() {
+        PayoutJournal journal = new PayoutJournal(LOGGER, file());
+        assertEquals(List.of(), journal.recover());
+        return journal;
+    }
+
+    /**
+     * Read back what a restart would pay (the journal is started anew, as on a real start).
+     */
+    private List<PayoutJournal.Payout> recoverAfterRestart() {
+        PayoutJournal journal = new PayoutJournal(LOGGER, file());
+        List<PayoutJournal.Payout> payouts = journal.recover();
+        journal.close();
+        return payouts;
+    }
+
+    @Test
+    void uncommittedDepositsAreRecovered() {
+        PayoutJournal journal = open();
+        long first = journal.deposit(ALICE, 1.5);
+        long last = journal.deposit(ALICE, 2.0);
+        long bob = journal.deposit(BOB, 4.0);
+        journal.commit(BOB, bob, bob);
+        journal.close();
+
+        assertEquals(List.of(new PayoutJournal.Payout(ALICE, 3.5, first, last)), recoverAfterRestart());
+    }
+
+    @Test
+    void commitOnlyCoversItsOwnRange() {
+        PayoutJournal journal = open();
+        long first = journal.deposit(ALICE, 1.0);
+        long second = journal.deposit(ALICE, 2.0);
+        // Batch [first, second] fails; a later deposit is paid on its own
+        long third = journal.deposit(ALICE, 4.0);
+        journal.commit(ALICE, third, third);
+        journal.close();
+
+        assertEquals(List.of(new PayoutJournal.Payout(ALICE, 3.0, first, second)), recoverAfterRestart());
+        assertTrue(first < second && second < third);
+    }
+
+    @Test
+    void failedBatchThenSuccessfulRetryCommitsEverything() {
+        PayoutJournal journal = open();
+        PendingPayouts pending = new PendingPayouts(5);
+
+        pending.add(ALICE, 1.0, journal.deposit(ALICE, 1.0));
+        pending.add(ALICE, 2.0, journal.deposit(ALICE, 2.0));
+        PendingPayouts.Batch failed = pending.take(ALICE);
+
+        // Deposited while the first batch is in flight; it must not be paid before that one settles
+        pending.add(ALICE, 4.0, journal.deposit(ALICE, 4.0));
+        assertNull(pending.take(ALICE));
+
+        pending.putBack(failed);
+        PendingPayouts.Batch retry = pending.take(ALICE);
+        assertEquals(7.0, retry.amount());
+        journal.commit(ALICE, retry.firstSeq(), retry.lastSeq());
+        pending.paid(retry);
+        journal.close();
+
+        assertEquals(List.of(), recoverAfterRestart());
+    }
+
+    @Test
+    void crashBeforeRetryKeepsFailedBatchOwed() {
+        PayoutJournal journal = open();
+        PendingPayouts pending = new PendingPayouts(5);
+
+        long first = journal.deposit(ALICE, 1.0);
+        pending.add(ALICE, 1.0, first);
+        PendingPayouts.Batch failed = pending.take(ALICE);
+        long last = journal.deposit(ALICE, 4.0);
+        pending.add(ALICE, 4.0, last);
+        pending.putBack(failed);
+
+        // Nothing was committed: the crash must not lose the failed batch
+        journal.close();
+        assertEquals(List.of(new PayoutJournal.Payout(ALICE, 5.0, first, last)), recoverAfterRestart());
+    }
+
+    @Test
+    void deadLetteredDepositsAreNotRecovered() throws IOException {
+        PayoutJournal journal = open();
+        long first = journal.deposit(ALICE, 1.0);
+        long last = journal.deposit(ALICE, 2.0);
+        long bob = journal.deposit(BOB, 4.0);
+        journal.deadLetter(ALICE, first, last, 3.0, 5);
+        journal.close();
+
+        assertEquals(List.of(new PayoutJournal.Payout(BOB, 4.0, bob, bob)), recoverAfterRestart());
+        List<String> dead = Files.readAllLines(dir.resolve("payouts.journal.dead"), StandardCharsets.UTF_8);
+        assertEquals(1, dead.size());
+        assertTrue(dead.get(0).endsWith("|" + ALICE + "|3.0|5|" + first + "|" + last));
+    }
+
+    @Test
+    void tornAndMalformedLinesAreSkipped() throws IOException {
+        Files.writeString(file().toPath(), String.join("\n",
+                "D|1|" + ALICE + "|5.0",
+                "X|garbage",
+                "D|2|not-a-uuid|1.0",
+                "C|" + ALICE + "|1|1",
+                "D|3|" + BOB + "|2.5",
+                "D|4|" + BOB), StandardCharsets.UTF_8);
+
+        assertEquals(List.of(new PayoutJournal.Payout(BOB, 2.5, 3, 3)), recoverAfterRestart());
+    }
+
+    @Test
+    void sequenceContinuesAfterRecovery() throws IOException {
+        Files.writeString(file().toPath(), "D|41|" + ALICE + "|1.0\n", StandardCharsets.UTF_8);
+
+        PayoutJournal journal = new PayoutJournal(LOGGER, file());
+        journal.recover();
+        assertEquals(42, journal.deposit(ALICE, 1.0));
+        journal.close();
+    }
+
+    @Test
+    void recoveredPayoutsSurviveASecondCrash() {
+        PayoutJournal journal = open();
+        long seq = journal.deposit(ALICE, 1.0);
+        journal.close();
+
+        PayoutJournal restarted = new PayoutJournal(LOGGER, file());
+        PayoutJournal.Payout owed = new PayoutJournal.Payout(ALICE, 1.0, seq, seq);
+        assertEquals(List.of(owed), restarted.recover());
+        // Crashes again before paying: the compacted journal still holds the deposit
+        restarted.close();
+        assertEquals(List.of(owed), recoverAfterRestart());
+    }
+
+    @Test
+    void recoveredPayoutsAreCommittedUnderTheirOriginalSeqs() throws IOException {
+        PayoutJournal journal = open();
+        journal.deposit(ALICE, 1.0);
+        long bob = journal.deposit(BOB, 2.0);
+        journal.commit(BOB, bob, bob);
+        journal.close();
+
+        PayoutJournal restarted = new PayoutJournal(LOGGER, file());
+        PayoutJournal.Payout owed = restarted.recover().get(0);
+        // Only the open deposit is carried over
+        assertEquals(1, Files.readAllLines(file().toPath()).size());
+        restarted.commit(owed.player(), owed.firstSeq(), owed.lastSeq());
+        restarted.close();
+
+        assertEquals(List.of(), recoverAfterRestart());
+    }
+
+    @Test
+    void journalIsTruncatedOnceEverythingIsCommitted() throws IOException {
+        PayoutJournal journal = open();
+        for (int i = 0; i < 3000; i++) {
+            long seq = journal.deposit(ALICE, 1.0);
+            journal.commit(ALICE, seq, seq);
+        }
+        long open = journal.deposit(BOB, 2.0);
+        journal.close();
+
+        assertTrue(Files.readAllLines(file().toPath()).size() < 5000);
+        assertEquals(List.of(new PayoutJournal.Payout(BOB, 2.0, open, open)), recoverAfterRestart());
+        assertTrue(open > 3000);
+    }
+
+    @Test
+    void journalIsCompactedWhileDepositsStayOpen() throws IOException {
+        PayoutJournal journal = open();
+        // Bob's deposit is never paid, so the journal is never fully committed
+        long stuck = journal.deposit(BOB, 2.0);
+        for (int i = 0; i < 6000; i++) {
+            long seq = journal.deposit(ALICE, 1.0);
+            journal.commit(ALICE, seq, seq);
+        }
+        long open = journal.deposit(ALICE, 3.0);
+        journal.close();
+
+        assertTrue(Files.readAllLines(file().toPath()).size() < 5000);
+        assertEquals(List.of(new PayoutJournal.Payout(BOB, 2.0, stuck, stuck),
+                new PayoutJournal.Payout(ALICE, 3.0, open, open)), recoverAfterRestart());
+    }
+}
@@ -0,0 +1,102 @@
+package com.overworldcraterewards.economy;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PendingPayoutsTest {
+
+    private static final UUID PLAYER = UUID.randomUUID();
+
+    @Test
+    void batchCoversAllPendingDeposits() {
+        PendingPayouts pending = new PendingPayouts(5);
+        pending.add(PLAYER, 1.0, 1);
+        pending.add(PLAYER, 2.5, 4);
+
+        PendingPayouts.Batch batch = pending.take(PLAYER);
+        assertNotNull(batch);
+        assertEquals(3.5, batch.amount());
+        assertEquals(1, batch.firstSeq());
+        assertEquals(4, batch.lastSeq());
+        assertNull(pending.take(PLAYER));
+    }
+
+    @Test
+    void noSecondBatchWhileOneIsInFlight() {
+        PendingPayouts pending = new PendingPayouts(5);
+        pending.add(PLAYER, 1.0, 1);
+        PendingPayouts.Batch first = pending.take(PLAYER);
+
+        pending.add(PLAYER, 2.0, 2);
+        assertNull(pending.take(PLAYER));
+        assertTrue(pending.isOwed(PLAYER));
+
+        pending.paid(first);
+        PendingPayouts.Batch second = pending.take(PLAYER);
+        assertNotNull(second);
+        assertEquals(2.0, second.amount());
+        assertEquals(2, second.firstSeq());
+        assertEquals(2, second.lastSeq());
+
+        pending.paid(second);
+        assertFalse(pending.isOwed(PLAYER));
+    }
+
+    @Test
+    void failedBatchIsRetriedWithLaterDeposits() {
+        PendingPayouts pending = new PendingPayouts(5);
+        pending.add(PLAYER, 1.0, 1);
+        pending.add(PLAYER, 2.0, 2);
+        PendingPayouts.Batch failed = pending.take(PLAYER);
+
+        pending.add(PLAYER, 4.0, 3);
+        pending.putBack(failed);
+
+        PendingPayouts.Batch retry = pending.take(PLAYER);
+        assertNotNull(retry);
+        assertEquals(7.0, retry.amount());
+        assertEquals(1, retry.firstSeq());
+        assertEquals(3, retry.lastSeq());
+    }
+
+    @Test
+    void batchIsGivenUpOnAfterMaxAttempts() {
+        PendingPayouts pending = new PendingPayouts(3);
+        pending.add(PLAYER, 1.0, 1);
+
+        assertTrue(pending.putBack(pending.take(PLAYER)));
+        assertTrue(pending.putBack(pending.take(PLAYER)));
+        PendingPayouts.Batch last = pending.take(PLAYER);
+        assertEquals(2, last.attempts());
+        assertFalse(pending.putBack(last));
+
+        // Given up on: no longer owed, and nothing left in flight
+        assertFalse(pending.isOwed(PLAYER));
+        pending.add(PLAYER, 2.0, 2);
+        PendingPayouts.Batch next = pending.take(PLAYER);
+        assertNotNull(next);
+        assertEquals(2.0, next.amount());
+        assertEquals(0, next.attempts());
+    }
+
+    @Test
+    void totalsIncludeOnlyPendingDeposits() {
+        PendingPayouts pending = new PendingPayouts(5);
+        UUID other = UUID.randomUUID();
+        pending.add(PLAYER, 1.0, 1);
+        pending.add(other, 2.0, 2);
+        assertEquals(3.0, pending.total());
+        assertEquals(2, pending.size());
+
+        pending.take(PLAYER);
+        assertEquals(2.0, pending.total());
+        assertEquals(1, pending.size());
+    }
+}
@@ -0,0 +1,264 @@
+package com.overworldcraterewards.features.vacuumhopper;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.logging.Logger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class HopperJournalTest {
+
+    private static final String OWNER = "00000000-0000-0000-0000-00000000000a";
+
+    @TempDir
+    Path dir;
+
+    private File yml;
+    private File journalFile;
+
+    // Every journal opened by a test; closed afterwards so no I/O thread outlives it
+    private final List<HopperJournal> running = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        yml = dir.resolve("vacuum-hoppers.yml").toFile();
+        journalFile = dir.resolve("vacuum-hoppers.yml.journal").toFile();
+    }
+
+    @AfterEach
+    void closeJournals() {
+        for (HopperJournal journal : running) {
+            journal.close(List.of(), HopperJournalTest::nothingRegistered);
+        }
+    }
+
+    private HopperJournal start() {
+        HopperJournal journal = new HopperJournal(Logger.getLogger(HopperJournal.class.getName()), yml, 2);
+        running.add(journal);
+        return journal;
+    }
+
+    private void stop(HopperJournal journal, List<HopperRecord> changed, HopperRecord... registered) {
+        running.remove(journal);
+        journal.close(changed, () -> registered(registered));
+    }
+
+    /**
+     * What the next start loads if the server dies now: the snapshot with
+     * the journal replayed, as far as the I/O thread has written it.
+     */
+    private Map<String, HopperRecord> loadAfterCrash(HopperJournal journal) {
+        journal.listWorlds().join();
+        return start().loadAll();
+    }
+
+    private Map<String, HopperRecord> snapshotContents() {
+        return HopperJournal.readSnapshot(yml, Logger.getLogger(HopperJournal.class.getName()));
+    }
+
+    private static HopperRecord hopper(int x, long collected) {
+        return new HopperRecord("world", x, 64, 0, OWNER, List.of("COBBLESTONE", "#logs"),
+                List.of("world:1:64:1", "world:2:64:1"), collected, 3, List.of("DIAMOND:5"));
+    }
+
+    @Test
+    void placementsSurviveACrashBeforeTheFirstCompaction() {
+        HopperJournal journal = start();
+        journal.save(hopper(1, 10));
+        journal.save(hopper(2, 20));
+        journal.save(hopper(1, 15));
+
+        Map<String, HopperRecord> loaded = loadAfterCrash(journal);
+        assertFalse(yml.exists());
+        // First placement order is kept; the last save of a hopper wins
+        assertEquals(List.of("world:1:64:0", "world:2:64:0"), List.copyOf(loaded.keySet()));
+        assertEquals(hopper(1, 15), loaded.get("world:1:64:0"));
+        assertEquals(hopper(2, 20), loaded.get("world:2:64:0"));
+    }
+
+    @Test
+    void brokenHoppersStayBrokenAfterACrash() {
+        HopperJournal journal = start();
+        journal.save(hopper(1, 10));
+        journal.save(hopper(2, 20));
+        journal.delete("world", 1, 64, 0);
+
+        assertEquals(Set.of("world:2:64:0"), loadAfterCrash(journal).keySet());
+    }
+
+    @Test
+    void placementCutOffMidWriteIsDropped() throws IOException {
+        HopperJournal journal = start();
+        journal.save(hopper(1, 10));
+        journal.listWorlds().join();
+        // The server died while appending the next placement
+        Files.writeString(journalFile.toPath(), "P|world|2|64|0|" + OWNER + "|STONE|wor",
+                StandardCharsets.UTF_8, StandardOpenOption.APPEND);
+
+        assertEquals(Map.of("world:1:64:0", hopper(1, 10)), loadAfterCrash(journal));
+    }
+
+    @Test
+    void unreadableRecordsDoNotStopTheReplay() throws IOException {
+        Files.writeString(journalFile.toPath(), String.join("\n",
+                "P|world|2|64|0|-|||many|0|",
+                "R",
+                "P|world|1|64|0|-|||7|0|",
+                "M|world:1:64:0"), StandardCharsets.UTF_8);
+
+        Map<String, HopperRecord> loaded = start().loadAll();
+        assertEquals(Set.of("world:1:64:0"), loaded.keySet());
+        HopperRecord unowned = loaded.get("world:1:64:0");
+        assertNull(unowned.owner());
+        assertEquals(List.of(), unowned.filter());
+        assertEquals(7, unowned.itemsCollected());
+    }
+
+    @Test
+    void recordsWrittenBeforeTheTransferBufferAreReplayed() throws IOException {
+        Files.writeString(journalFile.toPath(),
+                "P|world|1|64|0|" + OWNER + "|STONE|world:1:64:1|4|2\n", StandardCharsets.UTF_8);
+
+        HopperRecord legacy = start().loadAll().get("world:1:64:0");
+        assertEquals(List.of("STONE"), legacy.filter());
+        assertEquals(List.of("world:1:64:1"), legacy.links());
+        assertEquals(List.of(), legacy.buffer());
+    }
+
+    /**
+     * The main thread's hoppers, all in "world".
+     */
+    private static HopperStorage.Registered registered(HopperRecord... hoppers) {
+        return new HopperStorage.Registered(Set.of("world"), List.of(hoppers));
+    }
+
+    private static HopperStorage.Registered nothingRegistered() {
+        return new HopperStorage.Registered(Set.of(), List.of());
+    }
+
+    @Test
+    void checkpointFoldsTheJournalIntoTheSnapshot() {
+        HopperJournal journal = start();
+        journal.save(hopper(1, 10));
+        journal.save(hopper(2, 20));
+        journal.checkpoint(List.of(), () -> registered(hopper(1, 10), hopper(2, 20)));
+        journal.listWorlds().join();
+
+        assertEquals(0, journalFile.length());
+        assertFalse(dir.resolve("vacuum-hoppers.yml.tmp").toFile().exists());
+        assertEquals(Map.of("world:1:64:0", hopper(1, 10), "world:2:64:0", hopper(2, 20)), snapshotContents());
+    }
+
+    @Test
+    void changesAfterACheckpointAreReplayedOnTopOfTheSnapshot() {
+        HopperJournal journal = start();
+        journal.save(hopper(1, 10));
+        journal.save(hopper(2, 20));
+        journal.checkpoint(List.of(), () -> registered(hopper(1, 10), hopper(2, 20)));
+        journal.save(hopper(1, 11));
+        journal.delete("world", 2, 64, 0);
+
+        assertEquals(Map.of("world:1:64:0", hopper(1, 11)), loadAfterCrash(journal));
+    }
+
+    @Test
+    void checkpointWritesTheRegisteredHoppers() {
+        HopperJournal journal = start();
+        journal.save(hopper(1, 10));
+        journal.save(hopper(2, 20));
+        journal.delete("world", 2, 64, 0);
+        journal.checkpoint(List.of(hopper(1, 99)), () -> registered(hopper(1, 99)));
+        journal.listWorlds().join();
+
+        assertEquals(Map.of("world:1:64:0", hopper(1, 99)), snapshotContents());
+    }
+
+    @Test
+    void checkpointKeepsHoppersOfWorldsNotRegistered() {
+        HopperRecord nether = new HopperRecord("world_nether", 5, 64, 0, OWNER, List.of(), List.of(), 7, 0, List.of());
+        HopperJournal first = start();
+        first.save(nether);
+        first.save(hopper(1, 10));
+        stop(first, List.of(), hopper(1, 10));
+
+        // Only "world" has been loaded since the restart
+        HopperJournal journal = start();
+        journal.save(hopper(2, 20));
+        journal.checkpoint(List.of(), () -> registered(hopper(1, 10), hopper(2, 20)));
+        journal.save(hopper(3, 30));
+        journal.checkpoint(List.of(), () -> registered(hopper(1, 10), hopper(2, 20), hopper(3, 30)));
+        journal.listWorlds().join();
+
+        assertEquals(Map.of("world:1:64:0", hopper(1, 10), "world:2:64:0", hopper(2, 20),
+                "world:3:64:0", hopper(3, 30), "world_nether:5:64:0", nether), snapshotContents());
+    }
+
+    @Test
+    void checkpointWithoutChangesDoesNotAskForTheRegisteredHoppers() {
+        HopperJournal journal = start();
+        journal.checkpoint(List.of(), () -> {
+            throw new AssertionError("nothing to fold");
+        });
+        journal.listWorlds().join();
+
+        assertFalse(yml.exists());
+    }
+
+    @Test
+    void shutdownLeavesOnlyTheSnapshot() {
+        HopperJournal journal = start();
+        journal.save(hopper(1, 10));
+        stop(journal, List.of(hopper(1, 12)), hopper(1, 12));
+
+        assertEquals(0, journalFile.length());
+        assertEquals(Map.of("world:1:64:0", hopper(1, 12)), snapshotContents());
+    }
+
+    @Test
+    void longJournalIsCompactedWithoutACheckpoint() {
+        HopperJournal journal = start();
+        for (int i = 0; i < 1000; i++) {
+            journal.save(hopper(i, i));
+        }
+        journal.listWorlds().join();
+
+        assertEquals(0, journalFile.length());
+        assertEquals(1000, snapshotContents().size());
+    }
+
+    @Test
+    void compactionRotatesBackupGenerations() {
+        HopperJournal journal = start();
+        for (int i = 1; i <= 4; i++) {
+            HopperRecord saved = hopper(1, i);
+            journal.save(saved);
+            journal.checkpoint(List.of(), () -> registered(saved));
+        }
+        journal.listWorlds().join();
+
+        Logger logger = Logger.getLogger(HopperJournal.class.getName());
+        File backup1 = dir.resolve("vacuum-hoppers.yml.1").toFile();
+        File backup2 = dir.resolve("vacuum-hoppers.yml.2").toFile();
+        assertTrue(backup2.exists());
+        assertFalse(dir.resolve("vacuum-hoppers.yml.3").toFile().exists());
+        assertEquals(hopper(1, 3), HopperJournal.readSnapshot(backup1, logger).get("world:1:64:0"));
+        assertEquals(hopper(1, 2), HopperJournal.readSnapshot(backup2, logger).get("world:1:64:0"));
+        assertEquals(hopper(1, 4), snapshotContents().get("world:1:64:0"));
+    }
+}
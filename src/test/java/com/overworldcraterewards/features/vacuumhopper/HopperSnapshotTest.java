@@ -0,0 +1,72 @@
+package com.overworldcraterewards.features.vacuumhopper;
+
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import org.bukkit.Chunk;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class HopperSnapshotTest {
+
+    private static final UUID ALICE = new UUID(0, 1);
+    private static final UUID BOB = new UUID(0, 2);
+
+    private static HopperSnapshot.HopperView hopper(int x, UUID owner, long collected) {
+        return new HopperSnapshot.HopperView("world", x, 64, 0, owner, collected, 1, 2, 0);
+    }
+
+    private static Map<String, Long2ObjectMap<List<HopperSnapshot.HopperView>>> chunk(
+            int chunkX, List<HopperSnapshot.HopperView> hoppers) {
+        Long2ObjectMap<List<HopperSnapshot.HopperView>> chunks = new Long2ObjectOpenHashMap<>();
+        chunks.put(Chunk.getChunkKey(chunkX, 0), hoppers);
+        return Map.of("world", chunks);
+    }
+
+    @Test
+    void totalsAndOwnersFollowTheChangedChunks() {
+        HopperSnapshot first = HopperSnapshot.EMPTY
+                .next(20, chunk(0, List.of(hopper(1, ALICE, 10), hopper(2, BOB, 20))))
+                .next(40, chunk(1, List.of(hopper(17, ALICE, 5))));
+        assertEquals(3, first.size());
+        assertEquals(35, first.getTotalCollected());
+        assertEquals(2, first.getOwnerCount(ALICE));
+
+        // Bob's hopper was broken and Alice's collected more
+        HopperSnapshot second = first.next(60, chunk(0, List.of(hopper(1, ALICE, 12))));
+        assertEquals(3, second.getVersion());
+        assertEquals(2, second.size());
+        assertEquals(17, second.getTotalCollected());
+        assertEquals(Map.of(ALICE, 2), second.getOwners());
+        assertEquals(List.of(hopper(1, ALICE, 12), hopper(17, ALICE, 5)), second.getOwnedHoppers(ALICE));
+    }
+
+    @Test
+    void unchangedChunksAreSharedWithThePreviousSnapshot() {
+        HopperSnapshot first = HopperSnapshot.EMPTY
+                .next(20, chunk(0, List.of(hopper(1, ALICE, 10))))
+                .next(20, chunk(1, List.of(hopper(17, ALICE, 5))));
+        HopperSnapshot second = first.next(40, chunk(0, List.of(hopper(1, ALICE, 11))));
+
+        assertSame(first.getHopper("world", 17, 64, 0), second.getHopper("world", 17, 64, 0));
+        assertEquals(hopper(1, ALICE, 10), first.getHopper("world", 1, 64, 0));
+    }
+
+    @Test
+    void emptiedChunksAreDropped() {
+        HopperSnapshot snapshot = HopperSnapshot.EMPTY
+                .next(20, chunk(0, List.of(hopper(1, ALICE, 10))))
+                .next(40, chunk(0, List.of()));
+
+        assertEquals(0, snapshot.size());
+        assertNull(snapshot.getHopper("world", 1, 64, 0));
+        assertEquals(Map.of(), snapshot.getOwners());
+        assertEquals(List.of(), snapshot.getHoppers());
+    }
+}